@@ -49,6 +49,11 @@ run_tests() {
     java -cp $BUILD_DIR:$TEST_BUILD_DIR com.netmap.TestRunner
 }
 
+run_benchmark() {
+    echo "Running routing benchmark..."
+    java -cp $BUILD_DIR com.netmap.graph.RoutingBenchmark
+}
+
 run() {
     echo "Running application..."
     java -cp $BUILD_DIR com.netmap.Application
@@ -73,6 +78,11 @@ case "$1" in
         compile
         run
         ;;
+    bench)
+        clean
+        compile
+        run_benchmark
+        ;;
     all)
         clean
         compile
@@ -81,7 +91,7 @@ case "$1" in
         run
         ;;
     *)
-        echo "Usage: $0 {clean|compile|test|run|all}"
+        echo "Usage: $0 {clean|compile|test|run|bench|all}"
         exit 1
         ;;
 esac
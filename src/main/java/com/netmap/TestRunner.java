@@ -1,5 +1,8 @@
 package com.netmap;
 
+import com.netmap.analytics.CentralityTest;
+import com.netmap.core.service.NetworkServiceTest;
+import com.netmap.graph.NetworkGraphConcurrencyTest;
 import com.netmap.graph.NetworkGraphTest;
 import com.netmap.regex.NetworkValidatorTest;
 import com.netmap.serialization.NetworkSerializerTest;
@@ -28,11 +31,26 @@ public class TestRunner {
             passed++;
             Logger.success("NetworkGraphTest passed");
             
+            Logger.info("Running NetworkGraphConcurrencyTest");
+            new NetworkGraphConcurrencyTest().runAllTests();
+            passed++;
+            Logger.success("NetworkGraphConcurrencyTest passed");
+            
             Logger.info("Running NetworkSerializerTest");
             new NetworkSerializerTest().runAllTests();
             passed++;
             Logger.success("NetworkSerializerTest passed");
             
+            Logger.info("Running NetworkServiceTest");
+            new NetworkServiceTest().runAllTests();
+            passed++;
+            Logger.success("NetworkServiceTest passed");
+            
+            Logger.info("Running CentralityTest");
+            new CentralityTest().runAllTests();
+            passed++;
+            Logger.success("CentralityTest passed");
+            
         } catch (AssertionError e) {
             failed++;
             Logger.error("Test failed: " + e.getMessage(), e);
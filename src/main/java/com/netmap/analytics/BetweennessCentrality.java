@@ -0,0 +1,179 @@
+package com.netmap.analytics;
+
+import com.netmap.graph.GraphSnapshot;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public final class BetweennessCentrality {
+    
+    private static final int SOURCES_PER_TASK = 16;
+    
+    private final GraphSnapshot graph;
+    private final ForkJoinPool pool;
+    
+    public BetweennessCentrality(GraphSnapshot graph) {
+        this(graph, ForkJoinPool.commonPool());
+    }
+    
+    public BetweennessCentrality(GraphSnapshot graph, ForkJoinPool pool) {
+        this.graph = Objects.requireNonNull(graph, "Graph cannot be null");
+        this.pool = Objects.requireNonNull(pool, "Pool cannot be null");
+    }
+    
+    public CentralityScores compute() {
+        int nodeCount = graph.getNodeCount();
+        int[] sources = new int[nodeCount];
+        Arrays.setAll(sources, i -> i);
+        return run(sources, 1.0);
+    }
+    
+    public CentralityScores computeSampled(int sampleSize, long seed) {
+        if (sampleSize <= 0) throw new IllegalArgumentException("Sample size must be positive");
+        
+        int nodeCount = graph.getNodeCount();
+        if (sampleSize >= nodeCount) {
+            return compute();
+        }
+        
+        int[] nodes = new int[nodeCount];
+        Arrays.setAll(nodes, i -> i);
+        Random random = new Random(seed);
+        for (int i = 0; i < sampleSize; i++) {
+            int j = i + random.nextInt(nodeCount - i);
+            int swap = nodes[i];
+            nodes[i] = nodes[j];
+            nodes[j] = swap;
+        }
+        return run(Arrays.copyOf(nodes, sampleSize), (double) nodeCount / sampleSize);
+    }
+    
+    private CentralityScores run(int[] sources, double scale) {
+        ConcurrentLinkedQueue<Workspace> idle = new ConcurrentLinkedQueue<>();
+        ConcurrentLinkedQueue<Workspace> created = new ConcurrentLinkedQueue<>();
+        pool.invoke(new SourceTask(sources, 0, sources.length, idle, created));
+        
+        double[] scores = new double[graph.getNodeCount()];
+        for (Workspace workspace : created) {
+            for (int node = 0; node < scores.length; node++) {
+                scores[node] += workspace.centrality[node];
+            }
+        }
+        if (scale != 1.0) {
+            for (int node = 0; node < scores.length; node++) {
+                scores[node] *= scale;
+            }
+        }
+        return new CentralityScores(graph, scores);
+    }
+    
+    private final class SourceTask extends RecursiveAction {
+        
+        private static final long serialVersionUID = 1L;
+        
+        private final int[] sources;
+        private final int from;
+        private final int to;
+        private final ConcurrentLinkedQueue<Workspace> idle;
+        private final ConcurrentLinkedQueue<Workspace> created;
+        
+        SourceTask(int[] sources, int from, int to,
+                   ConcurrentLinkedQueue<Workspace> idle, ConcurrentLinkedQueue<Workspace> created) {
+            this.sources = sources;
+            this.from = from;
+            this.to = to;
+            this.idle = idle;
+            this.created = created;
+        }
+        
+        @Override
+        protected void compute() {
+            if (to - from > SOURCES_PER_TASK) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new SourceTask(sources, from, middle, idle, created),
+                          new SourceTask(sources, middle, to, idle, created));
+                return;
+            }
+            
+            // Workspaces are recycled between leaf tasks, so at most one exists per busy worker
+            Workspace workspace = idle.poll();
+            if (workspace == null) {
+                workspace = new Workspace(graph.getNodeCount());
+                created.add(workspace);
+            }
+            for (int i = from; i < to; i++) {
+                workspace.accumulate(sources[i]);
+            }
+            idle.add(workspace);
+        }
+    }
+    
+    private final class Workspace {
+        
+        private final double[] centrality;
+        private final double[] sigma;
+        private final double[] delta;
+        private final int[] distances;
+        private final int[] order;
+        
+        Workspace(int nodeCount) {
+            this.centrality = new double[nodeCount];
+            this.sigma = new double[nodeCount];
+            this.delta = new double[nodeCount];
+            this.distances = new int[nodeCount];
+            this.order = new int[nodeCount];
+            Arrays.fill(distances, -1);
+        }
+        
+        void accumulate(int source) {
+            int head = 0;
+            int tail = 0;
+            order[tail++] = source;
+            distances[source] = 0;
+            sigma[source] = 1.0;
+            
+            while (head < tail) {
+                int current = order[head++];
+                int next = distances[current] + 1;
+                for (int e = graph.edgeStart(current), end = graph.edgeEnd(current); e < end; e++) {
+                    int neighbor = graph.getTarget(e);
+                    if (distances[neighbor] < 0) {
+                        distances[neighbor] = next;
+                        order[tail++] = neighbor;
+                    }
+                    if (distances[neighbor] == next) {
+                        sigma[neighbor] += sigma[current];
+                    }
+                }
+            }
+            
+            // Dependencies flow back from the BFS order; successors on shortest paths sit one level deeper
+            for (int i = tail - 1; i >= 0; i--) {
+                int current = order[i];
+                int next = distances[current] + 1;
+                double dependency = 0.0;
+                for (int e = graph.edgeStart(current), end = graph.edgeEnd(current); e < end; e++) {
+                    int neighbor = graph.getTarget(e);
+                    if (distances[neighbor] == next) {
+                        dependency += (1.0 + delta[neighbor]) / sigma[neighbor];
+                    }
+                }
+                delta[current] = sigma[current] * dependency;
+                if (current != source) {
+                    centrality[current] += delta[current];
+                }
+            }
+            
+            for (int i = 0; i < tail; i++) {
+                int node = order[i];
+                distances[node] = -1;
+                sigma[node] = 0.0;
+                delta[node] = 0.0;
+            }
+        }
+    }
+}
\ No newline at end of file
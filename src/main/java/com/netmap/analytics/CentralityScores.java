@@ -0,0 +1,46 @@
+package com.netmap.analytics;
+
+import com.netmap.graph.GraphSnapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+public final class CentralityScores {
+    
+    private final GraphSnapshot snapshot;
+    private final double[] scores;
+    
+    CentralityScores(GraphSnapshot snapshot, double[] scores) {
+        this.snapshot = snapshot;
+        this.scores = scores;
+    }
+    
+    public GraphSnapshot getSnapshot() {
+        return snapshot;
+    }
+    
+    public double[] getScores() {
+        return scores;
+    }
+    
+    public double getScore(String nodeId) {
+        int node = snapshot.indexOf(nodeId);
+        return node < 0 ? 0.0 : scores[node];
+    }
+    
+    public List<String> topNodeIds(int count) {
+        int[] ranked = IntStream.range(0, scores.length)
+            .boxed()
+            .sorted((a, b) -> Double.compare(scores[b], scores[a]))
+            .limit(count)
+            .mapToInt(Integer::intValue)
+            .toArray();
+        
+        List<String> ids = new ArrayList<>(ranked.length);
+        for (int node : ranked) {
+            ids.add(snapshot.getNodeId(node));
+        }
+        return ids;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,140 @@
+package com.netmap.analytics;
+
+import com.netmap.core.domain.*;
+import com.netmap.graph.GraphSnapshot;
+import com.netmap.graph.NetworkGraph;
+
+import java.util.List;
+
+public class CentralityTest {
+    
+    public static void main(String[] args) {
+        CentralityTest test = new CentralityTest();
+        test.runAllTests();
+    }
+    
+    public void runAllTests() {
+        System.out.println("Running Centrality Tests...\n");
+        
+        testBetweennessOnChain();
+        testBetweennessSplitPaths();
+        testSampledBetweenness();
+        testPageRank();
+        
+        System.out.println("\n✓ All Centrality tests passed!");
+    }
+    
+    private void testBetweennessOnChain() {
+        System.out.println("Test: Betweenness On Chain");
+        
+        NetworkGraph graph = createGraph(5);
+        for (int i = 1; i < 5; i++) {
+            graph.addEdge(createTestEdge("n" + i, "n" + (i + 1)));
+        }
+        
+        CentralityScores scores = new BetweennessCentrality(graph.snapshot()).compute();
+        assertClose(0.0, scores.getScore("n1"), "Chain start lies on no inner path");
+        assertClose(3.0, scores.getScore("n2"), "n2 relays 3 pairs");
+        assertClose(4.0, scores.getScore("n3"), "n3 relays 4 pairs");
+        assertClose(3.0, scores.getScore("n4"), "n4 relays 3 pairs");
+        assertClose(0.0, scores.getScore("n5"), "Chain end lies on no inner path");
+        assertTrue(scores.topNodeIds(1).equals(List.of("n3")), "Middle node should rank first");
+        
+        System.out.println("  ✓ Passed\n");
+    }
+    
+    private void testBetweennessSplitPaths() {
+        System.out.println("Test: Betweenness Split Paths");
+        
+        NetworkGraph graph = createGraph(4);
+        graph.addEdge(createTestEdge("n1", "n2"));
+        graph.addEdge(createTestEdge("n1", "n3"));
+        graph.addEdge(createTestEdge("n2", "n4"));
+        graph.addEdge(createTestEdge("n3", "n4"));
+        
+        CentralityScores scores = new BetweennessCentrality(graph.snapshot()).compute();
+        assertClose(0.5, scores.getScore("n2"), "Each branch carries half of n1 -> n4");
+        assertClose(0.5, scores.getScore("n3"), "Each branch carries half of n1 -> n4");
+        
+        System.out.println("  ✓ Passed\n");
+    }
+    
+    private void testSampledBetweenness() {
+        System.out.println("Test: Sampled Betweenness");
+        
+        NetworkGraph graph = createGraph(50);
+        for (int i = 1; i < 50; i++) {
+            graph.addEdge(createTestEdge("n" + i, "n" + (i + 1)));
+            graph.addEdge(createTestEdge("n" + (i + 1), "n" + i));
+        }
+        
+        GraphSnapshot snapshot = graph.snapshot();
+        CentralityScores exact = new BetweennessCentrality(snapshot).compute();
+        CentralityScores full = new BetweennessCentrality(snapshot).computeSampled(50, 7L);
+        CentralityScores sampled = new BetweennessCentrality(snapshot).computeSampled(25, 7L);
+        
+        assertClose(exact.getScore("n25"), full.getScore("n25"), "Sampling every node should be exact");
+        assertTrue(sampled.getScore("n25") > sampled.getScore("n2"), "Sample should still favour the middle");
+        
+        System.out.println("  ✓ Passed\n");
+    }
+    
+    private void testPageRank() {
+        System.out.println("Test: PageRank");
+        
+        NetworkGraph graph = createGraph(4);
+        graph.addEdge(createTestEdge("n1", "n4"));
+        graph.addEdge(createTestEdge("n2", "n4"));
+        graph.addEdge(createTestEdge("n3", "n4"));
+        graph.addEdge(createTestEdge("n4", "n1"));
+        
+        PageRank pageRank = new PageRank(graph.snapshot());
+        CentralityScores scores = pageRank.compute();
+        
+        double total = 0.0;
+        for (double score : scores.getScores()) {
+            total += score;
+        }
+        assertClose(1.0, total, "Ranks should sum to 1");
+        assertTrue(scores.topNodeIds(2).equals(List.of("n4", "n1")), "Hub and its only successor should rank highest");
+        assertClose(scores.getScore("n2"), scores.getScore("n3"), "Symmetric leaves should rank equally");
+        assertTrue(pageRank.getIterations() < PageRank.DEFAULT_MAX_ITERATIONS, "Should converge before the iteration cap");
+        
+        System.out.println("  ✓ Passed\n");
+    }
+    
+    private NetworkGraph createGraph(int nodeCount) {
+        NetworkGraph graph = new NetworkGraph();
+        for (int i = 1; i <= nodeCount; i++) {
+            graph.addNode(Node.builder()
+                .id("n" + i)
+                .name("Test-n" + i)
+                .ipAddress("10.0." + (i / 250) + "." + (i % 250 + 1))
+                .type(NodeType.ROUTER)
+                .build());
+        }
+        return graph;
+    }
+    
+    private Edge createTestEdge(String from, String to) {
+        return Edge.builder()
+            .sourceId(from)
+            .targetId(to)
+            .bandwidth(100)
+            .latency(10)
+            .connectionType(ConnectionType.FIBER)
+            .build();
+    }
+    
+    private void assertTrue(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError("Assertion failed: " + message);
+        }
+    }
+    
+    private void assertClose(double expected, double actual, String message) {
+        if (Math.abs(expected - actual) > 1e-6) {
+            throw new AssertionError(message + " - Expected: " + expected + ", Got: " + actual);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,85 @@
+package com.netmap.analytics;
+
+import com.netmap.graph.GraphSnapshot;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+public final class PageRank {
+    
+    public static final double DEFAULT_DAMPING = 0.85;
+    public static final double DEFAULT_TOLERANCE = 1e-6;
+    public static final int DEFAULT_MAX_ITERATIONS = 100;
+    
+    private final GraphSnapshot graph;
+    private final double damping;
+    private final double tolerance;
+    private final int maxIterations;
+    private int iterations;
+    
+    public PageRank(GraphSnapshot graph) {
+        this(graph, DEFAULT_DAMPING, DEFAULT_TOLERANCE, DEFAULT_MAX_ITERATIONS);
+    }
+    
+    public PageRank(GraphSnapshot graph, double damping, double tolerance, int maxIterations) {
+        if (damping <= 0 || damping >= 1) throw new IllegalArgumentException("Damping must be in (0, 1)");
+        if (tolerance <= 0) throw new IllegalArgumentException("Tolerance must be positive");
+        if (maxIterations <= 0) throw new IllegalArgumentException("Max iterations must be positive");
+        this.graph = Objects.requireNonNull(graph, "Graph cannot be null");
+        this.damping = damping;
+        this.tolerance = tolerance;
+        this.maxIterations = maxIterations;
+    }
+    
+    public CentralityScores compute() {
+        int nodeCount = graph.getNodeCount();
+        double[] ranks = new double[nodeCount];
+        double[] next = new double[nodeCount];
+        double[] contributions = new double[nodeCount];
+        if (nodeCount == 0) {
+            return new CentralityScores(graph, ranks);
+        }
+        Arrays.fill(ranks, 1.0 / nodeCount);
+        
+        iterations = 0;
+        while (iterations < maxIterations) {
+            iterations++;
+            
+            double[] current = ranks;
+            double dangling = IntStream.range(0, nodeCount).parallel()
+                .mapToDouble(node -> {
+                    int degree = graph.getOutDegree(node);
+                    contributions[node] = degree == 0 ? 0.0 : current[node] / degree;
+                    return degree == 0 ? current[node] : 0.0;
+                })
+                .sum();
+            
+            // Pull along incoming edges so every node's new rank is written by exactly one worker
+            double base = (1.0 - damping) / nodeCount + damping * dangling / nodeCount;
+            double[] target = next;
+            double change = IntStream.range(0, nodeCount).parallel()
+                .mapToDouble(node -> {
+                    double sum = 0.0;
+                    for (int i = graph.inEdgeStart(node), end = graph.inEdgeEnd(node); i < end; i++) {
+                        sum += contributions[graph.getInSource(i)];
+                    }
+                    target[node] = base + damping * sum;
+                    return Math.abs(target[node] - current[node]);
+                })
+                .sum();
+            
+            next = ranks;
+            ranks = target;
+            if (change < tolerance) {
+                break;
+            }
+        }
+        
+        return new CentralityScores(graph, ranks);
+    }
+    
+    public int getIterations() {
+        return iterations;
+    }
+}
\ No newline at end of file
@@ -102,6 +102,8 @@ public class Edge implements Serializable {
             Objects.requireNonNull(sourceId, "Source ID required");
             Objects.requireNonNull(targetId, "Target ID required");
             Objects.requireNonNull(connectionType, "Connection type required");
+            // Checked here as well as in the setter so an edge built without a bandwidth never reaches a log or file
+            if (bandwidth <= 0) throw new IllegalArgumentException("Bandwidth must be positive");
             return new Edge(this);
         }
     }
@@ -1,27 +1,78 @@
 package com.netmap.core.service;
 
+import com.netmap.analytics.BetweennessCentrality;
+import com.netmap.analytics.CentralityScores;
+import com.netmap.analytics.PageRank;
+import com.netmap.core.domain.ConnectionType;
 import com.netmap.core.domain.Edge;
 import com.netmap.core.domain.Node;
+import com.netmap.core.domain.NodeType;
+import com.netmap.graph.BottleneckPath;
+import com.netmap.graph.FailureScenario;
+import com.netmap.graph.HopDistances;
+import com.netmap.graph.MappedGraph;
+import com.netmap.graph.MaxFlowResult;
 import com.netmap.graph.NetworkGraph;
+import com.netmap.graph.PathConstraints;
+import com.netmap.graph.PathSearchMode;
+import com.netmap.graph.RoutingMode;
+import com.netmap.graph.ScenarioImpact;
+import com.netmap.graph.SpanningCriterion;
+import com.netmap.graph.SpanningForest;
+import com.netmap.graph.Subgraph;
+import com.netmap.graph.WeightedPath;
 import com.netmap.regex.NetworkValidator;
 import com.netmap.serialization.JsonExporter;
+import com.netmap.serialization.JsonImporter;
+import com.netmap.serialization.Mutation;
+import com.netmap.serialization.MutationLog;
 import com.netmap.serialization.NetworkSerializer;
+import com.netmap.serialization.SerializationFormat;
 
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
-public class NetworkService {
+public class NetworkService implements Closeable {
+    
+    private static final int DEFAULT_CACHE_CAPACITY = 10_000;
     
     private final NetworkGraph graph;
+    private final PathQueryCache queryCache;
+    private final MutationLog log;
     
     public NetworkService() {
-        this.graph = new NetworkGraph();
+        this(new NetworkGraph());
     }
     
     public NetworkService(NetworkGraph graph) {
+        this(graph, DEFAULT_CACHE_CAPACITY);
+    }
+    
+    public NetworkService(NetworkGraph graph, int cacheCapacity) {
+        this(graph, cacheCapacity, null);
+    }
+    
+    private NetworkService(NetworkGraph graph, int cacheCapacity, MutationLog log) {
         this.graph = Objects.requireNonNull(graph);
+        this.queryCache = new PathQueryCache(cacheCapacity, graph::getVersion);
+        this.log = log;
+    }
+    
+    public static NetworkService openDurable(String filename) throws IOException {
+        MutationLog log = NetworkSerializer.openMutationLog(filename);
+        return new NetworkService(log.getGraph(), DEFAULT_CACHE_CAPACITY, log);
+    }
+    
+    public static NetworkService openDurable(String filename, long compactionThreshold) throws IOException {
+        MutationLog log = NetworkSerializer.openMutationLog(filename, compactionThreshold);
+        return new NetworkService(log.getGraph(), DEFAULT_CACHE_CAPACITY, log);
     }
     
     public void addNode(Node node) {
@@ -31,12 +82,65 @@ public class NetworkService {
             throw new IllegalArgumentException("Invalid IP address: " + node.getIpAddress());
         }
         
-        graph.addNode(node);
+        mutate(Mutation.addNode(node));
     }
     
     public void addEdge(Edge edge) {
         Objects.requireNonNull(edge, "Edge cannot be null");
-        graph.addEdge(edge);
+        mutate(Mutation.addEdge(edge));
+    }
+    
+    public void addAll(Collection<Node> nodes, Collection<Edge> edges) {
+        Objects.requireNonNull(nodes, "Nodes cannot be null");
+        Objects.requireNonNull(edges, "Edges cannot be null");
+        
+        for (Node node : nodes) {
+            Objects.requireNonNull(node, "Node cannot be null");
+            if (!NetworkValidator.isValidIPv4(node.getIpAddress())) {
+                throw new IllegalArgumentException("Invalid IP address: " + node.getIpAddress());
+            }
+        }
+        mutate(Mutation.addAll(nodes, edges));
+    }
+    
+    public void clear() {
+        mutate(Mutation.clear());
+    }
+    
+    public void compactLog() throws IOException {
+        if (log == null) {
+            throw new IllegalStateException("Service is not backed by a mutation log");
+        }
+        log.compact();
+    }
+    
+    public boolean isDurable() {
+        return log != null;
+    }
+    
+    public boolean isReadOnly() {
+        return log != null && log.isFailed();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        if (log != null) {
+            log.close();
+        }
+    }
+    
+    private void mutate(Mutation mutation) {
+        if (log == null) {
+            mutation.applyTo(graph);
+            return;
+        }
+        try {
+            log.commit(mutation);
+        } catch (IOException e) {
+            // A failed sync leaves the service read-only; queries still answer from the in-memory graph,
+            // which may hold mutations the log lost until the service is reopened
+            throw new UncheckedIOException("Mutation could not be persisted", e);
+        }
     }
     
     public Optional<Node> findNode(String nodeId) {
@@ -52,11 +156,125 @@ public class NetworkService {
     }
     
     public boolean isConnected(String sourceId, String targetId) {
-        return graph.hasPath(sourceId, targetId);
+        return queryCache.get(PathQueryCache.QueryType.CONNECTIVITY, sourceId, targetId,
+            () -> graph.isReachable(sourceId, targetId));
     }
     
     public List<String> findShortestPath(String sourceId, String targetId) {
-        return graph.findShortestPath(sourceId, targetId);
+        return queryCache.get(PathQueryCache.QueryType.SHORTEST_PATH, sourceId, targetId,
+            () -> List.copyOf(graph.findShortestPath(sourceId, targetId)));
+    }
+    
+    public List<String> findShortestPath(String sourceId, String targetId, PathSearchMode mode) {
+        return graph.findShortestPath(sourceId, targetId, mode);
+    }
+    
+    public boolean isConnected(String sourceId, String targetId, Set<ConnectionType> allowedTypes) {
+        return graph.hasPath(sourceId, targetId, allowedTypes);
+    }
+    
+    public List<String> findShortestPath(String sourceId, String targetId, Set<ConnectionType> allowedTypes) {
+        return graph.findShortestPath(sourceId, targetId, allowedTypes);
+    }
+    
+    public boolean isConnected(String sourceId, String targetId, PathConstraints constraints) {
+        return graph.hasPath(sourceId, targetId, constraints);
+    }
+    
+    public Optional<WeightedPath> findConstrainedPath(String sourceId, String targetId, PathConstraints constraints) {
+        return graph.findConstrainedPath(sourceId, targetId, constraints);
+    }
+    
+    public Iterable<Node> getNodesOfType(NodeType type) {
+        return graph.nodesOfType(type);
+    }
+    
+    public Iterable<Edge> getConnectionsOfType(ConnectionType type) {
+        return graph.edgesOfType(type);
+    }
+    
+    public List<Node> findNodesByAddress(String ipAddress) {
+        return graph.findNodesByAddress(ipAddress);
+    }
+    
+    public List<Node> resolveAddress(String ipAddress) {
+        return graph.resolveAddress(ipAddress);
+    }
+    
+    public List<Node> findNodesInSubnet(String cidr) {
+        return graph.findNodesInSubnet(cidr);
+    }
+    
+    public void assignSubnet(String cidr, String nodeId) {
+        mutate(Mutation.assignSubnet(cidr, nodeId));
+    }
+    
+    public Optional<WeightedPath> findLowestLatencyPath(String sourceId, String targetId) {
+        return graph.findLowestLatencyPath(sourceId, targetId);
+    }
+    
+    public Optional<WeightedPath> findLowestLatencyPath(String sourceId, String targetId, RoutingMode mode) {
+        return graph.findLowestLatencyPath(sourceId, targetId, mode);
+    }
+    
+    public List<WeightedPath> findFailoverPaths(String sourceId, String targetId, int k) {
+        return graph.findKShortestPaths(sourceId, targetId, k);
+    }
+    
+    public Optional<BottleneckPath> findWidestPath(String sourceId, String targetId) {
+        return graph.findWidestPath(sourceId, targetId);
+    }
+    
+    public Optional<MaxFlowResult> computeMaxThroughput(String sourceId, String targetId) {
+        return graph.computeMaxFlow(sourceId, targetId);
+    }
+    
+    public Optional<HopDistances> computeHopDistances(String sourceId) {
+        return graph.computeHopDistances(sourceId);
+    }
+    
+    public Stream<Node> streamNeighborhood(String centerId, int hops) {
+        return graph.streamNeighborhood(centerId, hops);
+    }
+    
+    public Optional<Subgraph> extractNeighborhood(String centerId, int hops) {
+        return graph.extractSubgraph(centerId, hops);
+    }
+    
+    public Optional<Subgraph> extractNeighborhood(String centerId, int hops, int maxNodes, int maxEdges) {
+        return graph.extractSubgraph(centerId, hops, maxNodes, maxEdges);
+    }
+    
+    public SpanningForest computeBackbone(SpanningCriterion criterion) {
+        return graph.computeSpanningForest(criterion);
+    }
+    
+    public List<Node> findCriticalNodes() {
+        return graph.findArticulationPoints();
+    }
+    
+    public List<Edge> findCriticalLinks() {
+        return graph.findBridges();
+    }
+    
+    public long getFailureImpact(String nodeId) {
+        return graph.getFailureImpact(nodeId);
+    }
+    
+    public List<ScenarioImpact> simulateFailures(List<FailureScenario> scenarios) {
+        return graph.simulateFailures(scenarios);
+    }
+    
+    public CentralityScores computeBetweenness() {
+        return new BetweennessCentrality(graph.snapshot()).compute();
+    }
+    
+    public CentralityScores computeBetweenness(int sampleSize, long seed) {
+        return new BetweennessCentrality(graph.snapshot()).computeSampled(sampleSize, seed);
+    }
+    
+    public CentralityScores computePageRank() {
+        return new PageRank(graph.snapshot()).compute();
     }
     
     public int getNodeCount() {
@@ -71,10 +289,62 @@ public class NetworkService {
         return graph.getNodeDegree(nodeId);
     }
     
+    public List<Edge> getIncomingConnections(String nodeId) {
+        return graph.getIncomingEdges(nodeId);
+    }
+    
+    public int getInDegree(String nodeId) {
+        return graph.getInDegree(nodeId);
+    }
+    
+    public int getComponentId(String nodeId) {
+        return graph.getComponentId(nodeId);
+    }
+    
+    public int getComponentSize(String nodeId) {
+        return graph.getComponentSize(nodeId);
+    }
+    
+    public int getComponentCount() {
+        return graph.getComponentCount();
+    }
+    
+    public boolean inSameComponent(String firstId, String secondId) {
+        return graph.inSameComponent(firstId, secondId);
+    }
+    
+    public int getStrongComponentId(String nodeId) {
+        return graph.getStrongComponentId(nodeId);
+    }
+    
+    public int getStrongComponentSize(String nodeId) {
+        return graph.getStrongComponentSize(nodeId);
+    }
+    
+    public boolean inSameStrongComponent(String firstId, String secondId) {
+        return graph.inSameStrongComponent(firstId, secondId);
+    }
+    
     public void saveNetwork(String filename) throws IOException {
         NetworkSerializer.serialize(graph, filename);
     }
     
+    public void saveNetwork(String filename, SerializationFormat format) throws IOException {
+        NetworkSerializer.serialize(graph, filename, format);
+    }
+    
+    public void saveMappedNetwork(String filename) throws IOException {
+        NetworkSerializer.exportMapped(graph, filename);
+    }
+    
+    public static MappedGraph openMappedNetwork(String filename) throws IOException {
+        return NetworkSerializer.openMapped(filename);
+    }
+    
+    public void saveRoutingIndex(String filename) throws IOException {
+        NetworkSerializer.serializeRoutingIndex(graph, filename);
+    }
+    
     public void exportToJson(String filename) throws IOException {
         JsonExporter.exportToJson(graph, filename);
     }
@@ -82,9 +352,25 @@ public class NetworkService {
     public static NetworkService loadNetwork(String filename) 
             throws IOException, ClassNotFoundException {
         NetworkGraph loadedGraph = NetworkSerializer.deserialize(filename);
+        NetworkSerializer.loadRoutingIndex(loadedGraph, filename);
+        return new NetworkService(loadedGraph);
+    }
+    
+    public static NetworkService loadNetwork(String filename, SerializationFormat format)
+            throws IOException, ClassNotFoundException {
+        NetworkGraph loadedGraph = NetworkSerializer.deserialize(filename, format);
+        NetworkSerializer.loadRoutingIndex(loadedGraph, filename);
         return new NetworkService(loadedGraph);
     }
     
+    public static NetworkService importFromJson(String filename) throws IOException {
+        return new NetworkService(JsonImporter.importFromJson(filename));
+    }
+    
+    public PathQueryCache.CacheStats getQueryCacheStats() {
+        return queryCache.getStats();
+    }
+    
     public NetworkGraph getGraph() {
         return graph;
     }
@@ -0,0 +1,202 @@
+package com.netmap.core.service;
+
+import com.netmap.core.domain.*;
+
+import com.netmap.serialization.NetworkSerializer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class NetworkServiceTest {
+    
+    public static void main(String[] args) {
+        NetworkServiceTest test = new NetworkServiceTest();
+        test.runAllTests();
+    }
+    
+    public void runAllTests() {
+        System.out.println("Running NetworkService Tests...\n");
+        
+        testQueryCache();
+        testCacheEviction();
+        testDurableService();
+        
+        System.out.println("\n✓ All NetworkService tests passed!");
+    }
+    
+    private void testQueryCache() {
+        System.out.println("Test: Path Query Cache");
+        
+        NetworkService service = new NetworkService();
+        service.addNode(createTestNode("n1", "192.168.1.1"));
+        service.addNode(createTestNode("n2", "192.168.1.2"));
+        service.addNode(createTestNode("n3", "192.168.1.3"));
+        service.addEdge(createTestEdge("n1", "n2"));
+        
+        assertFalse(service.isConnected("n1", "n3"), "n3 should not be reachable yet");
+        assertFalse(service.isConnected("n1", "n3"), "Cached answer should be the same");
+        List<String> path = service.findShortestPath("n1", "n2");
+        assertEqual(2, service.findShortestPath("n1", "n2").size(), "Cached path should have 2 nodes");
+        assertTrue(path == service.findShortestPath("n1", "n2"), "Repeated query should be served from cache");
+        
+        PathQueryCache.CacheStats stats = service.getQueryCacheStats();
+        assertEqual(3, (int) stats.getHits(), "Should record 3 hits");
+        assertEqual(2, (int) stats.getMisses(), "Should record 2 misses");
+        
+        service.addEdge(createTestEdge("n2", "n3"));
+        assertTrue(service.isConnected("n1", "n3"), "Modification should invalidate cached answers");
+        assertEqual(2, (int) service.getQueryCacheStats().getInvalidations(), "Both entries should be invalidated");
+        
+        System.out.println("  ✓ Passed\n");
+    }
+    
+    private void testCacheEviction() {
+        System.out.println("Test: Cache Eviction");
+        
+        PathQueryCache cache = new PathQueryCache(2, () -> 0L);
+        
+        cache.get(PathQueryCache.QueryType.CONNECTIVITY, "a", "b", () -> true);
+        cache.get(PathQueryCache.QueryType.CONNECTIVITY, "a", "c", () -> true);
+        cache.get(PathQueryCache.QueryType.CONNECTIVITY, "a", "b", () -> true);
+        cache.get(PathQueryCache.QueryType.CONNECTIVITY, "a", "d", () -> true);
+        
+        assertEqual(2, cache.size(), "Cache should stay within capacity");
+        assertEqual(1, (int) cache.getStats().getEvictions(), "Should record 1 eviction");
+        
+        cache.get(PathQueryCache.QueryType.CONNECTIVITY, "a", "b", () -> false);
+        assertEqual(2, (int) cache.getStats().getHits(), "Recently used entry should survive eviction");
+        
+        System.out.println("  ✓ Passed\n");
+    }
+    
+    private void testDurableService() {
+        System.out.println("Test: Durable Service Recovery");
+        
+        String name = "test_durable";
+        Path journal = Paths.get("data", name + ".journal");
+        try {
+            NetworkSerializer.deleteMutationLog(name);
+            try (NetworkService service = NetworkService.openDurable(name)) {
+                assertTrue(service.isDurable(), "Service should be backed by a log");
+                for (int i = 1; i <= 5; i++) {
+                    service.addNode(createTestNode("d" + i, "10.9.0." + i));
+                }
+                service.addEdge(createTestEdge("d1", "d2"));
+                service.assignSubnet("172.16.0.0/16", "d3");
+                service.addAll(List.of(createTestNode("d6", "10.9.0.6")), List.of(createTestEdge("d2", "d6")));
+                try {
+                    service.addEdge(createTestEdge("d1", "missing"));
+                    throw new AssertionError("Edge to an unknown node should be rejected");
+                } catch (IllegalArgumentException expected) {
+                    // Rejected mutations never reach the log
+                }
+                try {
+                    service.addEdge(Edge.builder()
+                        .sourceId("d1")
+                        .targetId("d3")
+                        .latency(5)
+                        .connectionType(ConnectionType.ETHERNET)
+                        .build());
+                    throw new AssertionError("Edge without a bandwidth should be rejected");
+                } catch (IllegalArgumentException expected) {
+                    // A record the replay would refuse must never be logged
+                }
+            }
+            
+            try (NetworkService service = NetworkService.openDurable(name)) {
+                assertEqual(6, service.getNodeCount(), "Nodes should be replayed");
+                assertEqual(2, service.getConnectionCount(), "Edges should be replayed");
+                assertTrue(service.isConnected("d1", "d6"), "Batch should be replayed");
+                assertEqual(1, service.resolveAddress("172.16.4.5").size(), "Subnet should be replayed");
+                
+                service.compactLog();
+                service.clear();
+                service.addNode(createTestNode("c1", "10.9.1.1"));
+                
+                Thread[] writers = new Thread[4];
+                for (int t = 0; t < writers.length; t++) {
+                    writers[t] = new Thread(() -> {
+                        for (int i = 0; i < 50; i++) {
+                            service.addEdge(createTestEdge("c1", "c1"));
+                        }
+                    });
+                    writers[t].start();
+                }
+                for (Thread writer : writers) {
+                    writer.join();
+                }
+            }
+            
+            // Simulate a crash in the middle of a group write
+            Path segment;
+            try (Stream<Path> files = Files.list(journal)) {
+                segment = files.filter(file -> file.toString().endsWith(".wal")).max(Path::compareTo).orElseThrow();
+            }
+            Files.write(segment, new byte[] {0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+            
+            try (NetworkService service = NetworkService.openDurable(name, 2048)) {
+                assertEqual(1, service.getNodeCount(), "Clear and snapshot should be honoured");
+                assertEqual(200, service.getConnectionCount(), "Concurrent commits should all be durable");
+                assertTrue(!service.isReadOnly(), "A healthy log should accept writes");
+                for (int i = 0; i < 100; i++) {
+                    service.addNode(createTestNode("b" + i, "10.9.2." + (i + 1)));
+                }
+            }
+            
+            try (NetworkService service = NetworkService.openDurable(name)) {
+                assertEqual(101, service.getNodeCount(), "Writes after a torn tail should survive");
+                assertEqual(200, service.getConnectionCount(), "Edges should survive background compaction");
+            }
+            try (Stream<Path> files = Files.list(journal)) {
+                assertTrue(files.anyMatch(file -> file.toString().endsWith(".nmg")), "Background compaction should leave a snapshot");
+            }
+            
+            NetworkSerializer.deleteMutationLog(name);
+            System.out.println("  ✓ Passed\n");
+        } catch (IOException | InterruptedException e) {
+            throw new AssertionError("Durable service failed: " + e.getMessage());
+        }
+    }
+    
+    private Node createTestNode(String id, String ip) {
+        return Node.builder()
+            .id(id)
+            .name("Test-" + id)
+            .ipAddress(ip)
+            .type(NodeType.SERVER)
+            .build();
+    }
+    
+    private Edge createTestEdge(String from, String to) {
+        return Edge.builder()
+            .sourceId(from)
+            .targetId(to)
+            .bandwidth(100)
+            .latency(10)
+            .connectionType(ConnectionType.ETHERNET)
+            .build();
+    }
+    
+    private void assertTrue(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError("Assertion failed: " + message);
+        }
+    }
+    
+    private void assertFalse(boolean condition, String message) {
+        if (condition) {
+            throw new AssertionError("Assertion failed: " + message);
+        }
+    }
+    
+    private void assertEqual(int expected, int actual, String message) {
+        if (expected != actual) {
+            throw new AssertionError(message + " - Expected: " + expected + ", Got: " + actual);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,159 @@
+package com.netmap.core.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+public class PathQueryCache {
+    
+    public enum QueryType {
+        SHORTEST_PATH,
+        CONNECTIVITY
+    }
+    
+    private final int capacity;
+    private final LongSupplier versionSource;
+    private final Map<Key, Object> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private long version;
+    
+    public PathQueryCache(int capacity, LongSupplier versionSource) {
+        if (capacity <= 0) throw new IllegalArgumentException("Capacity must be positive");
+        this.capacity = capacity;
+        this.versionSource = Objects.requireNonNull(versionSource);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest) {
+                if (size() > PathQueryCache.this.capacity) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.version = versionSource.getAsLong();
+    }
+    
+    @SuppressWarnings("unchecked")
+    public <T> T get(QueryType type, String sourceId, String targetId, Supplier<T> query) {
+        Key key = new Key(type, sourceId, targetId);
+        long current = versionSource.getAsLong();
+        
+        synchronized (entries) {
+            invalidateIfStale(current);
+            Object cached = entries.get(key);
+            if (cached != null) {
+                hits.increment();
+                return (T) cached;
+            }
+        }
+        
+        misses.increment();
+        T value = query.get();
+        
+        synchronized (entries) {
+            // A result computed while the graph changed belongs to an old version and is not stored
+            invalidateIfStale(versionSource.getAsLong());
+            if (current == version && value != null) {
+                entries.put(key, value);
+            }
+        }
+        return value;
+    }
+    
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+    
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+    
+    public int getCapacity() {
+        return capacity;
+    }
+    
+    public CacheStats getStats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), invalidations.sum(), size());
+    }
+    
+    private void invalidateIfStale(long current) {
+        if (current != version) {
+            invalidations.add(entries.size());
+            entries.clear();
+            version = current;
+        }
+    }
+    
+    private static final class Key {
+        private final QueryType type;
+        private final String sourceId;
+        private final String targetId;
+        private final int hash;
+        
+        Key(QueryType type, String sourceId, String targetId) {
+            this.type = type;
+            this.sourceId = sourceId;
+            this.targetId = targetId;
+            this.hash = Objects.hash(type, sourceId, targetId);
+        }
+        
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (obj == null || getClass() != obj.getClass()) return false;
+            Key key = (Key) obj;
+            return type == key.type
+                && Objects.equals(sourceId, key.sourceId)
+                && Objects.equals(targetId, key.targetId);
+        }
+        
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+    
+    public static class CacheStats {
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long invalidations;
+        private final int size;
+        
+        public CacheStats(long hits, long misses, long evictions, long invalidations, int size) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.invalidations = invalidations;
+            this.size = size;
+        }
+        
+        public long getHits() { return hits; }
+        public long getMisses() { return misses; }
+        public long getEvictions() { return evictions; }
+        public long getInvalidations() { return invalidations; }
+        public int getSize() { return size; }
+        
+        public double getHitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("CacheStats[hits=%d, misses=%d, evictions=%d, invalidations=%d, size=%d, hitRate=%.2f]",
+                hits, misses, evictions, invalidations, size, getHitRate());
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,142 @@
+package com.netmap.graph;
+
+import java.util.Arrays;
+
+final class BidirectionalSearch {
+    
+    private static final int[] NO_PATH = new int[0];
+    
+    private static final ThreadLocal<BidirectionalSearch> SEARCHES = ThreadLocal.withInitial(BidirectionalSearch::new);
+    
+    private int[] forwardMarks;
+    private int[] backwardMarks;
+    private int[] forwardParents;
+    private int[] backwardParents;
+    private int[] forwardDepths;
+    private int[] backwardDepths;
+    private int[] forwardQueue;
+    private int[] backwardQueue;
+    private int epoch;
+    
+    private BidirectionalSearch() {
+        resize(0);
+    }
+    
+    static BidirectionalSearch forThread(GraphSnapshot graph) {
+        BidirectionalSearch search = SEARCHES.get();
+        if (graph.getNodeCount() > search.forwardMarks.length) {
+            search.resize(Math.max(graph.getNodeCount(), search.forwardMarks.length + (search.forwardMarks.length >> 1)));
+        }
+        return search;
+    }
+    
+    int[] search(GraphSnapshot graph, int source, int target) {
+        if (source == target) {
+            return new int[] { source };
+        }
+        
+        begin();
+        forwardMarks[source] = epoch;
+        forwardParents[source] = -1;
+        forwardDepths[source] = 0;
+        backwardMarks[target] = epoch;
+        backwardParents[target] = -1;
+        backwardDepths[target] = 0;
+        
+        forwardQueue[0] = source;
+        backwardQueue[0] = target;
+        int forwardHead = 0;
+        int forwardTail = 1;
+        int backwardHead = 0;
+        int backwardTail = 1;
+        
+        int meeting = -1;
+        int best = Integer.MAX_VALUE;
+        
+        while (forwardHead < forwardTail && backwardHead < backwardTail) {
+            // Expand one full level of the smaller frontier so the best meeting point is exact
+            if (forwardTail - forwardHead <= backwardTail - backwardHead) {
+                int levelEnd = forwardTail;
+                while (forwardHead < levelEnd) {
+                    int current = forwardQueue[forwardHead++];
+                    int depth = forwardDepths[current] + 1;
+                    for (int e = graph.edgeStart(current), end = graph.edgeEnd(current); e < end; e++) {
+                        int neighbor = graph.getTarget(e);
+                        if (forwardMarks[neighbor] == epoch) continue;
+                        
+                        forwardMarks[neighbor] = epoch;
+                        forwardParents[neighbor] = current;
+                        forwardDepths[neighbor] = depth;
+                        forwardQueue[forwardTail++] = neighbor;
+                        
+                        if (backwardMarks[neighbor] == epoch && depth + backwardDepths[neighbor] < best) {
+                            best = depth + backwardDepths[neighbor];
+                            meeting = neighbor;
+                        }
+                    }
+                }
+            } else {
+                int levelEnd = backwardTail;
+                while (backwardHead < levelEnd) {
+                    int current = backwardQueue[backwardHead++];
+                    int depth = backwardDepths[current] + 1;
+                    for (int i = graph.inEdgeStart(current), end = graph.inEdgeEnd(current); i < end; i++) {
+                        int neighbor = graph.getInSource(i);
+                        if (backwardMarks[neighbor] == epoch) continue;
+                        
+                        backwardMarks[neighbor] = epoch;
+                        backwardParents[neighbor] = current;
+                        backwardDepths[neighbor] = depth;
+                        backwardQueue[backwardTail++] = neighbor;
+                        
+                        if (forwardMarks[neighbor] == epoch && depth + forwardDepths[neighbor] < best) {
+                            best = depth + forwardDepths[neighbor];
+                            meeting = neighbor;
+                        }
+                    }
+                }
+            }
+            
+            if (meeting >= 0) {
+                return joinPath(meeting);
+            }
+        }
+        
+        return NO_PATH;
+    }
+    
+    private int[] joinPath(int meeting) {
+        int[] path = new int[forwardDepths[meeting] + backwardDepths[meeting] + 1];
+        
+        int i = forwardDepths[meeting];
+        for (int current = meeting; current != -1; current = forwardParents[current]) {
+            path[i--] = current;
+        }
+        
+        i = forwardDepths[meeting] + 1;
+        for (int current = backwardParents[meeting]; current != -1; current = backwardParents[current]) {
+            path[i++] = current;
+        }
+        return path;
+    }
+    
+    private void resize(int capacity) {
+        forwardMarks = new int[capacity];
+        backwardMarks = new int[capacity];
+        forwardParents = new int[capacity];
+        backwardParents = new int[capacity];
+        forwardDepths = new int[capacity];
+        backwardDepths = new int[capacity];
+        forwardQueue = new int[capacity];
+        backwardQueue = new int[capacity];
+    }
+    
+    private void begin() {
+        epoch++;
+        if (epoch == 0) {
+            Arrays.fill(forwardMarks, 0);
+            Arrays.fill(backwardMarks, 0);
+            epoch = 1;
+        }
+    }
+}
\ No newline at end of file
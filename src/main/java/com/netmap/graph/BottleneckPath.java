@@ -0,0 +1,45 @@
+package com.netmap.graph;
+
+import com.netmap.core.domain.Edge;
+
+import java.util.List;
+
+public final class BottleneckPath {
+    
+    private final List<String> nodeIds;
+    private final List<Edge> edges;
+    private final long bandwidth;
+    
+    BottleneckPath(List<String> nodeIds, List<Edge> edges, long bandwidth) {
+        this.nodeIds = List.copyOf(nodeIds);
+        this.edges = List.copyOf(edges);
+        this.bandwidth = bandwidth;
+    }
+    
+    public List<String> getNodeIds() {
+        return nodeIds;
+    }
+    
+    public List<Edge> getEdges() {
+        return edges;
+    }
+    
+    public long getBandwidth() {
+        return bandwidth;
+    }
+    
+    public Edge getBottleneckEdge() {
+        Edge bottleneck = null;
+        for (Edge edge : edges) {
+            if (bottleneck == null || edge.getBandwidth() < bottleneck.getBandwidth()) {
+                bottleneck = edge;
+            }
+        }
+        return bottleneck;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("Path[%s, bottleneck=%dMbps]", String.join(" -> ", nodeIds), bandwidth);
+    }
+}
\ No newline at end of file
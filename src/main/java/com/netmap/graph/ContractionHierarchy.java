@@ -0,0 +1,741 @@
+package com.netmap.graph;
+
+import java.io.*;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+public final class ContractionHierarchy {
+    
+    private static final int MAGIC = 0x4E4D4348;
+    private static final int FORMAT_VERSION = 2;
+    private static final int WITNESS_SETTLED_LIMIT = 500;
+    private static final int ESTIMATE_SETTLED_LIMIT = 50;
+    
+    private final GraphSnapshot graph;
+    private final long fingerprint;
+    private final int[] ranks;
+    private final int[] upOffsets;
+    private final int[] upTargets;
+    private final int[] upWeights;
+    private final int[] upVias;
+    private final int[] downOffsets;
+    private final int[] downSources;
+    private final int[] downWeights;
+    private final int[] downVias;
+    
+    private ContractionHierarchy(GraphSnapshot graph, long fingerprint, int[] ranks,
+                                 int[] upOffsets, int[] upTargets, int[] upWeights, int[] upVias,
+                                 int[] downOffsets, int[] downSources, int[] downWeights, int[] downVias) {
+        this.graph = graph;
+        this.fingerprint = fingerprint;
+        this.ranks = ranks;
+        this.upOffsets = upOffsets;
+        this.upTargets = upTargets;
+        this.upWeights = upWeights;
+        this.upVias = upVias;
+        this.downOffsets = downOffsets;
+        this.downSources = downSources;
+        this.downWeights = downWeights;
+        this.downVias = downVias;
+    }
+    
+    static ContractionHierarchy build(GraphSnapshot graph) {
+        return new Contractor(graph).contract();
+    }
+    
+    public GraphSnapshot getSnapshot() {
+        return graph;
+    }
+    
+    public int getRank(int node) {
+        return ranks[node];
+    }
+    
+    public int getArcCount() {
+        return upTargets.length + downSources.length;
+    }
+    
+    public int getShortcutCount() {
+        int shortcuts = 0;
+        for (int via : upVias) {
+            if (via >= 0) shortcuts++;
+        }
+        for (int via : downVias) {
+            if (via >= 0) shortcuts++;
+        }
+        return shortcuts;
+    }
+    
+    public Optional<WeightedPath> shortestPath(int source, int target) {
+        Query query = Query.forThread(graph.getNodeCount());
+        long cost = query.search(this, source, target);
+        if (cost == LatencyRouter.UNREACHABLE) {
+            return Optional.empty();
+        }
+        return Optional.of(graph.toWeightedPath(query.unpack(this, source, target), source, cost));
+    }
+    
+    int getSettledCount() {
+        return Query.forThread(graph.getNodeCount()).settledCount;
+    }
+    
+    public void writeTo(OutputStream outputStream) throws IOException {
+        CRC32 checksum = new CRC32();
+        DataOutputStream out = new DataOutputStream(new CheckedOutputStream(new BufferedOutputStream(outputStream), checksum));
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeLong(fingerprint);
+        
+        int nodeCount = graph.getNodeCount();
+        out.writeInt(nodeCount);
+        for (int node = 0; node < nodeCount; node++) {
+            out.writeUTF(graph.getNodeId(node));
+            out.writeInt(ranks[node]);
+        }
+        writeArcs(out, upOffsets, upTargets, upWeights, upVias);
+        writeArcs(out, downOffsets, downSources, downWeights, downVias);
+        out.writeInt((int) checksum.getValue());
+        out.flush();
+    }
+    
+    static Optional<ContractionHierarchy> readFrom(InputStream inputStream, GraphSnapshot graph) throws IOException {
+        Objects.requireNonNull(inputStream, "InputStream cannot be null");
+        
+        CRC32 checksum = new CRC32();
+        DataInputStream in = new DataInputStream(new CheckedInputStream(new BufferedInputStream(inputStream), checksum));
+        if (in.readInt() != MAGIC) {
+            throw new StreamCorruptedException("Not a contraction hierarchy file");
+        }
+        if (in.readInt() != FORMAT_VERSION) {
+            throw new StreamCorruptedException("Unsupported contraction hierarchy version");
+        }
+        
+        int nodeCount = graph.getNodeCount();
+        long fingerprint = fingerprint(graph);
+        if (in.readLong() != fingerprint || in.readInt() != nodeCount) {
+            return Optional.empty();
+        }
+        
+        // Dense ids depend on map iteration order, so stored ids are remapped onto the live snapshot
+        int[] remap = new int[nodeCount];
+        int[] ranks = new int[nodeCount];
+        boolean[] mapped = new boolean[nodeCount];
+        for (int stored = 0; stored < nodeCount; stored++) {
+            String nodeId;
+            try {
+                nodeId = in.readUTF();
+            } catch (UTFDataFormatException e) {
+                throw new StreamCorruptedException("Contraction hierarchy file is corrupt: bad node id");
+            }
+            int node = graph.indexOf(nodeId);
+            if (node < 0) {
+                return Optional.empty();
+            }
+            if (mapped[node]) {
+                throw new StreamCorruptedException("Contraction hierarchy file is corrupt: duplicate node id");
+            }
+            mapped[node] = true;
+            remap[stored] = node;
+            ranks[node] = in.readInt();
+        }
+        
+        int[][] up = readArcs(in, remap);
+        int[][] down = readArcs(in, remap);
+        // Arc data is only trusted once the whole file checks out, so a damaged index is rebuilt rather than used
+        int expected = (int) checksum.getValue();
+        if (in.readInt() != expected) {
+            throw new StreamCorruptedException("Contraction hierarchy file is corrupt: checksum mismatch");
+        }
+        return Optional.of(new ContractionHierarchy(graph, fingerprint, ranks,
+            up[0], up[1], up[2], up[3], down[0], down[1], down[2], down[3]));
+    }
+    
+    static long fingerprint(GraphSnapshot graph) {
+        // Order-independent over nodes so it survives the id reshuffle of a serialization round trip
+        long fingerprint = graph.getNodeCount() * 0x9E3779B97F4A7C15L + graph.getEdgeCount();
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            long hash = hash(graph.getNodeId(node));
+            for (int e = graph.edgeStart(node), end = graph.edgeEnd(node); e < end; e++) {
+                hash = mix(hash * 31 + hash(graph.getNodeId(graph.getTarget(e))) + graph.getLatency(e));
+            }
+            fingerprint += mix(hash);
+        }
+        return fingerprint;
+    }
+    
+    private static long hash(String value) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * 0x100000001B3L;
+        }
+        return hash;
+    }
+    
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xFF51AFD7ED558CCDL;
+        value = (value ^ (value >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return value ^ (value >>> 33);
+    }
+    
+    private static void writeArcs(DataOutputStream out, int[] offsets, int[] neighbors, int[] weights, int[] vias)
+            throws IOException {
+        int nodeCount = offsets.length - 1;
+        for (int node = 0; node < nodeCount; node++) {
+            out.writeInt(offsets[node + 1] - offsets[node]);
+            for (int arc = offsets[node]; arc < offsets[node + 1]; arc++) {
+                out.writeInt(neighbors[arc]);
+                out.writeInt(weights[arc]);
+                out.writeInt(vias[arc]);
+            }
+        }
+    }
+    
+    private static int[][] readArcs(DataInputStream in, int[] remap) throws IOException {
+        int nodeCount = remap.length;
+        int[][] neighbors = new int[nodeCount][];
+        int[][] weights = new int[nodeCount][];
+        int[][] vias = new int[nodeCount][];
+        
+        for (int stored = 0; stored < nodeCount; stored++) {
+            int node = remap[stored];
+            int degree = in.readInt();
+            if (degree < 0 || degree > nodeCount) {
+                throw new StreamCorruptedException("Contraction hierarchy file is corrupt: degree out of range");
+            }
+            neighbors[node] = new int[degree];
+            weights[node] = new int[degree];
+            vias[node] = new int[degree];
+            for (int i = 0; i < degree; i++) {
+                neighbors[node][i] = remap[checkNode(in.readInt(), nodeCount)];
+                weights[node][i] = in.readInt();
+                int via = in.readInt();
+                vias[node][i] = via >= 0 ? remap[checkNode(via, nodeCount)] : via;
+            }
+        }
+        return flatten(neighbors, weights, vias, null);
+    }
+    
+    private static int checkNode(int node, int nodeCount) throws StreamCorruptedException {
+        if (node < 0 || node >= nodeCount) {
+            throw new StreamCorruptedException("Contraction hierarchy file is corrupt: node out of range");
+        }
+        return node;
+    }
+    
+    private static int[][] flatten(int[][] neighbors, int[][] weights, int[][] vias, int[] sizes) {
+        int nodeCount = neighbors.length;
+        int[] offsets = new int[nodeCount + 1];
+        for (int node = 0; node < nodeCount; node++) {
+            offsets[node + 1] = offsets[node] + (sizes == null ? neighbors[node].length : sizes[node]);
+        }
+        
+        int arcCount = offsets[nodeCount];
+        int[] flatNeighbors = new int[arcCount];
+        int[] flatWeights = new int[arcCount];
+        int[] flatVias = new int[arcCount];
+        for (int node = 0; node < nodeCount; node++) {
+            int length = offsets[node + 1] - offsets[node];
+            System.arraycopy(neighbors[node], 0, flatNeighbors, offsets[node], length);
+            System.arraycopy(weights[node], 0, flatWeights, offsets[node], length);
+            System.arraycopy(vias[node], 0, flatVias, offsets[node], length);
+        }
+        return new int[][] {offsets, flatNeighbors, flatWeights, flatVias};
+    }
+    
+    // Static so a thread's query state never pins the hierarchy, and with it the snapshot, it last served
+    private static final class Query {
+        
+        private static final ThreadLocal<Query> QUERIES = ThreadLocal.withInitial(Query::new);
+        
+        private long[] forwardDistances;
+        private long[] backwardDistances;
+        private int[] forwardParents;
+        private int[] backwardParents;
+        private int[] forwardReached;
+        private int[] backwardReached;
+        private IndexedMinHeap forwardHeap;
+        private IndexedMinHeap backwardHeap;
+        private int epoch;
+        private int meeting;
+        private int settledCount;
+        
+        private Query() {
+            resize(0);
+        }
+        
+        static Query forThread(int nodeCount) {
+            Query query = QUERIES.get();
+            if (nodeCount > query.forwardDistances.length) {
+                query.resize(Math.max(nodeCount, query.forwardDistances.length + (query.forwardDistances.length >> 1)));
+            }
+            return query;
+        }
+        
+        private void resize(int capacity) {
+            forwardDistances = new long[capacity];
+            backwardDistances = new long[capacity];
+            forwardParents = new int[capacity];
+            backwardParents = new int[capacity];
+            forwardReached = new int[capacity];
+            backwardReached = new int[capacity];
+            forwardHeap = new IndexedMinHeap(capacity);
+            backwardHeap = new IndexedMinHeap(capacity);
+        }
+        
+        long search(ContractionHierarchy hierarchy, int source, int target) {
+            int[] upOffsets = hierarchy.upOffsets;
+            int[] upTargets = hierarchy.upTargets;
+            int[] upWeights = hierarchy.upWeights;
+            int[] downOffsets = hierarchy.downOffsets;
+            int[] downSources = hierarchy.downSources;
+            int[] downWeights = hierarchy.downWeights;
+            
+            epoch++;
+            if (epoch == 0) {
+                Arrays.fill(forwardReached, 0);
+                Arrays.fill(backwardReached, 0);
+                epoch = 1;
+            }
+            forwardHeap.clear();
+            backwardHeap.clear();
+            settledCount = 0;
+            meeting = -1;
+            
+            reach(forwardReached, forwardDistances, forwardParents, forwardHeap, source, 0, -1);
+            reach(backwardReached, backwardDistances, backwardParents, backwardHeap, target, 0, -1);
+            
+            long best = LatencyRouter.INFINITE;
+            while (true) {
+                boolean forward = !forwardHeap.isEmpty() && forwardHeap.peekKey() < best;
+                boolean backward = !backwardHeap.isEmpty() && backwardHeap.peekKey() < best;
+                if (!forward && !backward) break;
+                
+                if (forward && (!backward || forwardHeap.peekKey() <= backwardHeap.peekKey())) {
+                    int current = forwardHeap.poll();
+                    settledCount++;
+                    long distance = forwardDistances[current];
+                    if (backwardReached[current] == epoch && distance + backwardDistances[current] < best) {
+                        best = distance + backwardDistances[current];
+                        meeting = current;
+                    }
+                    if (stalled(forwardReached, forwardDistances, downOffsets, downSources, downWeights, current)) continue;
+                    for (int arc = upOffsets[current]; arc < upOffsets[current + 1]; arc++) {
+                        reach(forwardReached, forwardDistances, forwardParents, forwardHeap,
+                              upTargets[arc], distance + upWeights[arc], arc);
+                    }
+                } else {
+                    int current = backwardHeap.poll();
+                    settledCount++;
+                    long distance = backwardDistances[current];
+                    if (forwardReached[current] == epoch && distance + forwardDistances[current] < best) {
+                        best = distance + forwardDistances[current];
+                        meeting = current;
+                    }
+                    if (stalled(backwardReached, backwardDistances, upOffsets, upTargets, upWeights, current)) continue;
+                    for (int arc = downOffsets[current]; arc < downOffsets[current + 1]; arc++) {
+                        reach(backwardReached, backwardDistances, backwardParents, backwardHeap,
+                              downSources[arc], distance + downWeights[arc], arc);
+                    }
+                }
+            }
+            
+            return meeting < 0 ? LatencyRouter.UNREACHABLE : best;
+        }
+        
+        private boolean stalled(int[] reached, long[] distances, int[] offsets, int[] neighbors, int[] weights, int node) {
+            // Stall-on-demand: a higher node already reached more cheaply proves this label is not on a shortest path
+            long distance = distances[node];
+            for (int arc = offsets[node]; arc < offsets[node + 1]; arc++) {
+                int neighbor = neighbors[arc];
+                if (reached[neighbor] == epoch && distances[neighbor] + weights[arc] < distance) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        
+        private void reach(int[] reached, long[] distances, int[] parents, IndexedMinHeap heap,
+                           int node, long distance, int arc) {
+            if (reached[node] == epoch && distances[node] <= distance) {
+                return;
+            }
+            reached[node] = epoch;
+            distances[node] = distance;
+            parents[node] = arc;
+            heap.insertOrDecrease(node, distance);
+        }
+        
+        int[] unpack(ContractionHierarchy hierarchy, int source, int target) {
+            int[] upOffsets = hierarchy.upOffsets;
+            int[] upTargets = hierarchy.upTargets;
+            int[] upVias = hierarchy.upVias;
+            int[] downOffsets = hierarchy.downOffsets;
+            int[] downSources = hierarchy.downSources;
+            int[] downVias = hierarchy.downVias;
+            
+            IntList edges = new IntList();
+            IntList pending = new IntList();
+            
+            // Backward parents are pushed first so the forward half is expanded first off the stack
+            for (int node = meeting; node != target; ) {
+                int arc = backwardParents[node];
+                int next = hierarchy.downArcOwner(arc);
+                pending.push(node, next, downVias[arc]);
+                node = next;
+            }
+            IntList forwardArcs = new IntList();
+            for (int node = meeting; node != source; ) {
+                int arc = forwardParents[node];
+                int previous = hierarchy.upArcOwner(arc);
+                forwardArcs.push(previous, node, upVias[arc]);
+                node = previous;
+            }
+            reverseInto(pending);
+            for (int i = 0; i < forwardArcs.size; i += 3) {
+                pending.push(forwardArcs.values[i], forwardArcs.values[i + 1], forwardArcs.values[i + 2]);
+            }
+            
+            while (pending.size > 0) {
+                int via = pending.values[--pending.size];
+                int to = pending.values[--pending.size];
+                int from = pending.values[--pending.size];
+                if (via < 0) {
+                    edges.add(hierarchy.graph.edgeStart(from) + ~via);
+                } else {
+                    pending.push(via, to, upVias[findArc(upOffsets, upTargets, via, to)]);
+                    pending.push(from, via, downVias[findArc(downOffsets, downSources, via, from)]);
+                }
+            }
+            return edges.toArray();
+        }
+        
+        private void reverseInto(IntList triples) {
+            int[] values = triples.values;
+            for (int i = 0, j = triples.size - 3; i < j; i += 3, j -= 3) {
+                for (int k = 0; k < 3; k++) {
+                    int swap = values[i + k];
+                    values[i + k] = values[j + k];
+                    values[j + k] = swap;
+                }
+            }
+        }
+    }
+    
+    private int upArcOwner(int arc) {
+        return owner(upOffsets, arc);
+    }
+    
+    private int downArcOwner(int arc) {
+        return owner(downOffsets, arc);
+    }
+    
+    private static int owner(int[] offsets, int arc) {
+        int low = 0;
+        int high = offsets.length - 2;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (offsets[middle] <= arc) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+    
+    private static int findArc(int[] offsets, int[] neighbors, int node, int neighbor) {
+        for (int arc = offsets[node]; arc < offsets[node + 1]; arc++) {
+            if (neighbors[arc] == neighbor) return arc;
+        }
+        throw new IllegalStateException("Missing hierarchy arc " + node + " -> " + neighbor);
+    }
+    
+    private static final class IntList {
+        
+        private int[] values = new int[16];
+        private int size;
+        
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+        
+        void push(int first, int second, int third) {
+            add(first);
+            add(second);
+            add(third);
+        }
+        
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+    
+    private static final class Contractor {
+        
+        private final GraphSnapshot graph;
+        private final int nodeCount;
+        private final int[][] outNeighbors;
+        private final int[][] outWeights;
+        private final int[][] outVias;
+        private final int[] outSizes;
+        private final int[][] inNeighbors;
+        private final int[][] inWeights;
+        private final int[][] inVias;
+        private final int[] inSizes;
+        private final boolean[] contracted;
+        private final int[] contractedNeighbors;
+        private final long[] witnessDistances;
+        private final int[] witnessReached;
+        private final IndexedMinHeap witnessHeap;
+        private int witnessEpoch;
+        private int[] shortcuts = new int[48];
+        private int shortcutCount;
+        
+        Contractor(GraphSnapshot graph) {
+            this.graph = graph;
+            this.nodeCount = graph.getNodeCount();
+            this.outNeighbors = new int[nodeCount][];
+            this.outWeights = new int[nodeCount][];
+            this.outVias = new int[nodeCount][];
+            this.outSizes = new int[nodeCount];
+            this.inNeighbors = new int[nodeCount][];
+            this.inWeights = new int[nodeCount][];
+            this.inVias = new int[nodeCount][];
+            this.inSizes = new int[nodeCount];
+            this.contracted = new boolean[nodeCount];
+            this.contractedNeighbors = new int[nodeCount];
+            this.witnessDistances = new long[nodeCount];
+            this.witnessReached = new int[nodeCount];
+            this.witnessHeap = new IndexedMinHeap(nodeCount);
+            
+            for (int node = 0; node < nodeCount; node++) {
+                outNeighbors[node] = new int[Math.max(2, graph.getOutDegree(node))];
+                outWeights[node] = new int[outNeighbors[node].length];
+                outVias[node] = new int[outNeighbors[node].length];
+                inNeighbors[node] = new int[Math.max(2, graph.getInDegree(node))];
+                inWeights[node] = new int[inNeighbors[node].length];
+                inVias[node] = new int[inNeighbors[node].length];
+            }
+            for (int node = 0; node < nodeCount; node++) {
+                for (int e = graph.edgeStart(node), end = graph.edgeEnd(node); e < end; e++) {
+                    int target = graph.getTarget(e);
+                    if (target != node) {
+                        addArc(node, target, graph.getLatency(e), ~(e - graph.edgeStart(node)));
+                    }
+                }
+            }
+        }
+        
+        ContractionHierarchy contract() {
+            int[] ranks = new int[nodeCount];
+            int[] priorities = new int[nodeCount];
+            PriorityQueue<Long> queue = new PriorityQueue<>();
+            for (int node = 0; node < nodeCount; node++) {
+                priorities[node] = priority(node);
+                queue.add(entry(priorities[node], node));
+            }
+            
+            int rank = 0;
+            while (!queue.isEmpty()) {
+                long top = queue.poll();
+                int node = (int) top;
+                if (contracted[node] || (int) (top >> 32) != priorities[node]) continue;
+                
+                // Lazy update: re-evaluate on pop and defer the node if it is no longer the cheapest
+                int priority = priority(node);
+                if (!queue.isEmpty() && entry(priority, node) > queue.peek()) {
+                    priorities[node] = priority;
+                    queue.add(entry(priority, node));
+                    continue;
+                }
+                
+                collectShortcuts(node, WITNESS_SETTLED_LIMIT);
+                for (int i = 0; i < shortcutCount; i += 3) {
+                    addArc(shortcuts[i], shortcuts[i + 1], shortcuts[i + 2], node);
+                }
+                int[] neighbors = detach(node);
+                contracted[node] = true;
+                ranks[node] = rank++;
+                
+                for (int neighbor : neighbors) {
+                    int updated = priority(neighbor);
+                    if (updated != priorities[neighbor]) {
+                        priorities[neighbor] = updated;
+                        queue.add(entry(updated, neighbor));
+                    }
+                }
+            }
+            
+            long fingerprint = ContractionHierarchy.fingerprint(graph);
+            int[][] up = flatten(outNeighbors, outWeights, outVias, outSizes);
+            int[][] down = flatten(inNeighbors, inWeights, inVias, inSizes);
+            return new ContractionHierarchy(graph, fingerprint, ranks,
+                up[0], up[1], up[2], up[3], down[0], down[1], down[2], down[3]);
+        }
+        
+        private static long entry(int priority, int node) {
+            return ((long) priority << 32) | node;
+        }
+        
+        private int priority(int node) {
+            collectShortcuts(node, ESTIMATE_SETTLED_LIMIT);
+            return 2 * (shortcutCount / 3 - inSizes[node] - outSizes[node]) + contractedNeighbors[node];
+        }
+        
+        private void collectShortcuts(int node, int settledLimit) {
+            shortcutCount = 0;
+            for (int i = 0; i < inSizes[node]; i++) {
+                int from = inNeighbors[node][i];
+                long toNode = inWeights[node][i];
+                
+                long limit = 0;
+                for (int j = 0; j < outSizes[node]; j++) {
+                    limit = Math.max(limit, toNode + outWeights[node][j]);
+                }
+                witnessSearch(from, node, limit, settledLimit);
+                
+                for (int j = 0; j < outSizes[node]; j++) {
+                    int to = outNeighbors[node][j];
+                    if (to == from) continue;
+                    long viaNode = toNode + outWeights[node][j];
+                    if (witnessReached[to] == witnessEpoch && witnessDistances[to] <= viaNode) continue;
+                    if (viaNode > Integer.MAX_VALUE) {
+                        throw new IllegalArgumentException("Path latency exceeds the hierarchy's range");
+                    }
+                    recordShortcut(from, to, (int) viaNode);
+                }
+            }
+        }
+        
+        private void witnessSearch(int source, int excluded, long limit, int settledLimit) {
+            witnessEpoch++;
+            if (witnessEpoch == 0) {
+                Arrays.fill(witnessReached, 0);
+                witnessEpoch = 1;
+            }
+            witnessHeap.clear();
+            witnessReached[source] = witnessEpoch;
+            witnessDistances[source] = 0;
+            witnessHeap.insertOrDecrease(source, 0);
+            
+            int settled = 0;
+            while (!witnessHeap.isEmpty() && settled++ < settledLimit) {
+                int current = witnessHeap.poll();
+                long base = witnessDistances[current];
+                if (base > limit) break;
+                for (int i = 0; i < outSizes[current]; i++) {
+                    int neighbor = outNeighbors[current][i];
+                    if (neighbor == excluded) continue;
+                    long distance = base + outWeights[current][i];
+                    if (witnessReached[neighbor] != witnessEpoch || distance < witnessDistances[neighbor]) {
+                        witnessReached[neighbor] = witnessEpoch;
+                        witnessDistances[neighbor] = distance;
+                        witnessHeap.insertOrDecrease(neighbor, distance);
+                    }
+                }
+            }
+        }
+        
+        private void recordShortcut(int from, int to, int weight) {
+            if (shortcutCount + 3 > shortcuts.length) {
+                shortcuts = Arrays.copyOf(shortcuts, shortcuts.length * 2);
+            }
+            shortcuts[shortcutCount++] = from;
+            shortcuts[shortcutCount++] = to;
+            shortcuts[shortcutCount++] = weight;
+        }
+        
+        private void addArc(int from, int to, int weight, int via) {
+            int existing = indexOf(outNeighbors[from], outSizes[from], to);
+            if (existing >= 0) {
+                if (outWeights[from][existing] <= weight) return;
+                outWeights[from][existing] = weight;
+                outVias[from][existing] = via;
+                int mirror = indexOf(inNeighbors[to], inSizes[to], from);
+                inWeights[to][mirror] = weight;
+                inVias[to][mirror] = via;
+                return;
+            }
+            appendOut(from, to, weight, via);
+            appendIn(to, from, weight, via);
+        }
+        
+        private void appendOut(int node, int neighbor, int weight, int via) {
+            if (outSizes[node] == outNeighbors[node].length) {
+                int capacity = outSizes[node] * 2;
+                outNeighbors[node] = Arrays.copyOf(outNeighbors[node], capacity);
+                outWeights[node] = Arrays.copyOf(outWeights[node], capacity);
+                outVias[node] = Arrays.copyOf(outVias[node], capacity);
+            }
+            int slot = outSizes[node]++;
+            outNeighbors[node][slot] = neighbor;
+            outWeights[node][slot] = weight;
+            outVias[node][slot] = via;
+        }
+        
+        private void appendIn(int node, int neighbor, int weight, int via) {
+            if (inSizes[node] == inNeighbors[node].length) {
+                int capacity = inSizes[node] * 2;
+                inNeighbors[node] = Arrays.copyOf(inNeighbors[node], capacity);
+                inWeights[node] = Arrays.copyOf(inWeights[node], capacity);
+                inVias[node] = Arrays.copyOf(inVias[node], capacity);
+            }
+            int slot = inSizes[node]++;
+            inNeighbors[node][slot] = neighbor;
+            inWeights[node][slot] = weight;
+            inVias[node][slot] = via;
+        }
+        
+        private int[] detach(int node) {
+            // The node keeps its own arcs as its upward lists; only its neighbours forget it
+            int[] neighbors = new int[outSizes[node] + inSizes[node]];
+            int count = 0;
+            for (int i = 0; i < outSizes[node]; i++) {
+                int neighbor = outNeighbors[node][i];
+                removeIn(neighbor, node);
+                contractedNeighbors[neighbor]++;
+                neighbors[count++] = neighbor;
+            }
+            for (int i = 0; i < inSizes[node]; i++) {
+                int neighbor = inNeighbors[node][i];
+                removeOut(neighbor, node);
+                if (indexOf(outNeighbors[node], outSizes[node], neighbor) < 0) {
+                    contractedNeighbors[neighbor]++;
+                    neighbors[count++] = neighbor;
+                }
+            }
+            return Arrays.copyOf(neighbors, count);
+        }
+        
+        private void removeOut(int node, int neighbor) {
+            int slot = indexOf(outNeighbors[node], outSizes[node], neighbor);
+            int last = --outSizes[node];
+            outNeighbors[node][slot] = outNeighbors[node][last];
+            outWeights[node][slot] = outWeights[node][last];
+            outVias[node][slot] = outVias[node][last];
+        }
+        
+        private void removeIn(int node, int neighbor) {
+            int slot = indexOf(inNeighbors[node], inSizes[node], neighbor);
+            int last = --inSizes[node];
+            inNeighbors[node][slot] = inNeighbors[node][last];
+            inWeights[node][slot] = inWeights[node][last];
+            inVias[node][slot] = inVias[node][last];
+        }
+        
+        private static int indexOf(int[] neighbors, int size, int neighbor) {
+            for (int i = 0; i < size; i++) {
+                if (neighbors[i] == neighbor) return i;
+            }
+            return -1;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,137 @@
+package com.netmap.graph;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+public final class CutAnalysis {
+    
+    private final int[] articulationPoints;
+    private final int[] bridges;
+    private final long[] bridgeImpacts;
+    private final long[] nodeImpacts;
+    private final BitSet cutNodes;
+    
+    CutAnalysis(GraphSnapshot graph) {
+        UndirectedView view = graph.getUndirectedView();
+        int nodeCount = view.getNodeCount();
+        int[] discovery = new int[nodeCount];
+        int[] low = new int[nodeCount];
+        int[] parents = new int[nodeCount];
+        int[] cursors = new int[nodeCount];
+        int[] sizes = new int[nodeCount];
+        long[] separated = new long[nodeCount];
+        long[] separatedPairs = new long[nodeCount];
+        int[] pieces = new int[nodeCount];
+        int[] stack = new int[nodeCount];
+        int[] order = new int[nodeCount];
+        int[] bridgeChildren = new int[nodeCount];
+        int[] bridgeArcs = new int[nodeCount];
+        
+        this.nodeImpacts = new long[nodeCount];
+        this.cutNodes = new BitSet(nodeCount);
+        int[] articulation = new int[nodeCount];
+        int articulationCount = 0;
+        long[] impacts = new long[nodeCount];
+        int[] bridgeEdges = new int[nodeCount];
+        int bridgeCount = 0;
+        int time = 0;
+        
+        for (int root = 0; root < nodeCount; root++) {
+            if (discovery[root] != 0) continue;
+            
+            int componentStart = time;
+            int componentBridges = bridgeCount;
+            int top = 0;
+            stack[top++] = root;
+            parents[root] = -1;
+            discovery[root] = low[root] = ++time;
+            order[time - 1] = root;
+            sizes[root] = 1;
+            cursors[root] = view.arcStart(root);
+            
+            while (top > 0) {
+                int node = stack[top - 1];
+                if (cursors[node] < view.arcEnd(node)) {
+                    int arc = cursors[node]++;
+                    int neighbor = view.getNeighbor(arc);
+                    if (discovery[neighbor] == 0) {
+                        parents[neighbor] = node;
+                        discovery[neighbor] = low[neighbor] = ++time;
+                        order[time - 1] = neighbor;
+                        sizes[neighbor] = 1;
+                        cursors[neighbor] = view.arcStart(neighbor);
+                        stack[top++] = neighbor;
+                    } else if (neighbor != parents[node]) {
+                        low[node] = Math.min(low[node], discovery[neighbor]);
+                    }
+                    continue;
+                }
+                
+                top--;
+                int parent = parents[node];
+                if (parent < 0) continue;
+                low[parent] = Math.min(low[parent], low[node]);
+                sizes[parent] += sizes[node];
+                
+                if (low[node] >= discovery[parent]) {
+                    long size = sizes[node];
+                    separated[parent] += size;
+                    separatedPairs[parent] += size * (size - 1) / 2;
+                    pieces[parent]++;
+                }
+                if (low[node] > discovery[parent]) {
+                    bridgeChildren[bridgeCount] = node;
+                    bridgeArcs[bridgeCount] = view.findArc(parent, node);
+                    bridgeCount++;
+                }
+            }
+            
+            // Pair losses need the component size, which is only known once its DFS has finished
+            long componentSize = sizes[root];
+            long componentPairs = componentSize * (componentSize - 1) / 2;
+            for (int i = componentStart; i < time; i++) {
+                int node = order[i];
+                long rest = componentSize - 1 - separated[node];
+                nodeImpacts[node] = componentPairs - separatedPairs[node] - rest * (rest - 1) / 2;
+                boolean cut = node == root ? pieces[node] >= 2 : pieces[node] >= 1;
+                if (cut) {
+                    articulation[articulationCount++] = node;
+                    cutNodes.set(node);
+                }
+            }
+            for (int i = componentBridges; i < bridgeCount; i++) {
+                long size = sizes[bridgeChildren[i]];
+                impacts[i] = size * (componentSize - size);
+                bridgeEdges[i] = view.getEdge(bridgeArcs[i]);
+            }
+        }
+        
+        this.articulationPoints = Arrays.copyOf(articulation, articulationCount);
+        this.bridges = Arrays.copyOf(bridgeEdges, bridgeCount);
+        this.bridgeImpacts = Arrays.copyOf(impacts, bridgeCount);
+    }
+    
+    public int[] getArticulationPoints() {
+        return articulationPoints.clone();
+    }
+    
+    public int getBridgeCount() {
+        return bridges.length;
+    }
+    
+    public int getBridgeEdge(int bridge) {
+        return bridges[bridge];
+    }
+    
+    public long getBridgeImpact(int bridge) {
+        return bridgeImpacts[bridge];
+    }
+    
+    public long getNodeImpact(int node) {
+        return nodeImpacts[node];
+    }
+    
+    public boolean isArticulationPoint(int node) {
+        return cutNodes.get(node);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,84 @@
+package com.netmap.graph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+public final class FailureScenario {
+    
+    private final String name;
+    private final List<String> failedNodes;
+    private final List<String> linkSources;
+    private final List<String> linkTargets;
+    
+    private FailureScenario(Builder builder) {
+        this.name = builder.name;
+        this.failedNodes = List.copyOf(builder.failedNodes);
+        this.linkSources = List.copyOf(builder.linkSources);
+        this.linkTargets = List.copyOf(builder.linkTargets);
+    }
+    
+    public static Builder builder(String name) {
+        return new Builder(name);
+    }
+    
+    public static FailureScenario nodeFailure(String nodeId) {
+        return builder(nodeId).failNode(nodeId).build();
+    }
+    
+    public static FailureScenario linkFailure(String sourceId, String targetId) {
+        return builder(sourceId + " - " + targetId).failLink(sourceId, targetId).build();
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public List<String> getFailedNodes() {
+        return failedNodes;
+    }
+    
+    public int getFailedLinkCount() {
+        return linkSources.size();
+    }
+    
+    public String getLinkSource(int link) {
+        return linkSources.get(link);
+    }
+    
+    public String getLinkTarget(int link) {
+        return linkTargets.get(link);
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("FailureScenario{name='%s', nodes=%d, links=%d}",
+            name, failedNodes.size(), linkSources.size());
+    }
+    
+    public static class Builder {
+        private final String name;
+        private final List<String> failedNodes = new ArrayList<>();
+        private final List<String> linkSources = new ArrayList<>();
+        private final List<String> linkTargets = new ArrayList<>();
+        
+        private Builder(String name) {
+            this.name = Objects.requireNonNull(name, "Scenario name cannot be null");
+        }
+        
+        public Builder failNode(String nodeId) {
+            failedNodes.add(Objects.requireNonNull(nodeId, "Node ID cannot be null"));
+            return this;
+        }
+        
+        public Builder failLink(String sourceId, String targetId) {
+            linkSources.add(Objects.requireNonNull(sourceId, "Source ID cannot be null"));
+            linkTargets.add(Objects.requireNonNull(targetId, "Target ID cannot be null"));
+            return this;
+        }
+        
+        public FailureScenario build() {
+            return new FailureScenario(this);
+        }
+    }
+}
\ No newline at end of file
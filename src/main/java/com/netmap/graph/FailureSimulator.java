@@ -0,0 +1,201 @@
+package com.netmap.graph;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public final class FailureSimulator {
+    
+    private static final int SCENARIOS_PER_TASK = 4;
+    
+    private final GraphSnapshot graph;
+    private final UndirectedView view;
+    private final ForkJoinPool pool;
+    private volatile long baselinePairs = -1;
+    
+    public FailureSimulator(GraphSnapshot graph) {
+        this(graph, ForkJoinPool.commonPool());
+    }
+    
+    public FailureSimulator(GraphSnapshot graph, ForkJoinPool pool) {
+        this.graph = Objects.requireNonNull(graph, "Graph cannot be null");
+        this.pool = Objects.requireNonNull(pool, "Pool cannot be null");
+        this.view = graph.getUndirectedView();
+    }
+    
+    public long getBaselinePairs() {
+        long pairs = baselinePairs;
+        if (pairs < 0) {
+            Workspace workspace = new Workspace(graph.getNodeCount());
+            pairs = workspace.connectedPairs();
+            baselinePairs = pairs;
+        }
+        return pairs;
+    }
+    
+    public ScenarioImpact simulate(FailureScenario scenario) {
+        return simulate(List.of(scenario)).get(0);
+    }
+    
+    public List<ScenarioImpact> simulate(List<FailureScenario> scenarios) {
+        Objects.requireNonNull(scenarios, "Scenarios cannot be null");
+        
+        // Resolve every scenario up front so a bad ID fails the whole call before any work is forked
+        int[][] failedNodes = new int[scenarios.size()][];
+        int[][] failedArcs = new int[scenarios.size()][];
+        for (int i = 0; i < scenarios.size(); i++) {
+            FailureScenario scenario = Objects.requireNonNull(scenarios.get(i), "Scenario cannot be null");
+            failedNodes[i] = resolveNodes(scenario);
+            failedArcs[i] = resolveArcs(scenario);
+        }
+        
+        long baseline = getBaselinePairs();
+        ScenarioImpact[] impacts = new ScenarioImpact[scenarios.size()];
+        pool.invoke(new SimulationTask(scenarios, failedNodes, failedArcs, impacts, baseline, 0, scenarios.size()));
+        return List.of(impacts);
+    }
+    
+    private int[] resolveNodes(FailureScenario scenario) {
+        List<String> nodeIds = scenario.getFailedNodes();
+        int[] nodes = new int[nodeIds.size()];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = graph.indexOf(nodeIds.get(i));
+            if (nodes[i] < 0) {
+                throw new IllegalArgumentException("Node not found: " + nodeIds.get(i));
+            }
+        }
+        return nodes;
+    }
+    
+    private int[] resolveArcs(FailureScenario scenario) {
+        int[] arcs = new int[2 * scenario.getFailedLinkCount()];
+        for (int i = 0; i < scenario.getFailedLinkCount(); i++) {
+            int source = graph.indexOf(scenario.getLinkSource(i));
+            int target = graph.indexOf(scenario.getLinkTarget(i));
+            int forward = source < 0 || target < 0 ? -1 : view.findArc(source, target);
+            if (forward < 0) {
+                throw new IllegalArgumentException("Link not found: "
+                    + scenario.getLinkSource(i) + " - " + scenario.getLinkTarget(i));
+            }
+            arcs[2 * i] = forward;
+            arcs[2 * i + 1] = view.findArc(target, source);
+        }
+        return arcs;
+    }
+    
+    private final class SimulationTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        
+        private final List<FailureScenario> scenarios;
+        private final int[][] failedNodes;
+        private final int[][] failedArcs;
+        private final ScenarioImpact[] impacts;
+        private final long baseline;
+        private final int from;
+        private final int to;
+        
+        SimulationTask(List<FailureScenario> scenarios, int[][] failedNodes, int[][] failedArcs,
+                       ScenarioImpact[] impacts, long baseline, int from, int to) {
+            this.scenarios = scenarios;
+            this.failedNodes = failedNodes;
+            this.failedArcs = failedArcs;
+            this.impacts = impacts;
+            this.baseline = baseline;
+            this.from = from;
+            this.to = to;
+        }
+        
+        @Override
+        protected void compute() {
+            if (to - from > SCENARIOS_PER_TASK) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new SimulationTask(scenarios, failedNodes, failedArcs, impacts, baseline, from, mid),
+                          new SimulationTask(scenarios, failedNodes, failedArcs, impacts, baseline, mid, to));
+                return;
+            }
+            
+            Workspace workspace = new Workspace(graph.getNodeCount());
+            for (int i = from; i < to; i++) {
+                workspace.mask(failedNodes[i], failedArcs[i]);
+                long pairs = workspace.connectedPairs();
+                impacts[i] = new ScenarioImpact(scenarios.get(i), baseline, pairs, workspace.componentCount);
+                workspace.unmask(failedNodes[i], failedArcs[i]);
+            }
+        }
+    }
+    
+    private final class Workspace {
+        private final long[] blockedNodes;
+        private final long[] blockedArcs;
+        private final int[] visited;
+        private final int[] queue;
+        private int epoch;
+        private int componentCount;
+        
+        Workspace(int nodeCount) {
+            this.blockedNodes = new long[(nodeCount + 63) >>> 6];
+            this.blockedArcs = new long[(view.getArcCount() + 63) >>> 6];
+            this.visited = new int[nodeCount];
+            this.queue = new int[nodeCount];
+        }
+        
+        void mask(int[] nodes, int[] arcs) {
+            for (int node : nodes) {
+                blockedNodes[node >>> 6] |= 1L << node;
+            }
+            for (int arc : arcs) {
+                blockedArcs[arc >>> 6] |= 1L << arc;
+            }
+        }
+        
+        void unmask(int[] nodes, int[] arcs) {
+            for (int node : nodes) {
+                blockedNodes[node >>> 6] = 0;
+            }
+            for (int arc : arcs) {
+                blockedArcs[arc >>> 6] = 0;
+            }
+        }
+        
+        long connectedPairs() {
+            epoch++;
+            if (epoch == 0) {
+                Arrays.fill(visited, 0);
+                epoch = 1;
+            }
+            
+            long pairs = 0;
+            componentCount = 0;
+            for (int root = 0; root < visited.length; root++) {
+                if (visited[root] == epoch || isBlocked(blockedNodes, root)) continue;
+                
+                visited[root] = epoch;
+                queue[0] = root;
+                int head = 0;
+                int tail = 1;
+                while (head < tail) {
+                    int node = queue[head++];
+                    for (int arc = view.arcStart(node), end = view.arcEnd(node); arc < end; arc++) {
+                        int neighbor = view.getNeighbor(arc);
+                        if (visited[neighbor] == epoch || isBlocked(blockedArcs, arc) || isBlocked(blockedNodes, neighbor)) {
+                            continue;
+                        }
+                        visited[neighbor] = epoch;
+                        queue[tail++] = neighbor;
+                    }
+                }
+                
+                long size = tail;
+                pairs += size * (size - 1) / 2;
+                componentCount++;
+            }
+            return pairs;
+        }
+        
+        private boolean isBlocked(long[] bits, int index) {
+            return (bits[index >>> 6] & (1L << index)) != 0;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.netmap.graph;
+
+import com.netmap.core.domain.Edge;
+import com.netmap.core.domain.Node;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+public final class GraphBatch {
+    
+    private final NetworkGraph graph;
+    private final List<Node> nodes;
+    private final List<Edge> edges;
+    
+    GraphBatch(NetworkGraph graph) {
+        this.graph = graph;
+        this.nodes = new ArrayList<>();
+        this.edges = new ArrayList<>();
+    }
+    
+    public GraphBatch addNode(Node node) {
+        nodes.add(Objects.requireNonNull(node, "Node cannot be null"));
+        return this;
+    }
+    
+    public GraphBatch addEdge(Edge edge) {
+        edges.add(Objects.requireNonNull(edge, "Edge cannot be null"));
+        return this;
+    }
+    
+    public int size() {
+        return nodes.size() + edges.size();
+    }
+    
+    public boolean isEmpty() {
+        return nodes.isEmpty() && edges.isEmpty();
+    }
+    
+    public long commit() {
+        long version = graph.apply(this);
+        nodes.clear();
+        edges.clear();
+        return version;
+    }
+    
+    List<Node> getNodes() {
+        return nodes;
+    }
+    
+    List<Edge> getEdges() {
+        return edges;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,502 @@
+package com.netmap.graph;
+
+import com.netmap.core.domain.ConnectionType;
+import com.netmap.core.domain.Edge;
+import com.netmap.core.domain.Node;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+
+public final class GraphSnapshot {
+    
+    private static final ConnectionType[] CONNECTION_TYPES = ConnectionType.values();
+    private static final int[] NO_PATH = new int[0];
+    private static final int ALL_TYPES = (1 << CONNECTION_TYPES.length) - 1;
+    
+    private final long version;
+    private final String[] nodeIds;
+    private final Node[] nodes;
+    private final Map<String, Integer> index;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] latencies;
+    private final int[] bandwidths;
+    private final byte[] types;
+    private final Edge[] edges;
+    private final int[] inOffsets;
+    private final int[] inSources;
+    private final int[] inEdges;
+    private volatile StronglyConnectedComponents stronglyConnectedComponents;
+    private volatile ReachabilityIndex reachabilityIndex;
+    private volatile MaxFlowSolver maxFlowSolver;
+    private volatile TypeIndex typeIndex;
+    private volatile LandmarkIndex landmarkIndex;
+    private volatile ContractionHierarchy contractionHierarchy;
+    private volatile UndirectedView undirectedView;
+    private volatile CutAnalysis cutAnalysis;
+    
+    GraphSnapshot(long version, Map<String, Node> nodeMap, Map<String, List<Edge>> adjacencyList) {
+        int nodeCount = nodeMap.size();
+        this.version = version;
+        this.nodeIds = new String[nodeCount];
+        this.nodes = new Node[nodeCount];
+        this.index = new HashMap<>(nodeCount * 2);
+        this.offsets = new int[nodeCount + 1];
+        
+        int id = 0;
+        for (Node node : nodeMap.values()) {
+            nodeIds[id] = node.getId();
+            nodes[id] = node;
+            index.put(node.getId(), id);
+            id++;
+        }
+        
+        int edgeCount = 0;
+        for (int u = 0; u < nodeCount; u++) {
+            offsets[u] = edgeCount;
+            edgeCount += adjacencyList.getOrDefault(nodeIds[u], Collections.emptyList()).size();
+        }
+        offsets[nodeCount] = edgeCount;
+        
+        this.targets = new int[edgeCount];
+        this.latencies = new int[edgeCount];
+        this.bandwidths = new int[edgeCount];
+        this.types = new byte[edgeCount];
+        this.edges = new Edge[edgeCount];
+        
+        for (int u = 0; u < nodeCount; u++) {
+            int e = offsets[u];
+            for (Edge edge : adjacencyList.getOrDefault(nodeIds[u], Collections.emptyList())) {
+                targets[e] = index.get(edge.getTargetId());
+                latencies[e] = edge.getLatency();
+                bandwidths[e] = edge.getBandwidth();
+                types[e] = (byte) edge.getConnectionType().ordinal();
+                edges[e] = edge;
+                e++;
+            }
+        }
+        
+        this.inOffsets = new int[nodeCount + 1];
+        this.inSources = new int[edgeCount];
+        this.inEdges = new int[edgeCount];
+        
+        for (int e = 0; e < edgeCount; e++) {
+            inOffsets[targets[e] + 1]++;
+        }
+        for (int v = 0; v < nodeCount; v++) {
+            inOffsets[v + 1] += inOffsets[v];
+        }
+        
+        int[] cursor = Arrays.copyOf(inOffsets, nodeCount);
+        for (int u = 0; u < nodeCount; u++) {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int slot = cursor[targets[e]]++;
+                inSources[slot] = u;
+                inEdges[slot] = e;
+            }
+        }
+    }
+    
+    public long getVersion() {
+        return version;
+    }
+    
+    public int getNodeCount() {
+        return nodeIds.length;
+    }
+    
+    public int getEdgeCount() {
+        return targets.length;
+    }
+    
+    public int indexOf(String nodeId) {
+        Integer id = index.get(nodeId);
+        return id == null ? -1 : id;
+    }
+    
+    public String getNodeId(int node) {
+        return nodeIds[node];
+    }
+    
+    public Node getNode(int node) {
+        return nodes[node];
+    }
+    
+    public int edgeStart(int node) {
+        return offsets[node];
+    }
+    
+    public int edgeEnd(int node) {
+        return offsets[node + 1];
+    }
+    
+    public int getOutDegree(int node) {
+        return offsets[node + 1] - offsets[node];
+    }
+    
+    public int getTarget(int edge) {
+        return targets[edge];
+    }
+    
+    public int getLatency(int edge) {
+        return latencies[edge];
+    }
+    
+    public int getBandwidth(int edge) {
+        return bandwidths[edge];
+    }
+    
+    public ConnectionType getConnectionType(int edge) {
+        return CONNECTION_TYPES[types[edge]];
+    }
+    
+    public Edge getEdge(int edge) {
+        return edges[edge];
+    }
+    
+    public int inEdgeStart(int node) {
+        return inOffsets[node];
+    }
+    
+    public int inEdgeEnd(int node) {
+        return inOffsets[node + 1];
+    }
+    
+    public int getInDegree(int node) {
+        return inOffsets[node + 1] - inOffsets[node];
+    }
+    
+    public int getInSource(int slot) {
+        return inSources[slot];
+    }
+    
+    public int getInEdge(int slot) {
+        return inEdges[slot];
+    }
+    
+    public StronglyConnectedComponents getStronglyConnectedComponents() {
+        StronglyConnectedComponents components = stronglyConnectedComponents;
+        if (components == null) {
+            components = new StronglyConnectedComponents(this);
+            stronglyConnectedComponents = components;
+        }
+        return components;
+    }
+    
+    public ReachabilityIndex getReachabilityIndex() {
+        ReachabilityIndex index = reachabilityIndex;
+        if (index == null) {
+            index = new ReachabilityIndex(this, getStronglyConnectedComponents());
+            reachabilityIndex = index;
+        }
+        return index;
+    }
+    
+    public MaxFlowSolver getMaxFlowSolver() {
+        MaxFlowSolver solver = maxFlowSolver;
+        if (solver == null) {
+            solver = new MaxFlowSolver(this);
+            maxFlowSolver = solver;
+        }
+        return solver;
+    }
+    
+    public TypeIndex getTypeIndex() {
+        TypeIndex current = typeIndex;
+        if (current == null) {
+            current = new TypeIndex(this);
+            typeIndex = current;
+        }
+        return current;
+    }
+    
+    public LandmarkIndex getLandmarkIndex() {
+        LandmarkIndex index = landmarkIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = landmarkIndex;
+                if (index == null) {
+                    index = new LandmarkIndex(this, LandmarkIndex.DEFAULT_LANDMARKS);
+                    landmarkIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+    
+    public ContractionHierarchy getContractionHierarchy() {
+        ContractionHierarchy hierarchy = contractionHierarchy;
+        if (hierarchy == null) {
+            synchronized (this) {
+                hierarchy = contractionHierarchy;
+                if (hierarchy == null) {
+                    hierarchy = ContractionHierarchy.build(this);
+                    contractionHierarchy = hierarchy;
+                }
+            }
+        }
+        return hierarchy;
+    }
+    
+    public CutAnalysis getCutAnalysis() {
+        CutAnalysis analysis = cutAnalysis;
+        if (analysis == null) {
+            analysis = new CutAnalysis(this);
+            cutAnalysis = analysis;
+        }
+        return analysis;
+    }
+    
+    UndirectedView getUndirectedView() {
+        UndirectedView view = undirectedView;
+        if (view == null) {
+            view = new UndirectedView(this);
+            undirectedView = view;
+        }
+        return view;
+    }
+    
+    public boolean loadContractionHierarchy(InputStream inputStream) throws IOException {
+        Optional<ContractionHierarchy> loaded = ContractionHierarchy.readFrom(inputStream, this);
+        loaded.ifPresent(hierarchy -> contractionHierarchy = hierarchy);
+        return loaded.isPresent();
+    }
+    
+    public boolean hasPath(int source, int target) {
+        return hasPath(source, target, ALL_TYPES, null);
+    }
+    
+    public boolean hasPath(int source, int target, Set<ConnectionType> allowedTypes) {
+        return hasPath(source, target, typeMask(allowedTypes), null);
+    }
+    
+    public boolean hasPath(int source, int target, PathConstraints constraints) {
+        Objects.requireNonNull(constraints, "Constraints cannot be null");
+        if (constraints.hasLatencyBudget()) {
+            long[] allowed = constraints.edgeMask(this);
+            return latencyRouter().search(this, source, target, allowed, constraints.getMaxLatency()) != LatencyRouter.UNREACHABLE;
+        }
+        return hasPath(source, target, ALL_TYPES, constraints.edgeMask(this));
+    }
+    
+    private boolean hasPath(int source, int target, int typeMask, long[] allowedEdges) {
+        if (source == target) return true;
+        
+        TraversalWorkspace workspace = TraversalWorkspace.forThread(nodeIds.length);
+        workspace.reset();
+        int[] stack = workspace.queue();
+        int top = 0;
+        
+        stack[top++] = source;
+        workspace.visit(source, -1);
+        
+        while (top > 0) {
+            int current = stack[--top];
+            for (int e = offsets[current], end = offsets[current + 1]; e < end; e++) {
+                if ((typeMask & (1 << types[e])) == 0) continue;
+                if (allowedEdges != null && (allowedEdges[e >>> 6] & (1L << e)) == 0) continue;
+                int neighbor = targets[e];
+                if (neighbor == target) return true;
+                if (!workspace.isVisited(neighbor)) {
+                    workspace.visit(neighbor, current);
+                    stack[top++] = neighbor;
+                }
+            }
+        }
+        
+        return false;
+    }
+    
+    public int[] shortestPath(int source, int target) {
+        return shortestPath(source, target, ALL_TYPES);
+    }
+    
+    public int[] shortestPath(int source, int target, Set<ConnectionType> allowedTypes) {
+        return shortestPath(source, target, typeMask(allowedTypes));
+    }
+    
+    private int[] shortestPath(int source, int target, int typeMask) {
+        TraversalWorkspace workspace = TraversalWorkspace.forThread(nodeIds.length);
+        workspace.reset();
+        int[] queue = workspace.queue();
+        int head = 0;
+        int tail = 0;
+        
+        queue[tail++] = source;
+        workspace.visit(source, -1);
+        
+        while (head < tail) {
+            int current = queue[head++];
+            
+            if (current == target) {
+                return reconstructPath(workspace, target);
+            }
+            
+            for (int e = offsets[current], end = offsets[current + 1]; e < end; e++) {
+                if ((typeMask & (1 << types[e])) == 0) continue;
+                int neighbor = targets[e];
+                if (!workspace.isVisited(neighbor)) {
+                    workspace.visit(neighbor, current);
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+        
+        return NO_PATH;
+    }
+    
+    private static int typeMask(Set<ConnectionType> allowedTypes) {
+        Objects.requireNonNull(allowedTypes, "Allowed types cannot be null");
+        int mask = 0;
+        for (ConnectionType type : allowedTypes) {
+            mask |= 1 << type.ordinal();
+        }
+        return mask;
+    }
+    
+    public int[] bidirectionalShortestPath(int source, int target) {
+        return BidirectionalSearch.forThread(this).search(this, source, target);
+    }
+    
+    private int[] reconstructPath(TraversalWorkspace workspace, int target) {
+        int length = 0;
+        for (int current = target; current != -1; current = workspace.parentOf(current)) {
+            length++;
+        }
+        
+        int[] path = new int[length];
+        for (int current = target, i = length - 1; current != -1; current = workspace.parentOf(current)) {
+            path[i--] = current;
+        }
+        return path;
+    }
+    
+    public Optional<WeightedPath> lowestLatencyPath(int source, int target) {
+        return lowestLatencyPath(source, target, RoutingMode.DIJKSTRA);
+    }
+    
+    public Optional<WeightedPath> lowestLatencyPath(int source, int target, RoutingMode mode) {
+        Objects.requireNonNull(mode, "Routing mode cannot be null");
+        
+        return switch (mode) {
+            case DIJKSTRA -> routeLatency(source, target, null);
+            case ALT -> routeLatency(source, target, getLandmarkIndex().heuristicTo(target));
+            case CONTRACTION_HIERARCHY -> getContractionHierarchy().shortestPath(source, target);
+        };
+    }
+    
+    private Optional<WeightedPath> routeLatency(int source, int target, LatencyHeuristic heuristic) {
+        LatencyRouter router = latencyRouter();
+        long cost = router.search(this, source, target, heuristic);
+        if (cost == LatencyRouter.UNREACHABLE) {
+            return Optional.empty();
+        }
+        return Optional.of(toWeightedPath(router.edgesTo(target), source, cost));
+    }
+    
+    public Optional<WeightedPath> constrainedPath(int source, int target, PathConstraints constraints) {
+        Objects.requireNonNull(constraints, "Constraints cannot be null");
+        
+        LatencyRouter router = latencyRouter();
+        long cost = router.search(this, source, target, constraints.edgeMask(this), constraints.getMaxLatency());
+        if (cost == LatencyRouter.UNREACHABLE) {
+            return Optional.empty();
+        }
+        return Optional.of(toWeightedPath(router.edgesTo(target), source, cost));
+    }
+    
+    public List<WeightedPath> kShortestPaths(int source, int target, int k) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("Path count must be positive");
+        }
+        return new KShortestPaths(this, source, target).find(k);
+    }
+    
+    public Optional<BottleneckPath> widestPath(int source, int target) {
+        if (source == target) {
+            return Optional.empty();
+        }
+        
+        WidestPathFinder finder = WidestPathFinder.forThread(this);
+        long bandwidth = finder.search(this, source, target);
+        if (bandwidth == WidestPathFinder.UNREACHABLE) {
+            return Optional.empty();
+        }
+        
+        int[] edgePath = finder.edgesTo(target);
+        WeightedPath path = toWeightedPath(edgePath, source, 0);
+        return Optional.of(new BottleneckPath(path.getNodeIds(), path.getEdges(), bandwidth));
+    }
+    
+    WeightedPath toWeightedPath(int[] edgePath, int source, long cost) {
+        List<String> ids = new ArrayList<>(edgePath.length + 1);
+        List<Edge> pathEdges = new ArrayList<>(edgePath.length);
+        ids.add(nodeIds[source]);
+        for (int edge : edgePath) {
+            ids.add(nodeIds[targets[edge]]);
+            pathEdges.add(edges[edge]);
+        }
+        return new WeightedPath(ids, pathEdges, cost);
+    }
+    
+    public PrimitiveIterator.OfInt neighborhood(int source, int hops) {
+        if (hops < 0) {
+            throw new IllegalArgumentException("Hop count cannot be negative");
+        }
+        return new NeighborhoodCursor(this, source, hops);
+    }
+    
+    public Subgraph extractSubgraph(int source, int hops, int maxNodes, int maxEdges) {
+        if (maxNodes <= 0) throw new IllegalArgumentException("Node cap must be positive");
+        if (maxEdges < 0) throw new IllegalArgumentException("Edge cap cannot be negative");
+        
+        PrimitiveIterator.OfInt cursor = neighborhood(source, hops);
+        int[] selected = new int[Math.min(maxNodes, 16)];
+        int count = 0;
+        while (count < maxNodes && cursor.hasNext()) {
+            if (count == selected.length) {
+                selected = Arrays.copyOf(selected, Math.min(maxNodes, count * 2));
+            }
+            selected[count++] = cursor.nextInt();
+        }
+        boolean truncated = cursor.hasNext();
+        
+        BitSet members = new BitSet();
+        NetworkGraph graph = new NetworkGraph();
+        GraphBatch batch = graph.newBatch();
+        for (int i = 0; i < count; i++) {
+            members.set(selected[i]);
+            batch.addNode(nodes[selected[i]]);
+        }
+        
+        // Nodes come out in hop order, so capped edges are dropped from the outer rings first
+        int edgeTotal = 0;
+        for (int i = 0; i < count; i++) {
+            int node = selected[i];
+            for (int e = edgeStart(node), end = edgeEnd(node); e < end; e++) {
+                if (!members.get(targets[e])) continue;
+                if (edgeTotal == maxEdges) {
+                    truncated = true;
+                    break;
+                }
+                batch.addEdge(edges[e]);
+                edgeTotal++;
+            }
+        }
+        batch.commit();
+        return new Subgraph(nodeIds[source], hops, graph, truncated);
+    }
+    
+    LatencyRouter latencyRouter() {
+        return LatencyRouter.forThread(this);
+    }
+    
+    public List<String> toNodeIds(int[] path) {
+        List<String> ids = new ArrayList<>(path.length);
+        for (int node : path) {
+            ids.add(nodeIds[node]);
+        }
+        return ids;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.netmap.graph;
+
+public final class HopDistances {
+    
+    public static final int UNREACHABLE = -1;
+    
+    private final GraphSnapshot snapshot;
+    private final int source;
+    private final int[] distances;
+    private final int reachableCount;
+    private final int maxDistance;
+    
+    HopDistances(GraphSnapshot snapshot, int source, int[] distances, int reachableCount, int maxDistance) {
+        this.snapshot = snapshot;
+        this.source = source;
+        this.distances = distances;
+        this.reachableCount = reachableCount;
+        this.maxDistance = maxDistance;
+    }
+    
+    public GraphSnapshot getSnapshot() {
+        return snapshot;
+    }
+    
+    public String getSourceId() {
+        return snapshot.getNodeId(source);
+    }
+    
+    public int[] getDistances() {
+        return distances;
+    }
+    
+    public int getDistance(String nodeId) {
+        int node = snapshot.indexOf(nodeId);
+        return node < 0 ? UNREACHABLE : distances[node];
+    }
+    
+    public int getReachableCount() {
+        return reachableCount;
+    }
+    
+    public int getMaxDistance() {
+        return maxDistance;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,101 @@
+package com.netmap.graph;
+
+import java.util.Arrays;
+
+final class IndexedMinHeap {
+    
+    private final int[] heap;
+    private final int[] positions;
+    private final long[] keys;
+    private int size;
+    
+    IndexedMinHeap(int capacity) {
+        this.heap = new int[capacity];
+        this.positions = new int[capacity];
+        this.keys = new long[capacity];
+        Arrays.fill(positions, -1);
+    }
+    
+    boolean isEmpty() {
+        return size == 0;
+    }
+    
+    boolean contains(int item) {
+        return positions[item] >= 0;
+    }
+    
+    long keyOf(int item) {
+        return keys[item];
+    }
+    
+    long peekKey() {
+        return keys[heap[0]];
+    }
+    
+    void insertOrDecrease(int item, long key) {
+        int position = positions[item];
+        if (position < 0) {
+            position = size++;
+            heap[position] = item;
+            positions[item] = position;
+        } else if (key >= keys[item]) {
+            return;
+        }
+        keys[item] = key;
+        siftUp(position);
+    }
+    
+    int poll() {
+        int min = heap[0];
+        positions[min] = -1;
+        size--;
+        if (size > 0) {
+            int last = heap[size];
+            heap[0] = last;
+            positions[last] = 0;
+            siftDown(0);
+        }
+        return min;
+    }
+    
+    void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[heap[i]] = -1;
+        }
+        size = 0;
+    }
+    
+    private void siftUp(int position) {
+        int item = heap[position];
+        long key = keys[item];
+        while (position > 0) {
+            int parentPosition = (position - 1) >>> 1;
+            int parent = heap[parentPosition];
+            if (keys[parent] <= key) break;
+            heap[position] = parent;
+            positions[parent] = position;
+            position = parentPosition;
+        }
+        heap[position] = item;
+        positions[item] = position;
+    }
+    
+    private void siftDown(int position) {
+        int item = heap[position];
+        long key = keys[item];
+        int half = size >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            int right = child + 1;
+            if (right < size && keys[heap[right]] < keys[heap[child]]) {
+                child = right;
+            }
+            if (key <= keys[heap[child]]) break;
+            heap[position] = heap[child];
+            positions[heap[child]] = position;
+            position = child;
+        }
+        heap[position] = item;
+        positions[item] = position;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,331 @@
+package com.netmap.graph;
+
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+public final class Ipv4PrefixTrie implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    private static final Ipv4PrefixTrie EMPTY = new Ipv4PrefixTrie(null, 0);
+    
+    private final Entry root;
+    private final int size;
+    
+    private Ipv4PrefixTrie(Entry root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+    
+    public static Ipv4PrefixTrie empty() {
+        return EMPTY;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public Ipv4PrefixTrie with(int prefix, int length, String value) {
+        checkLength(length);
+        Entry updated = insert(root, mask(prefix, length), length, value);
+        return updated == root ? this : new Ipv4PrefixTrie(updated, size + 1);
+    }
+    
+    public Ipv4PrefixTrie without(int prefix, int length, String value) {
+        checkLength(length);
+        Entry updated = remove(root, mask(prefix, length), length, value);
+        return updated == root ? this : new Ipv4PrefixTrie(updated, size - 1);
+    }
+    
+    public List<String> get(int prefix, int length) {
+        checkLength(length);
+        int key = mask(prefix, length);
+        Entry entry = root;
+        while (entry != null && entry.length < length && matches(entry, key)) {
+            entry = entry.child(bitAt(key, entry.length));
+        }
+        if (entry == null || entry.length != length || entry.prefix != key || entry.values == null) {
+            return Collections.emptyList();
+        }
+        return entry.values.toList();
+    }
+    
+    public List<String> longestPrefixMatch(int address) {
+        Values best = null;
+        Entry entry = root;
+        while (entry != null && matches(entry, address)) {
+            if (entry.values != null) {
+                best = entry.values;
+            }
+            if (entry.length == 32) break;
+            entry = entry.child(bitAt(address, entry.length));
+        }
+        return best == null ? Collections.emptyList() : best.toList();
+    }
+    
+    public List<String> hostsWithin(int prefix, int length) {
+        checkLength(length);
+        int key = mask(prefix, length);
+        Entry entry = root;
+        while (entry != null && entry.length < length) {
+            if (!matches(entry, key)) return Collections.emptyList();
+            entry = entry.child(bitAt(key, entry.length));
+        }
+        if (entry == null || mask(entry.prefix, length) != key) {
+            return Collections.emptyList();
+        }
+        
+        List<String> hosts = new ArrayList<>();
+        Deque<Entry> stack = new ArrayDeque<>();
+        stack.push(entry);
+        while (!stack.isEmpty()) {
+            Entry current = stack.pop();
+            if (current.length == 32) {
+                current.values.addTo(hosts);
+                continue;
+            }
+            if (current.one != null) stack.push(current.one);
+            if (current.zero != null) stack.push(current.zero);
+        }
+        return hosts;
+    }
+    
+    public void forEach(EntryVisitor visitor) {
+        Deque<Entry> stack = new ArrayDeque<>();
+        if (root != null) {
+            stack.push(root);
+        }
+        while (!stack.isEmpty()) {
+            Entry current = stack.pop();
+            if (current.values != null) {
+                for (String value : current.values.toList()) {
+                    visitor.visit(current.prefix, current.length, value);
+                }
+            }
+            if (current.one != null) stack.push(current.one);
+            if (current.zero != null) stack.push(current.zero);
+        }
+    }
+    
+    private static Entry insert(Entry entry, int key, int length, String value) {
+        if (entry == null) {
+            return new Entry(key, length, null, null, Values.with(null, value));
+        }
+        
+        int common = commonLength(entry.prefix, entry.length, key, length);
+        if (common == entry.length && common == length) {
+            Values values = Values.with(entry.values, value);
+            return values == entry.values ? entry : entry.withValues(values);
+        }
+        if (common == entry.length) {
+            int bit = bitAt(key, common);
+            Entry child = entry.child(bit);
+            Entry updated = insert(child, key, length, value);
+            return updated == child ? entry : entry.withChild(bit, updated);
+        }
+        
+        // The new key either sits above the existing entry or splits off beside it
+        Entry added = new Entry(key, length, null, null, Values.with(null, value));
+        if (common == length) {
+            return added.withChild(bitAt(entry.prefix, common), entry);
+        }
+        int branch = mask(key, common);
+        return bitAt(key, common) == 0
+            ? new Entry(branch, common, added, entry, null)
+            : new Entry(branch, common, entry, added, null);
+    }
+    
+    private static Entry remove(Entry entry, int key, int length, String value) {
+        if (entry == null || entry.length > length || !matches(entry, key)) {
+            return entry;
+        }
+        
+        Entry updated;
+        if (entry.length == length) {
+            Values values = Values.without(entry.values, value);
+            if (values == entry.values) {
+                return entry;
+            }
+            updated = entry.withValues(values);
+        } else {
+            int bit = bitAt(key, entry.length);
+            Entry child = entry.child(bit);
+            Entry replaced = remove(child, key, length, value);
+            if (replaced == child) {
+                return entry;
+            }
+            updated = entry.withChild(bit, replaced);
+        }
+        
+        if (updated.values != null) return updated;
+        if (updated.zero == null) return updated.one;
+        if (updated.one == null) return updated.zero;
+        return updated;
+    }
+    
+    private static boolean matches(Entry entry, int key) {
+        return mask(key, entry.length) == entry.prefix;
+    }
+    
+    private static int commonLength(int first, int firstLength, int second, int secondLength) {
+        int limit = Math.min(firstLength, secondLength);
+        return Math.min(limit, Integer.numberOfLeadingZeros(first ^ second));
+    }
+    
+    private static int bitAt(int key, int position) {
+        return (key >>> (31 - position)) & 1;
+    }
+    
+    private static int mask(int key, int length) {
+        return length == 0 ? 0 : key & (-1 << (32 - length));
+    }
+    
+    private static void checkLength(int length) {
+        if (length < 0 || length > 32) {
+            throw new IllegalArgumentException("Prefix length must be between 0 and 32");
+        }
+    }
+    
+    public interface EntryVisitor {
+        void visit(int prefix, int length, String value);
+    }
+    
+    private static final class Entry implements Serializable {
+        
+        private static final long serialVersionUID = 1L;
+        
+        private final int prefix;
+        private final int length;
+        private final Entry zero;
+        private final Entry one;
+        private final Values values;
+        
+        Entry(int prefix, int length, Entry zero, Entry one, Values values) {
+            this.prefix = prefix;
+            this.length = length;
+            this.zero = zero;
+            this.one = one;
+            this.values = values;
+        }
+        
+        Entry child(int bit) {
+            return bit == 0 ? zero : one;
+        }
+        
+        Entry withChild(int bit, Entry child) {
+            return bit == 0
+                ? new Entry(prefix, length, child, one, values)
+                : new Entry(prefix, length, zero, child, values);
+        }
+        
+        Entry withValues(Values updated) {
+            return new Entry(prefix, length, zero, one, updated);
+        }
+    }
+    
+    // Persistent treap of the values stored under one prefix. Many nodes can share an address, so adding or
+    // removing one costs O(log n) path copies instead of copying every value; the shape depends only on the
+    // set itself, which keeps iteration order stable across histories
+    private static final class Values implements Serializable {
+        
+        private static final long serialVersionUID = 1L;
+        
+        private final String value;
+        private final int priority;
+        private final Values left;
+        private final Values right;
+        private final int size;
+        
+        private Values(String value, int priority, Values left, Values right) {
+            this.value = value;
+            this.priority = priority;
+            this.left = left;
+            this.right = right;
+            this.size = 1 + sizeOf(left) + sizeOf(right);
+        }
+        
+        static Values with(Values node, String value) {
+            if (node == null) {
+                return new Values(value, priorityOf(value), null, null);
+            }
+            int order = value.compareTo(node.value);
+            if (order == 0) {
+                return node;
+            }
+            if (order < 0) {
+                Values updated = with(node.left, value);
+                if (updated == node.left) return node;
+                return outranks(updated, node)
+                    ? new Values(updated.value, updated.priority, updated.left,
+                                 new Values(node.value, node.priority, updated.right, node.right))
+                    : new Values(node.value, node.priority, updated, node.right);
+            }
+            Values updated = with(node.right, value);
+            if (updated == node.right) return node;
+            return outranks(updated, node)
+                ? new Values(updated.value, updated.priority,
+                             new Values(node.value, node.priority, node.left, updated.left), updated.right)
+                : new Values(node.value, node.priority, node.left, updated);
+        }
+        
+        static Values without(Values node, String value) {
+            if (node == null) {
+                return null;
+            }
+            int order = value.compareTo(node.value);
+            if (order == 0) {
+                return merge(node.left, node.right);
+            }
+            if (order < 0) {
+                Values updated = without(node.left, value);
+                return updated == node.left ? node : new Values(node.value, node.priority, updated, node.right);
+            }
+            Values updated = without(node.right, value);
+            return updated == node.right ? node : new Values(node.value, node.priority, node.left, updated);
+        }
+        
+        List<String> toList() {
+            List<String> values = new ArrayList<>(size);
+            addTo(values);
+            return values;
+        }
+        
+        void addTo(List<String> target) {
+            Deque<Values> stack = new ArrayDeque<>();
+            for (Values current = this; current != null || !stack.isEmpty(); current = current.right) {
+                while (current != null) {
+                    stack.push(current);
+                    current = current.left;
+                }
+                current = stack.pop();
+                target.add(current.value);
+            }
+        }
+        
+        private static Values merge(Values first, Values second) {
+            if (first == null) return second;
+            if (second == null) return first;
+            return outranks(first, second)
+                ? new Values(first.value, first.priority, first.left, merge(first.right, second))
+                : new Values(second.value, second.priority, merge(first, second.left), second.right);
+        }
+        
+        private static boolean outranks(Values first, Values second) {
+            return first.priority != second.priority
+                ? first.priority > second.priority
+                : first.value.compareTo(second.value) < 0;
+        }
+        
+        private static int priorityOf(String value) {
+            int hash = value.hashCode() * 0x9E3779B9;
+            return hash ^ (hash >>> 16);
+        }
+        
+        private static int sizeOf(Values node) {
+            return node == null ? 0 : node.size;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,173 @@
+package com.netmap.graph;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+final class KShortestPaths {
+    
+    private static final int PARALLEL_SPUR_THRESHOLD = 4;
+    
+    private final GraphSnapshot graph;
+    private final int source;
+    private final int target;
+    private final ShortestPathTree tree;
+    
+    KShortestPaths(GraphSnapshot graph, int source, int target) {
+        this.graph = graph;
+        this.source = source;
+        this.target = target;
+        this.tree = graph.latencyRouter().treeTo(graph, target);
+    }
+    
+    List<WeightedPath> find(int k) {
+        if (tree.distanceFrom(source) == LatencyRouter.INFINITE) {
+            return Collections.emptyList();
+        }
+        
+        List<Candidate> accepted = new ArrayList<>();
+        PriorityQueue<Candidate> candidates = new PriorityQueue<>();
+        Set<Candidate> seen = new HashSet<>();
+        
+        Candidate first = new Candidate(new int[0], treePath(source), 0, tree.distanceFrom(source));
+        accepted.add(first);
+        seen.add(first);
+        
+        while (accepted.size() < k) {
+            Candidate previous = accepted.get(accepted.size() - 1);
+            int spurCount = previous.edges.length;
+            
+            // Spur searches for one path are independent, so long paths fan out over the common pool
+            IntStream spurs = IntStream.range(0, spurCount);
+            if (spurCount >= PARALLEL_SPUR_THRESHOLD) {
+                spurs = spurs.parallel();
+            }
+            List<Candidate> found = spurs
+                .mapToObj(i -> spur(previous, i, accepted))
+                .filter(Objects::nonNull)
+                .toList();
+            
+            for (Candidate candidate : found) {
+                if (seen.add(candidate)) {
+                    candidates.add(candidate);
+                }
+            }
+            
+            if (candidates.isEmpty()) {
+                break;
+            }
+            accepted.add(candidates.poll());
+        }
+        
+        List<WeightedPath> paths = new ArrayList<>(accepted.size());
+        for (Candidate candidate : accepted) {
+            paths.add(graph.toWeightedPath(candidate.edges, source, candidate.cost));
+        }
+        return paths;
+    }
+    
+    private Candidate spur(Candidate previous, int index, List<Candidate> accepted) {
+        int[] nodes = previous.nodes();
+        int spurNode = nodes[index];
+        LatencyRouter router = graph.latencyRouter();
+        
+        try {
+            for (int i = 0; i < index; i++) {
+                router.blockNode(nodes[i]);
+            }
+            for (Candidate path : accepted) {
+                if (path.edges.length > index && path.sharesRoot(previous, index)) {
+                    router.blockEdge(path.edges[index]);
+                }
+            }
+            
+            long rootCost = 0;
+            for (int i = 0; i < index; i++) {
+                rootCost += graph.getLatency(previous.edges[i]);
+            }
+            int[] root = Arrays.copyOf(previous.edges, index);
+            
+            // The reverse shortest-path tree is still optimal whenever none of its links are blocked
+            int[] treeSpur = treePath(spurNode);
+            if (isUnblocked(router, treeSpur)) {
+                return new Candidate(root, treeSpur, rootCost, tree.distanceFrom(spurNode));
+            }
+            
+            long spurCost = router.search(graph, spurNode, target, tree.distances());
+            if (spurCost == LatencyRouter.UNREACHABLE) {
+                return null;
+            }
+            return new Candidate(root, router.edgesTo(target), rootCost, spurCost);
+        } finally {
+            router.clearBlocks();
+        }
+    }
+    
+    private int[] treePath(int from) {
+        int length = 0;
+        for (int node = from; node != target; node = graph.getTarget(tree.nextEdge(node))) {
+            length++;
+        }
+        
+        int[] edges = new int[length];
+        int node = from;
+        for (int i = 0; i < length; i++) {
+            edges[i] = tree.nextEdge(node);
+            node = graph.getTarget(edges[i]);
+        }
+        return edges;
+    }
+    
+    private boolean isUnblocked(LatencyRouter router, int[] edges) {
+        for (int edge : edges) {
+            if (router.isBlockedEdge(edge) || router.isBlockedNode(graph.getTarget(edge))) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private final class Candidate implements Comparable<Candidate> {
+        
+        private final int[] edges;
+        private final long cost;
+        private final int hash;
+        
+        Candidate(int[] root, int[] spur, long rootCost, long spurCost) {
+            this.edges = Arrays.copyOf(root, root.length + spur.length);
+            System.arraycopy(spur, 0, edges, root.length, spur.length);
+            this.cost = rootCost + spurCost;
+            this.hash = Arrays.hashCode(edges);
+        }
+        
+        int[] nodes() {
+            int[] nodes = new int[edges.length + 1];
+            nodes[0] = source;
+            for (int i = 0; i < edges.length; i++) {
+                nodes[i + 1] = graph.getTarget(edges[i]);
+            }
+            return nodes;
+        }
+        
+        boolean sharesRoot(Candidate other, int length) {
+            return Arrays.equals(edges, 0, length, other.edges, 0, length);
+        }
+        
+        @Override
+        public int compareTo(Candidate other) {
+            int byCost = Long.compare(cost, other.cost);
+            return byCost != 0 ? byCost : Integer.compare(edges.length, other.edges.length);
+        }
+        
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof Candidate)) return false;
+            return Arrays.equals(edges, ((Candidate) obj).edges);
+        }
+        
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,162 @@
+package com.netmap.graph;
+
+import java.util.Arrays;
+
+public final class LandmarkIndex {
+    
+    public static final int DEFAULT_LANDMARKS = 8;
+    
+    private static final int UNREACHED = Integer.MAX_VALUE;
+    
+    private final int[] landmarks;
+    private final int[] toLandmark;
+    private final int[] fromLandmark;
+    
+    LandmarkIndex(GraphSnapshot graph, int maxLandmarks) {
+        if (maxLandmarks <= 0) {
+            throw new IllegalArgumentException("Landmark count must be positive");
+        }
+        
+        int nodeCount = graph.getNodeCount();
+        int[] chosen = new int[Math.min(maxLandmarks, nodeCount)];
+        long[][] forward = new long[chosen.length][];
+        long[][] backward = new long[chosen.length][];
+        long[] coverage = new long[nodeCount];
+        boolean[] rejected = new boolean[nodeCount];
+        Arrays.fill(coverage, LatencyRouter.INFINITE);
+        IndexedMinHeap heap = new IndexedMinHeap(nodeCount);
+        
+        int count = 0;
+        int candidate = nodeCount == 0 ? -1 : farthest(distances(graph, seed(graph), false, heap), rejected);
+        while (count < chosen.length && candidate >= 0) {
+            long[] from = distances(graph, candidate, false, heap);
+            long[] to = distances(graph, candidate, true, heap);
+            rejected[candidate] = true;
+            
+            // Int tables keep the index compact; a landmark whose distances do not fit is skipped entirely
+            if (fitsInt(from) && fitsInt(to)) {
+                chosen[count] = candidate;
+                forward[count] = from;
+                backward[count] = to;
+                count++;
+                
+                for (int node = 0; node < nodeCount; node++) {
+                    coverage[node] = Math.min(coverage[node], saturatedSum(from[node], to[node]));
+                }
+            }
+            candidate = farthest(coverage, rejected);
+        }
+        
+        this.landmarks = Arrays.copyOf(chosen, count);
+        this.toLandmark = new int[nodeCount * count];
+        this.fromLandmark = new int[nodeCount * count];
+        for (int node = 0; node < nodeCount; node++) {
+            int base = node * count;
+            for (int i = 0; i < count; i++) {
+                toLandmark[base + i] = toInt(backward[i][node]);
+                fromLandmark[base + i] = toInt(forward[i][node]);
+            }
+        }
+    }
+    
+    public int getLandmarkCount() {
+        return landmarks.length;
+    }
+    
+    public int getLandmark(int i) {
+        return landmarks[i];
+    }
+    
+    public long lowerBound(int source, int target) {
+        return heuristicTo(target).estimate(source);
+    }
+    
+    LatencyHeuristic heuristicTo(int target) {
+        int count = landmarks.length;
+        int[] targetTo = Arrays.copyOfRange(toLandmark, target * count, target * count + count);
+        int[] targetFrom = Arrays.copyOfRange(fromLandmark, target * count, target * count + count);
+        
+        return node -> {
+            long best = 0;
+            int base = node * count;
+            for (int i = 0; i < count; i++) {
+                // d(v,t) >= d(v,L) - d(t,L) and d(v,t) >= d(L,t) - d(L,v); an impossible bound means t is unreachable
+                int nodeTo = toLandmark[base + i];
+                if (targetTo[i] != UNREACHED) {
+                    if (nodeTo == UNREACHED) return LatencyRouter.INFINITE;
+                    best = Math.max(best, (long) nodeTo - targetTo[i]);
+                }
+                int nodeFrom = fromLandmark[base + i];
+                if (nodeFrom != UNREACHED) {
+                    if (targetFrom[i] == UNREACHED) return LatencyRouter.INFINITE;
+                    best = Math.max(best, (long) targetFrom[i] - nodeFrom);
+                }
+            }
+            return best;
+        };
+    }
+    
+    private static int seed(GraphSnapshot graph) {
+        int best = 0;
+        for (int node = 1; node < graph.getNodeCount(); node++) {
+            if (graph.getOutDegree(node) + graph.getInDegree(node) > graph.getOutDegree(best) + graph.getInDegree(best)) {
+                best = node;
+            }
+        }
+        return best;
+    }
+    
+    private static int farthest(long[] coverage, boolean[] rejected) {
+        int best = -1;
+        for (int node = 0; node < coverage.length; node++) {
+            if (!rejected[node] && (best < 0 || coverage[node] > coverage[best])) {
+                best = node;
+            }
+        }
+        return best >= 0 && coverage[best] > 0 ? best : -1;
+    }
+    
+    private static long[] distances(GraphSnapshot graph, int root, boolean reverse, IndexedMinHeap heap) {
+        long[] distances = new long[graph.getNodeCount()];
+        Arrays.fill(distances, LatencyRouter.INFINITE);
+        distances[root] = 0;
+        heap.clear();
+        heap.insertOrDecrease(root, 0);
+        
+        while (!heap.isEmpty()) {
+            int current = heap.poll();
+            long base = distances[current];
+            int start = reverse ? graph.inEdgeStart(current) : graph.edgeStart(current);
+            int end = reverse ? graph.inEdgeEnd(current) : graph.edgeEnd(current);
+            for (int i = start; i < end; i++) {
+                int edge = reverse ? graph.getInEdge(i) : i;
+                int neighbor = reverse ? graph.getInSource(i) : graph.getTarget(edge);
+                long distance = base + graph.getLatency(edge);
+                if (distance < distances[neighbor]) {
+                    distances[neighbor] = distance;
+                    heap.insertOrDecrease(neighbor, distance);
+                }
+            }
+        }
+        return distances;
+    }
+    
+    private static boolean fitsInt(long[] distances) {
+        for (long distance : distances) {
+            if (distance != LatencyRouter.INFINITE && distance >= UNREACHED) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static long saturatedSum(long first, long second) {
+        return first == LatencyRouter.INFINITE || second == LatencyRouter.INFINITE
+            ? LatencyRouter.INFINITE
+            : first + second;
+    }
+    
+    private static int toInt(long distance) {
+        return distance == LatencyRouter.INFINITE ? UNREACHED : (int) distance;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,7 @@
+package com.netmap.graph;
+
+@FunctionalInterface
+interface LatencyHeuristic {
+    
+    long estimate(int node);
+}
\ No newline at end of file
@@ -0,0 +1,227 @@
+package com.netmap.graph;
+
+import java.util.Arrays;
+
+final class LatencyRouter {
+    
+    static final long UNREACHABLE = -1;
+    static final long INFINITE = Long.MAX_VALUE;
+    
+    private static final ThreadLocal<LatencyRouter> ROUTERS = ThreadLocal.withInitial(LatencyRouter::new);
+    
+    private IndexedMinHeap heap;
+    private long[] distances;
+    private int[] parents;
+    private int[] parentEdges;
+    private int[] reached;
+    private int[] settled;
+    private long[] blockedNodes;
+    private long[] blockedEdges;
+    private int[] blockLog;
+    private int blockLogSize;
+    private int epoch;
+    private int settledCount;
+    
+    private LatencyRouter() {
+        this.heap = new IndexedMinHeap(0);
+        this.distances = new long[0];
+        this.parents = new int[0];
+        this.parentEdges = new int[0];
+        this.reached = new int[0];
+        this.settled = new int[0];
+        this.blockedNodes = new long[0];
+        this.blockedEdges = new long[0];
+        this.blockLog = new int[16];
+    }
+    
+    // One router per thread serves every snapshot; it keeps no reference to them, so old versions can be collected
+    static LatencyRouter forThread(GraphSnapshot graph) {
+        LatencyRouter router = ROUTERS.get();
+        router.ensureCapacity(graph.getNodeCount(), graph.getEdgeCount());
+        return router;
+    }
+    
+    long search(GraphSnapshot graph, int source, int target) {
+        return search(graph, source, target, null, null, INFINITE);
+    }
+    
+    long search(GraphSnapshot graph, int source, int target, long[] heuristic) {
+        return search(graph, source, target, node -> heuristic[node], null, INFINITE);
+    }
+    
+    long search(GraphSnapshot graph, int source, int target, LatencyHeuristic heuristic) {
+        return search(graph, source, target, heuristic, null, INFINITE);
+    }
+    
+    long search(GraphSnapshot graph, int source, int target, long[] allowedEdges, long budget) {
+        return search(graph, source, target, null, allowedEdges, budget);
+    }
+    
+    private long search(GraphSnapshot graph, int source, int target, LatencyHeuristic heuristic,
+                        long[] allowedEdges, long budget) {
+        begin();
+        if (isBlockedNode(source)) {
+            return UNREACHABLE;
+        }
+        relax(source, -1, -1, 0, heuristic == null ? 0 : heuristic.estimate(source));
+        
+        boolean blocking = blockLogSize > 0;
+        while (!heap.isEmpty()) {
+            int current = heap.poll();
+            settled[current] = epoch;
+            settledCount++;
+            
+            if (current == target) {
+                heap.clear();
+                return distances[current];
+            }
+            
+            long base = distances[current];
+            for (int e = graph.edgeStart(current), end = graph.edgeEnd(current); e < end; e++) {
+                int neighbor = graph.getTarget(e);
+                if (settled[neighbor] == epoch) continue;
+                if (blocking && (isBlockedEdge(e) || isBlockedNode(neighbor))) continue;
+                if (allowedEdges != null && (allowedEdges[e >>> 6] & (1L << e)) == 0) continue;
+                
+                long estimate = heuristic == null ? 0 : heuristic.estimate(neighbor);
+                if (estimate == INFINITE) continue;
+                long distance = base + graph.getLatency(e);
+                if (distance > budget) continue;
+                relax(neighbor, current, e, distance, estimate);
+            }
+        }
+        
+        return UNREACHABLE;
+    }
+    
+    ShortestPathTree treeTo(GraphSnapshot graph, int target) {
+        int nodeCount = graph.getNodeCount();
+        long[] tree = new long[nodeCount];
+        int[] nextEdges = new int[nodeCount];
+        Arrays.fill(tree, INFINITE);
+        Arrays.fill(nextEdges, -1);
+        
+        heap.clear();
+        tree[target] = 0;
+        heap.insertOrDecrease(target, 0);
+        
+        while (!heap.isEmpty()) {
+            int current = heap.poll();
+            long base = tree[current];
+            for (int i = graph.inEdgeStart(current), end = graph.inEdgeEnd(current); i < end; i++) {
+                int previous = graph.getInSource(i);
+                int edge = graph.getInEdge(i);
+                long distance = base + graph.getLatency(edge);
+                if (distance < tree[previous]) {
+                    tree[previous] = distance;
+                    nextEdges[previous] = edge;
+                    heap.insertOrDecrease(previous, distance);
+                }
+            }
+        }
+        
+        return new ShortestPathTree(target, tree, nextEdges);
+    }
+    
+    int[] pathTo(int target) {
+        int length = 0;
+        for (int current = target; current != -1; current = parents[current]) {
+            length++;
+        }
+        
+        int[] path = new int[length];
+        for (int current = target, i = length - 1; current != -1; current = parents[current]) {
+            path[i--] = current;
+        }
+        return path;
+    }
+    
+    int[] edgesTo(int target) {
+        int[] nodes = pathTo(target);
+        int[] edges = new int[nodes.length - 1];
+        for (int i = 1; i < nodes.length; i++) {
+            edges[i - 1] = parentEdges[nodes[i]];
+        }
+        return edges;
+    }
+    
+    int getSettledCount() {
+        return settledCount;
+    }
+    
+    void blockNode(int node) {
+        blockedNodes[node >>> 6] |= 1L << node;
+        logBlock(node);
+    }
+    
+    void blockEdge(int edge) {
+        blockedEdges[edge >>> 6] |= 1L << edge;
+        logBlock(~edge);
+    }
+    
+    boolean isBlockedNode(int node) {
+        return (blockedNodes[node >>> 6] & (1L << node)) != 0;
+    }
+    
+    boolean isBlockedEdge(int edge) {
+        return (blockedEdges[edge >>> 6] & (1L << edge)) != 0;
+    }
+    
+    void clearBlocks() {
+        for (int i = 0; i < blockLogSize; i++) {
+            int entry = blockLog[i];
+            if (entry >= 0) {
+                blockedNodes[entry >>> 6] = 0;
+            } else {
+                blockedEdges[~entry >>> 6] = 0;
+            }
+        }
+        blockLogSize = 0;
+    }
+    
+    private void ensureCapacity(int nodeCount, int edgeCount) {
+        if (nodeCount > distances.length) {
+            int capacity = Math.max(nodeCount, distances.length + (distances.length >> 1));
+            heap = new IndexedMinHeap(capacity);
+            distances = new long[capacity];
+            parents = new int[capacity];
+            parentEdges = new int[capacity];
+            reached = new int[capacity];
+            settled = new int[capacity];
+            blockedNodes = new long[(capacity + 63) >>> 6];
+        }
+        int edgeWords = (edgeCount + 63) >>> 6;
+        if (edgeWords > blockedEdges.length) {
+            blockedEdges = new long[Math.max(edgeWords, blockedEdges.length + (blockedEdges.length >> 1))];
+        }
+    }
+    
+    private void logBlock(int entry) {
+        if (blockLogSize == blockLog.length) {
+            blockLog = Arrays.copyOf(blockLog, blockLogSize * 2);
+        }
+        blockLog[blockLogSize++] = entry;
+    }
+    
+    private void begin() {
+        epoch++;
+        if (epoch == 0) {
+            Arrays.fill(reached, 0);
+            Arrays.fill(settled, 0);
+            epoch = 1;
+        }
+        settledCount = 0;
+        heap.clear();
+    }
+    
+    private void relax(int node, int parent, int edge, long distance, long estimate) {
+        if (reached[node] == epoch && distances[node] <= distance) {
+            return;
+        }
+        reached[node] = epoch;
+        distances[node] = distance;
+        parents[node] = parent;
+        parentEdges[node] = edge;
+        heap.insertOrDecrease(node, distance + estimate);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,604 @@
+package com.netmap.graph;
+
+import com.netmap.core.domain.ConnectionType;
+import com.netmap.core.domain.Edge;
+import com.netmap.core.domain.Node;
+import com.netmap.core.domain.NodeType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+public final class MappedGraph {
+    
+    private static final int MAGIC = 0x4D474D4E;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 128;
+    private static final int WRITE_CHUNK = 1 << 20;
+    private static final NodeType[] NODE_TYPES = NodeType.values();
+    private static final ConnectionType[] CONNECTION_TYPES = ConnectionType.values();
+    
+    private static final int OUT_OFFSETS = 0;
+    private static final int TARGETS = 1;
+    private static final int LATENCIES = 2;
+    private static final int BANDWIDTHS = 3;
+    private static final int EDGE_TYPES = 4;
+    private static final int IN_OFFSETS = 5;
+    private static final int IN_SOURCES = 6;
+    private static final int IN_EDGES = 7;
+    private static final int NODE_TYPE_TABLE = 8;
+    private static final int STRING_OFFSETS = 9;
+    private static final int STRING_HEAP = 10;
+    private static final int ID_INDEX = 11;
+    private static final int SECTION_COUNT = 12;
+    private static final String CORRUPT = "Mapped graph file is corrupt";
+    
+    private final int nodeCount;
+    private final int edgeCount;
+    private final int indexMask;
+    private final IntBuffer outOffsets;
+    private final IntBuffer targets;
+    private final IntBuffer latencies;
+    private final IntBuffer bandwidths;
+    private final ByteBuffer edgeTypes;
+    private final IntBuffer inOffsets;
+    private final IntBuffer inSources;
+    private final IntBuffer inEdges;
+    private final ByteBuffer nodeTypes;
+    private final LongBuffer stringOffsets;
+    private final ByteBuffer strings;
+    private final IntBuffer idIndex;
+    private final ThreadLocal<SearchState> searches;
+    
+    private MappedGraph(FileChannel channel, ByteBuffer header) throws IOException {
+        this.nodeCount = header.getInt(8);
+        this.edgeCount = header.getInt(12);
+        int indexCapacity = header.getInt(16);
+        this.indexMask = indexCapacity - 1;
+        
+        long[] starts = new long[SECTION_COUNT + 1];
+        for (int i = 0; i <= SECTION_COUNT; i++) {
+            starts[i] = header.getLong(24 + 8 * i);
+        }
+        if (nodeCount < 0 || edgeCount < 0 || indexCapacity <= nodeCount || Integer.bitCount(indexCapacity) != 1
+                || starts[0] < HEADER_SIZE || starts[SECTION_COUNT] > channel.size()) {
+            throw new IOException(CORRUPT);
+        }
+        // The string heap length is only known from the offsets table, so it is checked in validate()
+        long[] lengths = sectionLengths(nodeCount, edgeCount, indexCapacity, 0);
+        for (int i = 0; i < SECTION_COUNT; i++) {
+            if (starts[i + 1] < starts[i] || starts[i + 1] - starts[i] < lengths[i]) {
+                throw new IOException(CORRUPT);
+            }
+        }
+        
+        // Each section is mapped on its own so no single mapping has to cover the whole file
+        this.outOffsets = map(channel, starts, OUT_OFFSETS).asIntBuffer();
+        this.targets = map(channel, starts, TARGETS).asIntBuffer();
+        this.latencies = map(channel, starts, LATENCIES).asIntBuffer();
+        this.bandwidths = map(channel, starts, BANDWIDTHS).asIntBuffer();
+        this.edgeTypes = map(channel, starts, EDGE_TYPES);
+        this.inOffsets = map(channel, starts, IN_OFFSETS).asIntBuffer();
+        this.inSources = map(channel, starts, IN_SOURCES).asIntBuffer();
+        this.inEdges = map(channel, starts, IN_EDGES).asIntBuffer();
+        this.nodeTypes = map(channel, starts, NODE_TYPE_TABLE);
+        this.stringOffsets = map(channel, starts, STRING_OFFSETS).asLongBuffer();
+        this.strings = map(channel, starts, STRING_HEAP);
+        this.idIndex = map(channel, starts, ID_INDEX).asIntBuffer();
+        this.searches = ThreadLocal.withInitial(() -> new SearchState(nodeCount));
+        validate();
+    }
+    
+    public static MappedGraph open(Path path) throws IOException {
+        Objects.requireNonNull(path, "Path cannot be null");
+        
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0) {
+                    throw new IOException("Not a mapped NetMap graph file");
+                }
+            }
+            if (header.getInt(0) != MAGIC) {
+                throw new IOException("Not a mapped NetMap graph file");
+            }
+            if (header.getInt(4) != FORMAT_VERSION) {
+                throw new IOException("Unsupported mapped graph version: " + header.getInt(4));
+            }
+            return new MappedGraph(channel, header);
+        }
+    }
+    
+    public static void write(GraphSnapshot graph, Path path) throws IOException {
+        Objects.requireNonNull(graph, "Graph cannot be null");
+        Objects.requireNonNull(path, "Path cannot be null");
+        
+        int nodes = graph.getNodeCount();
+        int edges = graph.getEdgeCount();
+        int capacity = Integer.highestOneBit(Math.max(1, nodes) * 2 - 1) << 1;
+        byte[][] encoded = new byte[3 * nodes][];
+        long heapSize = 0;
+        for (int node = 0; node < nodes; node++) {
+            Node current = graph.getNode(node);
+            encoded[3 * node] = current.getId().getBytes(StandardCharsets.UTF_8);
+            encoded[3 * node + 1] = current.getName().getBytes(StandardCharsets.UTF_8);
+            encoded[3 * node + 2] = current.getIpAddress().getBytes(StandardCharsets.UTF_8);
+            heapSize += encoded[3 * node].length + encoded[3 * node + 1].length + encoded[3 * node + 2].length;
+        }
+        
+        long[] lengths = sectionLengths(nodes, edges, capacity, heapSize);
+        
+        long[] starts = new long[SECTION_COUNT + 1];
+        starts[0] = HEADER_SIZE;
+        for (int i = 0; i < SECTION_COUNT; i++) {
+            starts[i + 1] = align(starts[i] + lengths[i]);
+        }
+        
+        int[] index = new int[capacity];
+        for (int node = 0; node < nodes; node++) {
+            int slot = mix(graph.getNodeId(node).hashCode()) & (capacity - 1);
+            while (index[slot] != 0) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            index[slot] = node + 1;
+        }
+        
+        // Readers may still have the old file mapped, so it is replaced whole rather than truncated under them
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                        StandardOpenOption.TRUNCATE_EXISTING)) {
+                SectionWriter out = new SectionWriter(channel);
+                out.putInt(MAGIC);
+                out.putInt(FORMAT_VERSION);
+                out.putInt(nodes);
+                out.putInt(edges);
+                out.putInt(capacity);
+                out.putInt(0);
+                for (long start : starts) {
+                    out.putLong(start);
+                }
+                
+                out.seek(starts[OUT_OFFSETS]);
+                for (int node = 0; node <= nodes; node++) {
+                    out.putInt(node == nodes ? edges : graph.edgeStart(node));
+                }
+                out.seek(starts[TARGETS]);
+                for (int e = 0; e < edges; e++) out.putInt(graph.getTarget(e));
+                out.seek(starts[LATENCIES]);
+                for (int e = 0; e < edges; e++) out.putInt(graph.getLatency(e));
+                out.seek(starts[BANDWIDTHS]);
+                for (int e = 0; e < edges; e++) out.putInt(graph.getBandwidth(e));
+                out.seek(starts[EDGE_TYPES]);
+                for (int e = 0; e < edges; e++) out.putByte(graph.getConnectionType(e).ordinal());
+                
+                out.seek(starts[IN_OFFSETS]);
+                int slots = 0;
+                for (int node = 0; node <= nodes; node++) {
+                    out.putInt(slots);
+                    if (node < nodes) slots += graph.getInDegree(node);
+                }
+                out.seek(starts[IN_SOURCES]);
+                for (int node = 0; node < nodes; node++) {
+                    for (int i = graph.inEdgeStart(node), end = graph.inEdgeEnd(node); i < end; i++) {
+                        out.putInt(graph.getInSource(i));
+                    }
+                }
+                out.seek(starts[IN_EDGES]);
+                for (int node = 0; node < nodes; node++) {
+                    for (int i = graph.inEdgeStart(node), end = graph.inEdgeEnd(node); i < end; i++) {
+                        out.putInt(graph.getInEdge(i));
+                    }
+                }
+                
+                out.seek(starts[NODE_TYPE_TABLE]);
+                for (int node = 0; node < nodes; node++) out.putByte(graph.getNode(node).getType().ordinal());
+                out.seek(starts[STRING_OFFSETS]);
+                long offset = 0;
+                for (byte[] value : encoded) {
+                    out.putLong(offset);
+                    offset += value.length;
+                }
+                out.putLong(offset);
+                out.seek(starts[STRING_HEAP]);
+                for (byte[] value : encoded) out.putBytes(value);
+                out.seek(starts[ID_INDEX]);
+                for (int slot : index) out.putInt(slot);
+                out.seek(starts[SECTION_COUNT]);
+                out.flush();
+                channel.force(false);
+            }
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+    
+    public int getNodeCount() {
+        return nodeCount;
+    }
+    
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+    
+    public int indexOf(String nodeId) {
+        byte[] key = nodeId.getBytes(StandardCharsets.UTF_8);
+        int slot = mix(nodeId.hashCode()) & indexMask;
+        for (int entry = idIndex.get(slot); entry != 0; entry = idIndex.get(slot)) {
+            if (stringEquals(3 * (entry - 1), key)) {
+                return entry - 1;
+            }
+            slot = (slot + 1) & indexMask;
+        }
+        return -1;
+    }
+    
+    public String getNodeId(int node) {
+        return string(3 * node);
+    }
+    
+    public Node getNode(int node) {
+        return Node.builder()
+            .id(string(3 * node))
+            .name(string(3 * node + 1))
+            .ipAddress(string(3 * node + 2))
+            .type(NODE_TYPES[nodeTypes.get(node)])
+            .build();
+    }
+    
+    public Optional<Node> getNode(String nodeId) {
+        int node = indexOf(nodeId);
+        return node < 0 ? Optional.empty() : Optional.of(getNode(node));
+    }
+    
+    public int getOutDegree(int node) {
+        return outOffsets.get(node + 1) - outOffsets.get(node);
+    }
+    
+    public int getInDegree(int node) {
+        return inOffsets.get(node + 1) - inOffsets.get(node);
+    }
+    
+    public List<Edge> getEdges(String nodeId) {
+        int node = indexOf(nodeId);
+        if (node < 0) {
+            return Collections.emptyList();
+        }
+        
+        List<Edge> result = new ArrayList<>(getOutDegree(node));
+        for (int e = outOffsets.get(node), end = outOffsets.get(node + 1); e < end; e++) {
+            result.add(toEdge(nodeId, e));
+        }
+        return result;
+    }
+    
+    public List<Edge> getIncomingEdges(String nodeId) {
+        int node = indexOf(nodeId);
+        if (node < 0) {
+            return Collections.emptyList();
+        }
+        
+        List<Edge> result = new ArrayList<>(getInDegree(node));
+        for (int i = inOffsets.get(node), end = inOffsets.get(node + 1); i < end; i++) {
+            result.add(toEdge(getNodeId(inSources.get(i)), inEdges.get(i)));
+        }
+        return result;
+    }
+    
+    public boolean hasPath(String sourceId, String targetId) {
+        int source = indexOf(sourceId);
+        int target = indexOf(targetId);
+        return source >= 0 && target >= 0 && breadthFirst(source, target);
+    }
+    
+    public List<String> findShortestPath(String sourceId, String targetId) {
+        int source = indexOf(sourceId);
+        int target = indexOf(targetId);
+        if (source < 0 || target < 0 || !breadthFirst(source, target)) {
+            return Collections.emptyList();
+        }
+        
+        SearchState state = searches.get();
+        List<String> path = new ArrayList<>();
+        for (int current = target; current != -1; current = state.parents[current]) {
+            path.add(getNodeId(current));
+        }
+        Collections.reverse(path);
+        return path;
+    }
+    
+    public Optional<WeightedPath> findLowestLatencyPath(String sourceId, String targetId) {
+        int source = indexOf(sourceId);
+        int target = indexOf(targetId);
+        if (source < 0 || target < 0) {
+            return Optional.empty();
+        }
+        
+        SearchState state = searches.get();
+        state.begin();
+        state.reach(source, -1, -1, 0);
+        while (!state.heap.isEmpty()) {
+            int current = state.heap.poll();
+            if (current == target) {
+                return Optional.of(toWeightedPath(state, source, target));
+            }
+            
+            long base = state.distances[current];
+            for (int e = outOffsets.get(current), end = outOffsets.get(current + 1); e < end; e++) {
+                int neighbor = targets.get(e);
+                long distance = base + latencies.get(e);
+                if (state.marks[neighbor] != state.epoch || distance < state.distances[neighbor]) {
+                    state.reach(neighbor, current, e, distance);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+    
+    private boolean breadthFirst(int source, int target) {
+        SearchState state = searches.get();
+        state.begin();
+        int[] queue = state.queue;
+        int head = 0;
+        int tail = 0;
+        
+        queue[tail++] = source;
+        state.marks[source] = state.epoch;
+        state.parents[source] = -1;
+        while (head < tail) {
+            int current = queue[head++];
+            if (current == target) {
+                return true;
+            }
+            for (int e = outOffsets.get(current), end = outOffsets.get(current + 1); e < end; e++) {
+                int neighbor = targets.get(e);
+                if (state.marks[neighbor] != state.epoch) {
+                    state.marks[neighbor] = state.epoch;
+                    state.parents[neighbor] = current;
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+        return false;
+    }
+    
+    private WeightedPath toWeightedPath(SearchState state, int source, int target) {
+        List<String> nodeIds = new ArrayList<>();
+        List<Edge> pathEdges = new ArrayList<>();
+        for (int current = target; current != source; current = state.parents[current]) {
+            nodeIds.add(getNodeId(current));
+            pathEdges.add(toEdge(getNodeId(state.parents[current]), state.parentEdges[current]));
+        }
+        nodeIds.add(getNodeId(source));
+        Collections.reverse(nodeIds);
+        Collections.reverse(pathEdges);
+        return new WeightedPath(nodeIds, pathEdges, state.distances[target]);
+    }
+    
+    private Edge toEdge(String sourceId, int edge) {
+        return Edge.builder()
+            .sourceId(sourceId)
+            .targetId(getNodeId(targets.get(edge)))
+            .bandwidth(bandwidths.get(edge))
+            .latency(latencies.get(edge))
+            .connectionType(CONNECTION_TYPES[edgeTypes.get(edge)])
+            .build();
+    }
+    
+    private String string(int entry) {
+        int start = (int) stringOffsets.get(entry);
+        int length = (int) (stringOffsets.get(entry + 1) - start);
+        byte[] bytes = new byte[length];
+        strings.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    private boolean stringEquals(int entry, byte[] key) {
+        int start = (int) stringOffsets.get(entry);
+        if (stringOffsets.get(entry + 1) - start != key.length) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (strings.get(start + i) != key[i]) return false;
+        }
+        return true;
+    }
+    
+    // Everything a query indexes by is checked once here, so a damaged file fails to open instead of mid-query
+    private void validate() throws IOException {
+        checkOffsets(outOffsets, nodeCount + 1, edgeCount);
+        checkOffsets(inOffsets, nodeCount + 1, edgeCount);
+        checkOffsets(stringOffsets, 3 * nodeCount + 1, strings.capacity());
+        for (int e = 0; e < edgeCount; e++) {
+            if (targets.get(e) < 0 || targets.get(e) >= nodeCount || latencies.get(e) < 0 || bandwidths.get(e) <= 0
+                    || edgeTypes.get(e) < 0 || edgeTypes.get(e) >= CONNECTION_TYPES.length
+                    || inSources.get(e) < 0 || inSources.get(e) >= nodeCount
+                    || inEdges.get(e) < 0 || inEdges.get(e) >= edgeCount) {
+                throw new IOException(CORRUPT);
+            }
+        }
+        for (int node = 0; node < nodeCount; node++) {
+            if (nodeTypes.get(node) < 0 || nodeTypes.get(node) >= NODE_TYPES.length) {
+                throw new IOException(CORRUPT);
+            }
+        }
+        // indexOf probes until it meets an empty slot, so a full table would never terminate
+        int used = 0;
+        for (int slot = 0; slot <= indexMask; slot++) {
+            if (idIndex.get(slot) < 0 || idIndex.get(slot) > nodeCount) {
+                throw new IOException(CORRUPT);
+            }
+            if (idIndex.get(slot) != 0) used++;
+        }
+        if (used > nodeCount) {
+            throw new IOException(CORRUPT);
+        }
+    }
+    
+    private static void checkOffsets(IntBuffer offsets, int count, int limit) throws IOException {
+        if (offsets.get(0) != 0 || offsets.get(count - 1) != limit) {
+            throw new IOException(CORRUPT);
+        }
+        for (int i = 1; i < count; i++) {
+            if (offsets.get(i) < offsets.get(i - 1)) {
+                throw new IOException(CORRUPT);
+            }
+        }
+    }
+    
+    private static void checkOffsets(LongBuffer offsets, int count, long limit) throws IOException {
+        if (offsets.get(0) != 0 || offsets.get(count - 1) > limit) {
+            throw new IOException(CORRUPT);
+        }
+        for (int i = 1; i < count; i++) {
+            if (offsets.get(i) < offsets.get(i - 1)) {
+                throw new IOException(CORRUPT);
+            }
+        }
+    }
+    
+    private static long[] sectionLengths(int nodes, int edges, int capacity, long heapSize) {
+        long[] lengths = new long[SECTION_COUNT];
+        lengths[OUT_OFFSETS] = 4L * (nodes + 1);
+        lengths[TARGETS] = 4L * edges;
+        lengths[LATENCIES] = 4L * edges;
+        lengths[BANDWIDTHS] = 4L * edges;
+        lengths[EDGE_TYPES] = edges;
+        lengths[IN_OFFSETS] = 4L * (nodes + 1);
+        lengths[IN_SOURCES] = 4L * edges;
+        lengths[IN_EDGES] = 4L * edges;
+        lengths[NODE_TYPE_TABLE] = nodes;
+        lengths[STRING_OFFSETS] = 8L * (3L * nodes + 1);
+        lengths[STRING_HEAP] = heapSize;
+        lengths[ID_INDEX] = 4L * capacity;
+        return lengths;
+    }
+    
+    private static MappedByteBuffer map(FileChannel channel, long[] starts, int section) throws IOException {
+        MappedByteBuffer buffer;
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, starts[section], starts[section + 1] - starts[section]);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(CORRUPT, e);
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+    
+    private static long align(long offset) {
+        return (offset + 7) & ~7L;
+    }
+    
+    private static int mix(int hash) {
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+    
+    private static final class SearchState {
+        private final IndexedMinHeap heap;
+        private final long[] distances;
+        private final int[] parents;
+        private final int[] parentEdges;
+        private final int[] marks;
+        private final int[] queue;
+        private int epoch;
+        
+        SearchState(int nodeCount) {
+            this.heap = new IndexedMinHeap(nodeCount);
+            this.distances = new long[nodeCount];
+            this.parents = new int[nodeCount];
+            this.parentEdges = new int[nodeCount];
+            this.marks = new int[nodeCount];
+            this.queue = new int[nodeCount];
+        }
+        
+        void begin() {
+            epoch++;
+            if (epoch == 0) {
+                Arrays.fill(marks, 0);
+                epoch = 1;
+            }
+            heap.clear();
+        }
+        
+        void reach(int node, int parent, int edge, long distance) {
+            marks[node] = epoch;
+            distances[node] = distance;
+            parents[node] = parent;
+            parentEdges[node] = edge;
+            heap.insertOrDecrease(node, distance);
+        }
+    }
+    
+    private static final class SectionWriter {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private long position;
+        
+        SectionWriter(FileChannel channel) {
+            this.channel = channel;
+            this.buffer = ByteBuffer.allocate(WRITE_CHUNK).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        
+        void putByte(int value) throws IOException {
+            ensure(1);
+            buffer.put((byte) value);
+        }
+        
+        void putInt(int value) throws IOException {
+            ensure(4);
+            buffer.putInt(value);
+        }
+        
+        void putLong(long value) throws IOException {
+            ensure(8);
+            buffer.putLong(value);
+        }
+        
+        void putBytes(byte[] bytes) throws IOException {
+            for (int offset = 0; offset < bytes.length; ) {
+                ensure(1);
+                int chunk = Math.min(bytes.length - offset, buffer.remaining());
+                buffer.put(bytes, offset, chunk);
+                offset += chunk;
+            }
+        }
+        
+        void seek(long offset) throws IOException {
+            while (position + buffer.position() < offset) {
+                putByte(0);
+            }
+        }
+        
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer);
+            }
+            buffer.clear();
+        }
+        
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+    }
+}
\ No newline at end of file
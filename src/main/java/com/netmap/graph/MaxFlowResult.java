@@ -0,0 +1,42 @@
+package com.netmap.graph;
+
+import com.netmap.core.domain.Edge;
+
+import java.util.List;
+
+public final class MaxFlowResult {
+    
+    private final String sourceId;
+    private final String targetId;
+    private final long maxFlow;
+    private final List<Edge> minCut;
+    
+    MaxFlowResult(String sourceId, String targetId, long maxFlow, List<Edge> minCut) {
+        this.sourceId = sourceId;
+        this.targetId = targetId;
+        this.maxFlow = maxFlow;
+        this.minCut = List.copyOf(minCut);
+    }
+    
+    public String getSourceId() {
+        return sourceId;
+    }
+    
+    public String getTargetId() {
+        return targetId;
+    }
+    
+    public long getMaxFlow() {
+        return maxFlow;
+    }
+    
+    public List<Edge> getMinCut() {
+        return minCut;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("MaxFlow[%s -> %s, %dMbps, %d cut links]",
+            sourceId, targetId, maxFlow, minCut.size());
+    }
+}
\ No newline at end of file
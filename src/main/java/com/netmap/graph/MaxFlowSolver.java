@@ -0,0 +1,156 @@
+package com.netmap.graph;
+
+import com.netmap.core.domain.Edge;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public final class MaxFlowSolver {
+    
+    private final GraphSnapshot graph;
+    private final int[] arcOffsets;
+    private final int[] arcTargets;
+    private final int[] arcReverse;
+    private final int[] arcEdges;
+    private final long[] capacities;
+    
+    MaxFlowSolver(GraphSnapshot graph) {
+        int nodeCount = graph.getNodeCount();
+        int arcCount = 2 * graph.getEdgeCount();
+        
+        this.graph = graph;
+        this.arcOffsets = new int[nodeCount + 1];
+        this.arcTargets = new int[arcCount];
+        this.arcReverse = new int[arcCount];
+        this.arcEdges = new int[arcCount];
+        this.capacities = new long[arcCount];
+        
+        for (int node = 0; node < nodeCount; node++) {
+            arcOffsets[node + 1] = arcOffsets[node] + graph.getOutDegree(node) + graph.getInDegree(node);
+        }
+        
+        // Every edge becomes a forward arc at its source and a zero-capacity residual arc at its target
+        int[] cursor = Arrays.copyOf(arcOffsets, nodeCount);
+        for (int node = 0; node < nodeCount; node++) {
+            for (int e = graph.edgeStart(node), end = graph.edgeEnd(node); e < end; e++) {
+                int target = graph.getTarget(e);
+                int forward = cursor[node]++;
+                int backward = cursor[target]++;
+                
+                arcTargets[forward] = target;
+                arcEdges[forward] = e;
+                capacities[forward] = graph.getBandwidth(e);
+                arcReverse[forward] = backward;
+                
+                arcTargets[backward] = node;
+                arcEdges[backward] = -1;
+                arcReverse[backward] = forward;
+            }
+        }
+    }
+    
+    public MaxFlowResult solve(int source, int target) {
+        if (source == target) {
+            throw new IllegalArgumentException("Source and target must differ");
+        }
+        
+        int nodeCount = graph.getNodeCount();
+        long[] residual = capacities.clone();
+        int[] levels = new int[nodeCount];
+        int[] current = new int[nodeCount];
+        int[] queue = new int[nodeCount];
+        int[] path = new int[nodeCount];
+        
+        long maxFlow = 0;
+        while (buildLevels(source, target, residual, levels, queue)) {
+            System.arraycopy(arcOffsets, 0, current, 0, nodeCount);
+            maxFlow += blockingFlow(source, target, residual, levels, current, path);
+        }
+        
+        List<Edge> minCut = new ArrayList<>();
+        for (int node = 0; node < nodeCount; node++) {
+            if (levels[node] < 0) continue;
+            for (int a = arcOffsets[node]; a < arcOffsets[node + 1]; a++) {
+                if (arcEdges[a] >= 0 && levels[arcTargets[a]] < 0) {
+                    minCut.add(graph.getEdge(arcEdges[a]));
+                }
+            }
+        }
+        
+        return new MaxFlowResult(graph.getNodeId(source), graph.getNodeId(target), maxFlow, minCut);
+    }
+    
+    private boolean buildLevels(int source, int target, long[] residual, int[] levels, int[] queue) {
+        Arrays.fill(levels, -1);
+        levels[source] = 0;
+        queue[0] = source;
+        int head = 0;
+        int tail = 1;
+        
+        while (head < tail) {
+            int node = queue[head++];
+            for (int a = arcOffsets[node]; a < arcOffsets[node + 1]; a++) {
+                int next = arcTargets[a];
+                if (residual[a] > 0 && levels[next] < 0) {
+                    levels[next] = levels[node] + 1;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        
+        return levels[target] >= 0;
+    }
+    
+    private long blockingFlow(int source, int target, long[] residual, int[] levels, int[] current, int[] path) {
+        long total = 0;
+        int depth = 0;
+        int node = source;
+        
+        while (true) {
+            if (node == target) {
+                long flow = Long.MAX_VALUE;
+                for (int i = 0; i < depth; i++) {
+                    flow = Math.min(flow, residual[path[i]]);
+                }
+                
+                int retreat = depth;
+                for (int i = 0; i < depth; i++) {
+                    int arc = path[i];
+                    residual[arc] -= flow;
+                    residual[arcReverse[arc]] += flow;
+                    if (residual[arc] == 0 && retreat == depth) {
+                        retreat = i;
+                    }
+                }
+                
+                total += flow;
+                depth = retreat;
+                node = depth == 0 ? source : arcTargets[path[depth - 1]];
+                continue;
+            }
+            
+            boolean advanced = false;
+            for (int end = arcOffsets[node + 1]; current[node] < end; current[node]++) {
+                int arc = current[node];
+                int next = arcTargets[arc];
+                if (residual[arc] > 0 && levels[next] == levels[node] + 1) {
+                    path[depth++] = arc;
+                    node = next;
+                    advanced = true;
+                    break;
+                }
+            }
+            
+            if (!advanced) {
+                if (depth == 0) {
+                    return total;
+                }
+                levels[node] = -2;
+                depth--;
+                node = depth == 0 ? source : arcTargets[path[depth - 1]];
+                current[node]++;
+            }
+        }
+    }
+}
\ No newline at end of file
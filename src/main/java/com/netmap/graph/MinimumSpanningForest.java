@@ -0,0 +1,165 @@
+package com.netmap.graph;
+
+import com.netmap.core.domain.Edge;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+public final class MinimumSpanningForest {
+    
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+    
+    private static final long NONE = Long.MAX_VALUE;
+    private static final long EDGE_MASK = 0xFFFFFFFFL;
+    
+    private final GraphSnapshot graph;
+    
+    public MinimumSpanningForest(GraphSnapshot graph) {
+        this.graph = Objects.requireNonNull(graph, "Graph cannot be null");
+    }
+    
+    public SpanningForest compute(SpanningCriterion criterion) {
+        // Boruvka does more total work than a sort, so it only pays off with large graphs and spare cores
+        boolean parallel = graph.getEdgeCount() >= PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1;
+        return parallel ? computeBoruvka(criterion) : computeKruskal(criterion);
+    }
+    
+    public SpanningForest computeKruskal(SpanningCriterion criterion) {
+        Objects.requireNonNull(criterion, "Criterion cannot be null");
+        int nodeCount = graph.getNodeCount();
+        int[] sources = edgeSources();
+        long[] keys = new long[graph.getEdgeCount()];
+        for (int e = 0; e < keys.length; e++) {
+            keys[e] = key(criterion, e);
+        }
+        Arrays.sort(keys);
+        
+        UnionFind forest = new UnionFind(nodeCount);
+        for (int node = 0; node < nodeCount; node++) {
+            forest.add();
+        }
+        
+        int[] selected = new int[Math.max(0, nodeCount - 1)];
+        int count = 0;
+        for (int i = 0; i < keys.length && count < selected.length; i++) {
+            int edge = (int) (keys[i] & EDGE_MASK);
+            if (forest.union(sources[edge], graph.getTarget(edge))) {
+                selected[count++] = edge;
+            }
+        }
+        return toForest(criterion, selected, count);
+    }
+    
+    public SpanningForest computeBoruvka(SpanningCriterion criterion) {
+        Objects.requireNonNull(criterion, "Criterion cannot be null");
+        int nodeCount = graph.getNodeCount();
+        int[] sources = edgeSources();
+        long[] keys = new long[graph.getEdgeCount()];
+        IntStream.range(0, keys.length).parallel().forEach(e -> keys[e] = key(criterion, e));
+        
+        int[] labels = new int[nodeCount];
+        int[] parents = new int[nodeCount];
+        int[] sizes = new int[nodeCount];
+        Arrays.setAll(labels, node -> node);
+        Arrays.setAll(parents, node -> node);
+        Arrays.fill(sizes, 1);
+        
+        AtomicLongArray best = new AtomicLongArray(nodeCount);
+        int[] selected = new int[Math.max(0, nodeCount - 1)];
+        int count = 0;
+        int[] active = IntStream.range(0, keys.length).parallel()
+            .filter(e -> sources[e] != graph.getTarget(e))
+            .toArray();
+        
+        while (active.length > 0) {
+            int[] edges = active;
+            IntStream.range(0, nodeCount).parallel().forEach(node -> best.set(node, NONE));
+            
+            // Keys are unique (edge index in the low bits), so the lightest edges of all components form a forest
+            IntStream.range(0, edges.length).parallel().forEach(i -> {
+                int edge = edges[i];
+                int first = labels[sources[edge]];
+                int second = labels[graph.getTarget(edge)];
+                if (first != second) {
+                    lowerTo(best, first, keys[edge]);
+                    lowerTo(best, second, keys[edge]);
+                }
+            });
+            
+            for (int component = 0; component < nodeCount; component++) {
+                long candidate = best.get(component);
+                if (labels[component] != component || candidate == NONE) continue;
+                
+                int edge = (int) (candidate & EDGE_MASK);
+                if (union(parents, sizes, labels[sources[edge]], labels[graph.getTarget(edge)])) {
+                    selected[count++] = edge;
+                }
+            }
+            
+            IntStream.range(0, nodeCount).parallel().forEach(node -> labels[node] = root(parents, labels[node]));
+            active = Arrays.stream(edges).parallel()
+                .filter(e -> labels[sources[e]] != labels[graph.getTarget(e)])
+                .toArray();
+        }
+        return toForest(criterion, selected, count);
+    }
+    
+    private int[] edgeSources() {
+        int[] sources = new int[graph.getEdgeCount()];
+        IntStream.range(0, graph.getNodeCount()).parallel().forEach(node ->
+            Arrays.fill(sources, graph.edgeStart(node), graph.edgeEnd(node), node));
+        return sources;
+    }
+    
+    private long key(SpanningCriterion criterion, int edge) {
+        long weight = criterion == SpanningCriterion.MIN_LATENCY
+            ? graph.getLatency(edge)
+            : Integer.MAX_VALUE - graph.getBandwidth(edge);
+        return (weight << 32) | edge;
+    }
+    
+    private static void lowerTo(AtomicLongArray best, int component, long key) {
+        long current = best.get(component);
+        while (key < current && !best.compareAndSet(component, current, key)) {
+            current = best.get(component);
+        }
+    }
+    
+    private static int root(int[] parents, int node) {
+        while (parents[node] != node) {
+            node = parents[node];
+        }
+        return node;
+    }
+    
+    private static boolean union(int[] parents, int[] sizes, int first, int second) {
+        int rootFirst = root(parents, first);
+        int rootSecond = root(parents, second);
+        if (rootFirst == rootSecond) return false;
+        
+        if (sizes[rootFirst] < sizes[rootSecond]) {
+            int swap = rootFirst;
+            rootFirst = rootSecond;
+            rootSecond = swap;
+        }
+        parents[rootSecond] = rootFirst;
+        sizes[rootFirst] += sizes[rootSecond];
+        return true;
+    }
+    
+    private SpanningForest toForest(SpanningCriterion criterion, int[] selected, int count) {
+        List<Edge> edges = new ArrayList<>(count);
+        long cost = 0;
+        for (int i = 0; i < count; i++) {
+            int edge = selected[i];
+            edges.add(graph.getEdge(edge));
+            cost += criterion == SpanningCriterion.MIN_LATENCY ? graph.getLatency(edge) : graph.getBandwidth(edge);
+        }
+        return new SpanningForest(criterion, edges, cost, graph.getNodeCount() - count);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,78 @@
+package com.netmap.graph;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+final class NeighborhoodCursor implements PrimitiveIterator.OfInt {
+    
+    private final GraphSnapshot graph;
+    private final int hops;
+    private final BitSet discovered;
+    private int[] queue;
+    private int tail;
+    private int emitted;
+    private int head;
+    private int levelEnd;
+    private int depth;
+    private int edgeCursor;
+    private int inCursor;
+    
+    NeighborhoodCursor(GraphSnapshot graph, int source, int hops) {
+        this.graph = graph;
+        this.hops = hops;
+        this.discovered = new BitSet();
+        this.queue = new int[16];
+        discovered.set(source);
+        queue[tail++] = source;
+        this.levelEnd = tail;
+        this.edgeCursor = graph.edgeStart(source);
+        this.inCursor = graph.inEdgeStart(source);
+    }
+    
+    @Override
+    public boolean hasNext() {
+        // Expansion is lazy: a hub's edges are only scanned until the next unseen neighbour turns up
+        while (emitted == tail && head < tail && depth < hops) {
+            expandOne();
+        }
+        return emitted < tail;
+    }
+    
+    @Override
+    public int nextInt() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return queue[emitted++];
+    }
+    
+    private void expandOne() {
+        int node = queue[head];
+        if (edgeCursor < graph.edgeEnd(node)) {
+            discover(graph.getTarget(edgeCursor++));
+        } else if (inCursor < graph.inEdgeEnd(node)) {
+            discover(graph.getInSource(inCursor++));
+        } else {
+            head++;
+            if (head == levelEnd) {
+                depth++;
+                levelEnd = tail;
+            }
+            if (head < tail) {
+                edgeCursor = graph.edgeStart(queue[head]);
+                inCursor = graph.inEdgeStart(queue[head]);
+            }
+        }
+    }
+    
+    private void discover(int node) {
+        if (discovered.get(node)) return;
+        discovered.set(node);
+        if (tail == queue.length) {
+            queue = Arrays.copyOf(queue, tail * 2);
+        }
+        queue[tail++] = node;
+    }
+}
\ No newline at end of file
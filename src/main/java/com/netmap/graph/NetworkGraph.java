@@ -1,40 +1,192 @@
 package com.netmap.graph;
 
+import com.netmap.core.domain.ConnectionType;
 import com.netmap.core.domain.Edge;
 import com.netmap.core.domain.Node;
+import com.netmap.core.domain.NodeType;
+import com.netmap.regex.NetworkValidator;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamException;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.IntSupplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class NetworkGraph implements Serializable {
     
     private static final long serialVersionUID = 1L;
+    private static final int OPTIMISTIC_READ_ATTEMPTS = 3;
+    
+    // The stream keeps the original two-map layout, so graphs saved before the concurrent rewrite still load;
+    // every derived index is rebuilt on read
+    private static final ObjectStreamField[] serialPersistentFields = {
+        new ObjectStreamField("nodes", Map.class),
+        new ObjectStreamField("adjacencyList", Map.class),
+        new ObjectStreamField("subnets", Map.class)
+    };
     
     private final Map<String, Node> nodes;
     private final Map<String, List<Edge>> adjacencyList;
+    private final Map<String, List<Edge>> incomingEdges;
+    private final Map<String, Integer> componentIndex;
+    private final UnionFind components;
+    private final transient StampedLock lock;
+    private volatile Ipv4PrefixTrie addressIndex;
+    private volatile int edgeCount;
+    private volatile long version;
+    private transient volatile GraphSnapshot snapshot;
+    private final transient ReentrantLock buildLock;
+    private transient SerializedForm restored;
     
     public NetworkGraph() {
-        this.nodes = new HashMap<>();
-        this.adjacencyList = new HashMap<>();
+        this.nodes = new ConcurrentHashMap<>();
+        this.adjacencyList = new ConcurrentHashMap<>();
+        this.incomingEdges = new ConcurrentHashMap<>();
+        this.componentIndex = new HashMap<>();
+        this.components = new UnionFind();
+        this.addressIndex = Ipv4PrefixTrie.empty();
+        this.lock = new StampedLock();
+        this.buildLock = new ReentrantLock();
     }
     
     public void addNode(Node node) {
         Objects.requireNonNull(node, "Node cannot be null");
-        nodes.put(node.getId(), node);
-        adjacencyList.putIfAbsent(node.getId(), new ArrayList<>());
+        
+        long stamp = lock.writeLock();
+        try {
+            putNode(node);
+            version++;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
     }
     
     public void addEdge(Edge edge) {
         Objects.requireNonNull(edge, "Edge cannot be null");
         
-        if (!nodes.containsKey(edge.getSourceId())) {
-            throw new IllegalArgumentException("Source node not found: " + edge.getSourceId());
+        long stamp = lock.writeLock();
+        try {
+            validateEdge(edge, Collections.emptySet());
+            adjacencyList.get(edge.getSourceId()).add(edge);
+            incomingEdges.get(edge.getTargetId()).add(edge);
+            joinComponents(edge);
+            edgeCount++;
+            version++;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    
+    public GraphBatch newBatch() {
+        return new GraphBatch(this);
+    }
+    
+    long apply(GraphBatch batch) {
+        long stamp = lock.writeLock();
+        try {
+            Set<String> pendingIds = new HashSet<>();
+            for (Node node : batch.getNodes()) {
+                pendingIds.add(node.getId());
+            }
+            // Each distinct endpoint is validated and resolved once; bulk loaders emit edges
+            // grouped by source, so a run of one source costs a single lookup
+            List<Edge> edges = batch.getEdges();
+            Map<String, PendingEndpoint> targets = new HashMap<>();
+            PendingEndpoint[] targetOf = new PendingEndpoint[edges.size()];
+            String checkedSource = null;
+            for (int i = 0; i < edges.size(); i++) {
+                Edge edge = edges.get(i);
+                if (!edge.getSourceId().equals(checkedSource)) {
+                    requireNode(edge.getSourceId(), pendingIds, "Source");
+                    checkedSource = edge.getSourceId();
+                }
+                PendingEndpoint target = targets.get(edge.getTargetId());
+                if (target == null) {
+                    requireNode(edge.getTargetId(), pendingIds, "Target");
+                    target = new PendingEndpoint();
+                    targets.put(edge.getTargetId(), target);
+                }
+                target.edges.add(edge);
+                targetOf[i] = target;
+            }
+            
+            for (Node node : batch.getNodes()) {
+                putNode(node);
+            }
+            
+            targets.forEach((targetId, target) -> {
+                target.component = componentIndex.get(targetId);
+                incomingEdges.get(targetId).addAll(target.edges);
+            });
+            Map<String, List<Edge>> edgesBySource = new HashMap<>();
+            String runSource = null;
+            List<Edge> run = null;
+            int runComponent = -1;
+            for (int i = 0; i < edges.size(); i++) {
+                Edge edge = edges.get(i);
+                if (!edge.getSourceId().equals(runSource)) {
+                    runSource = edge.getSourceId();
+                    run = edgesBySource.computeIfAbsent(runSource, id -> new ArrayList<>());
+                    runComponent = componentIndex.get(runSource);
+                }
+                run.add(edge);
+                components.union(runComponent, targetOf[i].component);
+            }
+            edgesBySource.forEach((sourceId, sourceEdges) -> adjacencyList.get(sourceId).addAll(sourceEdges));
+            edgeCount += edges.size();
+            
+            return ++version;
+        } finally {
+            lock.unlockWrite(stamp);
         }
-        if (!nodes.containsKey(edge.getTargetId())) {
-            throw new IllegalArgumentException("Target node not found: " + edge.getTargetId());
+    }
+    
+    private void putNode(Node node) {
+        Node previous = nodes.put(node.getId(), node);
+        indexAddress(previous, node);
+        adjacencyList.putIfAbsent(node.getId(), new CopyOnWriteArrayList<>());
+        incomingEdges.putIfAbsent(node.getId(), new CopyOnWriteArrayList<>());
+        componentIndex.computeIfAbsent(node.getId(), id -> components.add());
+    }
+    
+    private void indexAddress(Node previous, Node node) {
+        Ipv4PrefixTrie index = addressIndex;
+        if (previous != null) {
+            long address = NetworkValidator.packIPv4(previous.getIpAddress());
+            if (address >= 0) {
+                index = index.without((int) address, 32, previous.getId());
+            }
+        }
+        long address = NetworkValidator.packIPv4(node.getIpAddress());
+        if (address >= 0) {
+            index = index.with((int) address, 32, node.getId());
+        }
+        addressIndex = index;
+    }
+    
+    private void joinComponents(Edge edge) {
+        components.union(componentIndex.get(edge.getSourceId()), componentIndex.get(edge.getTargetId()));
+    }
+    
+    private void validateEdge(Edge edge, Set<String> pendingIds) {
+        requireNode(edge.getSourceId(), pendingIds, "Source");
+        requireNode(edge.getTargetId(), pendingIds, "Target");
+    }
+    
+    private void requireNode(String nodeId, Set<String> pendingIds, String role) {
+        if (!nodes.containsKey(nodeId) && !pendingIds.contains(nodeId)) {
+            throw new IllegalArgumentException(role + " node not found: " + nodeId);
         }
-        
-        adjacencyList.get(edge.getSourceId()).add(edge);
     }
     
     public Optional<Node> getNode(String nodeId) {
@@ -53,10 +205,32 @@ public class NetworkGraph implements Serializable {
         return nodes.size();
     }
     
+    public Iterable<Node> nodesOfType(NodeType type) {
+        return snapshot().getTypeIndex().nodesOfType(type);
+    }
+    
+    public Iterable<Edge> edgesOfType(ConnectionType type) {
+        return snapshot().getTypeIndex().edgesOfType(type);
+    }
+    
+    public int countNodesOfType(NodeType type) {
+        return snapshot().getTypeIndex().countNodes(type);
+    }
+    
+    public int countEdgesOfType(ConnectionType type) {
+        return snapshot().getTypeIndex().countEdges(type);
+    }
+    
     public int getEdgeCount() {
-        return adjacencyList.values().stream()
-            .mapToInt(List::size)
-            .sum();
+        return edgeCount;
+    }
+    
+    public List<Edge> getIncomingEdges(String nodeId) {
+        return new ArrayList<>(incomingEdges.getOrDefault(nodeId, Collections.emptyList()));
+    }
+    
+    public int getInDegree(String nodeId) {
+        return incomingEdges.getOrDefault(nodeId, Collections.emptyList()).size();
     }
     
     public List<Node> getNeighbors(String nodeId) {
@@ -74,71 +248,451 @@ public class NetworkGraph implements Serializable {
     }
     
     public boolean hasPath(String sourceId, String targetId) {
-        if (!nodes.containsKey(sourceId) || !nodes.containsKey(targetId)) {
+        GraphSnapshot current = snapshot();
+        int source = current.indexOf(sourceId);
+        int target = current.indexOf(targetId);
+        
+        if (source < 0 || target < 0) {
             return false;
         }
         
-        Set<String> visited = new HashSet<>();
-        return dfsHasPath(sourceId, targetId, visited);
+        return current.hasPath(source, target);
     }
     
-    private boolean dfsHasPath(String current, String target, Set<String> visited) {
-        if (current.equals(target)) return true;
-        if (visited.contains(current)) return false;
+    public boolean hasPath(String sourceId, String targetId, Set<ConnectionType> allowedTypes) {
+        GraphSnapshot current = snapshot();
+        int source = current.indexOf(sourceId);
+        int target = current.indexOf(targetId);
         
-        visited.add(current);
+        if (source < 0 || target < 0) {
+            return false;
+        }
         
-        for (Edge edge : adjacencyList.getOrDefault(current, Collections.emptyList())) {
-            if (dfsHasPath(edge.getTargetId(), target, visited)) {
-                return true;
-            }
+        return current.hasPath(source, target, allowedTypes);
+    }
+    
+    public boolean hasPath(String sourceId, String targetId, PathConstraints constraints) {
+        GraphSnapshot current = snapshot();
+        int source = current.indexOf(sourceId);
+        int target = current.indexOf(targetId);
+        
+        if (source < 0 || target < 0) {
+            return false;
         }
         
-        return false;
+        return current.hasPath(source, target, constraints);
+    }
+    
+    public boolean isReachable(String sourceId, String targetId) {
+        GraphSnapshot current = snapshot();
+        int source = current.indexOf(sourceId);
+        int target = current.indexOf(targetId);
+        
+        if (source < 0 || target < 0) {
+            return false;
+        }
+        
+        return current.getReachabilityIndex().isReachable(source, target);
     }
     
     public List<String> findShortestPath(String sourceId, String targetId) {
-        if (!nodes.containsKey(sourceId) || !nodes.containsKey(targetId)) {
+        return findShortestPath(sourceId, targetId, PathSearchMode.BREADTH_FIRST);
+    }
+    
+    public List<String> findShortestPath(String sourceId, String targetId, PathSearchMode mode) {
+        Objects.requireNonNull(mode, "Search mode cannot be null");
+        
+        GraphSnapshot current = snapshot();
+        int source = current.indexOf(sourceId);
+        int target = current.indexOf(targetId);
+        
+        if (source < 0 || target < 0) {
+            return Collections.emptyList();
+        }
+        
+        int[] path = switch (mode) {
+            case BREADTH_FIRST -> current.shortestPath(source, target);
+            case BIDIRECTIONAL -> current.bidirectionalShortestPath(source, target);
+        };
+        return path.length == 0 ? Collections.emptyList() : current.toNodeIds(path);
+    }
+    
+    public List<String> findShortestPath(String sourceId, String targetId, Set<ConnectionType> allowedTypes) {
+        GraphSnapshot current = snapshot();
+        int source = current.indexOf(sourceId);
+        int target = current.indexOf(targetId);
+        
+        if (source < 0 || target < 0) {
             return Collections.emptyList();
         }
         
-        Map<String, String> previous = new HashMap<>();
-        Queue<String> queue = new LinkedList<>();
-        Set<String> visited = new HashSet<>();
+        int[] path = current.shortestPath(source, target, allowedTypes);
+        return path.length == 0 ? Collections.emptyList() : current.toNodeIds(path);
+    }
+    
+    public Optional<WeightedPath> findLowestLatencyPath(String sourceId, String targetId) {
+        return findLowestLatencyPath(sourceId, targetId, RoutingMode.DIJKSTRA);
+    }
+    
+    public Optional<WeightedPath> findLowestLatencyPath(String sourceId, String targetId, RoutingMode mode) {
+        GraphSnapshot current = snapshot();
+        int source = current.indexOf(sourceId);
+        int target = current.indexOf(targetId);
         
-        queue.add(sourceId);
-        visited.add(sourceId);
+        if (source < 0 || target < 0) {
+            return Optional.empty();
+        }
         
-        while (!queue.isEmpty()) {
-            String current = queue.poll();
-            
-            if (current.equals(targetId)) {
-                return reconstructPath(previous, sourceId, targetId);
+        return current.lowestLatencyPath(source, target, mode);
+    }
+    
+    public Optional<WeightedPath> findConstrainedPath(String sourceId, String targetId, PathConstraints constraints) {
+        GraphSnapshot current = snapshot();
+        int source = current.indexOf(sourceId);
+        int target = current.indexOf(targetId);
+        
+        if (source < 0 || target < 0) {
+            return Optional.empty();
+        }
+        
+        return current.constrainedPath(source, target, constraints);
+    }
+    
+    public List<WeightedPath> findKShortestPaths(String sourceId, String targetId, int k) {
+        GraphSnapshot current = snapshot();
+        int source = current.indexOf(sourceId);
+        int target = current.indexOf(targetId);
+        
+        if (source < 0 || target < 0) {
+            return Collections.emptyList();
+        }
+        
+        return current.kShortestPaths(source, target, k);
+    }
+    
+    public Optional<BottleneckPath> findWidestPath(String sourceId, String targetId) {
+        GraphSnapshot current = snapshot();
+        int source = current.indexOf(sourceId);
+        int target = current.indexOf(targetId);
+        
+        if (source < 0 || target < 0) {
+            return Optional.empty();
+        }
+        
+        return current.widestPath(source, target);
+    }
+    
+    public Optional<MaxFlowResult> computeMaxFlow(String sourceId, String targetId) {
+        GraphSnapshot current = snapshot();
+        int source = current.indexOf(sourceId);
+        int target = current.indexOf(targetId);
+        
+        // Like findWidestPath, a node has no bandwidth to itself, so source == target gives an empty result
+        if (source < 0 || target < 0 || source == target) {
+            return Optional.empty();
+        }
+        
+        return Optional.of(current.getMaxFlowSolver().solve(source, target));
+    }
+    
+    public Optional<HopDistances> computeHopDistances(String sourceId) {
+        GraphSnapshot current = snapshot();
+        int source = current.indexOf(sourceId);
+        
+        if (source < 0) {
+            return Optional.empty();
+        }
+        
+        return Optional.of(new ParallelBfs(current).run(source));
+    }
+    
+    public Stream<Node> streamNeighborhood(String centerId, int hops) {
+        GraphSnapshot current = snapshot();
+        int center = current.indexOf(centerId);
+        if (center < 0) {
+            return Stream.empty();
+        }
+        
+        Spliterator.OfInt nodes = Spliterators.spliteratorUnknownSize(current.neighborhood(center, hops),
+            Spliterator.DISTINCT | Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.intStream(nodes, false).mapToObj(current::getNode);
+    }
+    
+    public Optional<Subgraph> extractSubgraph(String centerId, int hops) {
+        return extractSubgraph(centerId, hops, Subgraph.DEFAULT_MAX_NODES, Subgraph.DEFAULT_MAX_EDGES);
+    }
+    
+    public Optional<Subgraph> extractSubgraph(String centerId, int hops, int maxNodes, int maxEdges) {
+        GraphSnapshot current = snapshot();
+        int center = current.indexOf(centerId);
+        if (center < 0) {
+            return Optional.empty();
+        }
+        return Optional.of(current.extractSubgraph(center, hops, maxNodes, maxEdges));
+    }
+    
+    public SpanningForest computeSpanningForest(SpanningCriterion criterion) {
+        return new MinimumSpanningForest(snapshot()).compute(criterion);
+    }
+    
+    public List<Node> findArticulationPoints() {
+        GraphSnapshot current = snapshot();
+        int[] points = current.getCutAnalysis().getArticulationPoints();
+        List<Node> result = new ArrayList<>(points.length);
+        for (int node : points) {
+            result.add(current.getNode(node));
+        }
+        return result;
+    }
+    
+    public List<Edge> findBridges() {
+        GraphSnapshot current = snapshot();
+        CutAnalysis analysis = current.getCutAnalysis();
+        List<Edge> result = new ArrayList<>(analysis.getBridgeCount());
+        for (int i = 0; i < analysis.getBridgeCount(); i++) {
+            result.add(current.getEdge(analysis.getBridgeEdge(i)));
+        }
+        return result;
+    }
+    
+    public long getFailureImpact(String nodeId) {
+        GraphSnapshot current = snapshot();
+        int node = current.indexOf(nodeId);
+        return node < 0 ? -1 : current.getCutAnalysis().getNodeImpact(node);
+    }
+    
+    public List<ScenarioImpact> simulateFailures(List<FailureScenario> scenarios) {
+        return new FailureSimulator(snapshot()).simulate(scenarios);
+    }
+    
+    public GraphSnapshot snapshot() {
+        GraphSnapshot current = snapshot;
+        if (current != null && current.getVersion() == version) {
+            return current;
+        }
+        
+        // Readers build optimistically and publish only if no write overlapped the build; the build lock
+        // just keeps concurrent readers from building the same version twice
+        buildLock.lock();
+        try {
+            for (int attempt = 0; attempt < OPTIMISTIC_READ_ATTEMPTS; attempt++) {
+                long stamp = lock.tryOptimisticRead();
+                if (stamp == 0) {
+                    continue;
+                }
+                long expected = version;
+                current = snapshot;
+                if (current != null && current.getVersion() == expected) {
+                    return current;
+                }
+                
+                GraphSnapshot built;
+                try {
+                    built = new GraphSnapshot(expected, nodes, adjacencyList);
+                } catch (RuntimeException e) {
+                    if (lock.validate(stamp)) {
+                        throw e;
+                    }
+                    continue;
+                }
+                if (lock.validate(stamp)) {
+                    snapshot = built;
+                    return built;
+                }
             }
             
-            for (Edge edge : adjacencyList.getOrDefault(current, Collections.emptyList())) {
-                String neighbor = edge.getTargetId();
-                if (!visited.contains(neighbor)) {
-                    visited.add(neighbor);
-                    previous.put(neighbor, current);
-                    queue.add(neighbor);
+            // A steady stream of writes can invalidate every optimistic build, so the last attempt holds
+            // writers off with a shared read lock and always finishes
+            long stamp = lock.readLock();
+            try {
+                long expected = version;
+                current = snapshot;
+                if (current == null || current.getVersion() != expected) {
+                    current = new GraphSnapshot(expected, nodes, adjacencyList);
+                    snapshot = current;
                 }
+                return current;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        } finally {
+            buildLock.unlock();
+        }
+    }
+    
+    public long getVersion() {
+        return version;
+    }
+    
+    public int getComponentId(String nodeId) {
+        return readComponents(() -> {
+            Integer index = componentIndex.get(nodeId);
+            return index == null ? -1 : components.findRoot(index);
+        });
+    }
+    
+    public int getComponentSize(String nodeId) {
+        return readComponents(() -> {
+            Integer index = componentIndex.get(nodeId);
+            return index == null ? 0 : components.rootSize(index);
+        });
+    }
+    
+    public int getComponentCount() {
+        return readComponents(components::getSetCount);
+    }
+    
+    public boolean inSameComponent(String firstId, String secondId) {
+        return readComponents(() -> {
+            Integer first = componentIndex.get(firstId);
+            Integer second = componentIndex.get(secondId);
+            return first != null && second != null && components.findRoot(first) == components.findRoot(second) ? 1 : 0;
+        }) == 1;
+    }
+    
+    private int readComponents(IntSupplier query) {
+        // Same scheme as snapshot(): optimistic reads first, then a shared read lock so a reader always finishes
+        for (int attempt = 0; attempt < OPTIMISTIC_READ_ATTEMPTS; attempt++) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp == 0) {
+                continue;
+            }
+            int result;
+            try {
+                result = query.getAsInt();
+            } catch (RuntimeException e) {
+                if (lock.validate(stamp)) {
+                    throw e;
+                }
+                continue;
+            }
+            if (lock.validate(stamp)) {
+                return result;
             }
         }
         
-        return Collections.emptyList();
+        long stamp = lock.readLock();
+        try {
+            return query.getAsInt();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+    
+    public int getStrongComponentId(String nodeId) {
+        GraphSnapshot current = snapshot();
+        int node = current.indexOf(nodeId);
+        return node < 0 ? -1 : current.getStronglyConnectedComponents().getComponent(node);
+    }
+    
+    public int getStrongComponentSize(String nodeId) {
+        GraphSnapshot current = snapshot();
+        int node = current.indexOf(nodeId);
+        if (node < 0) {
+            return 0;
+        }
+        
+        StronglyConnectedComponents scc = current.getStronglyConnectedComponents();
+        return scc.getComponentSize(scc.getComponent(node));
+    }
+    
+    public int getStrongComponentCount() {
+        return snapshot().getStronglyConnectedComponents().getComponentCount();
     }
     
-    private List<String> reconstructPath(Map<String, String> previous, String source, String target) {
-        List<String> path = new ArrayList<>();
-        String current = target;
+    public boolean inSameStrongComponent(String firstId, String secondId) {
+        GraphSnapshot current = snapshot();
+        int first = current.indexOf(firstId);
+        int second = current.indexOf(secondId);
         
-        while (current != null) {
-            path.add(0, current);
-            current = previous.get(current);
+        if (first < 0 || second < 0) {
+            return false;
         }
         
-        return path.get(0).equals(source) ? path : Collections.emptyList();
+        StronglyConnectedComponents scc = current.getStronglyConnectedComponents();
+        return scc.getComponent(first) == scc.getComponent(second);
+    }
+    
+    public void assignSubnet(String cidr, String nodeId) {
+        int length = prefixLength(cidr);
+        
+        long stamp = lock.writeLock();
+        try {
+            if (!nodes.containsKey(nodeId)) {
+                throw new IllegalArgumentException("Node not found: " + nodeId);
+            }
+            addressIndex = addressIndex.with(prefixAddress(cidr), length, nodeId);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    
+    public void unassignSubnet(String cidr, String nodeId) {
+        int length = prefixLength(cidr);
+        
+        long stamp = lock.writeLock();
+        try {
+            addressIndex = addressIndex.without(prefixAddress(cidr), length, nodeId);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    
+    public Map<String, List<String>> getSubnetAssignments() {
+        Map<String, List<String>> assignments = new LinkedHashMap<>();
+        addressIndex.forEach((prefix, length, nodeId) -> {
+            // Host entries mirror node addresses and are rebuilt from the nodes themselves
+            Node node = nodes.get(nodeId);
+            if (length == 32 && node != null && NetworkValidator.packIPv4(node.getIpAddress()) == (prefix & 0xFFFFFFFFL)) {
+                return;
+            }
+            String cidr = NetworkValidator.unpackIPv4(prefix) + "/" + length;
+            assignments.computeIfAbsent(cidr, key -> new ArrayList<>()).add(nodeId);
+        });
+        return assignments;
+    }
+    
+    public List<Node> findNodesByAddress(String ipAddress) {
+        long address = NetworkValidator.packIPv4(ipAddress);
+        if (address < 0) {
+            return Collections.emptyList();
+        }
+        return toNodes(addressIndex.get((int) address, 32));
+    }
+    
+    public List<Node> resolveAddress(String ipAddress) {
+        long address = NetworkValidator.packIPv4(ipAddress);
+        if (address < 0) {
+            return Collections.emptyList();
+        }
+        return toNodes(addressIndex.longestPrefixMatch((int) address));
+    }
+    
+    public List<Node> findNodesInSubnet(String cidr) {
+        int length = prefixLength(cidr);
+        return toNodes(addressIndex.hostsWithin(prefixAddress(cidr), length));
+    }
+    
+    private List<Node> toNodes(List<String> ids) {
+        List<Node> result = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Node node = nodes.get(id);
+            if (node != null) {
+                result.add(node);
+            }
+        }
+        return result;
+    }
+    
+    private static int prefixLength(String cidr) {
+        if (!NetworkValidator.isValidCIDR(cidr)) {
+            throw new IllegalArgumentException("Invalid CIDR: " + cidr);
+        }
+        return Integer.parseInt(cidr.substring(cidr.indexOf('/') + 1));
+    }
+    
+    private static int prefixAddress(String cidr) {
+        return (int) NetworkValidator.packIPv4(cidr.substring(0, cidr.indexOf('/')));
     }
     
     public int getNodeDegree(String nodeId) {
@@ -146,7 +700,89 @@ public class NetworkGraph implements Serializable {
     }
     
     public void clear() {
-        nodes.clear();
-        adjacencyList.clear();
+        long stamp = lock.writeLock();
+        try {
+            nodes.clear();
+            adjacencyList.clear();
+            incomingEdges.clear();
+            componentIndex.clear();
+            components.clear();
+            addressIndex = Ipv4PrefixTrie.empty();
+            edgeCount = 0;
+            version++;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        Map<String, Node> savedNodes;
+        Map<String, List<Edge>> savedEdges = new LinkedHashMap<>();
+        Map<String, List<String>> savedSubnets;
+        long stamp = lock.readLock();
+        try {
+            savedNodes = new LinkedHashMap<>(nodes);
+            adjacencyList.forEach((nodeId, edges) -> savedEdges.put(nodeId, new ArrayList<>(edges)));
+            savedSubnets = getSubnetAssignments();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("nodes", savedNodes);
+        fields.put("adjacencyList", savedEdges);
+        fields.put("subnets", savedSubnets);
+        out.writeFields();
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        Object savedNodes = fields.get("nodes", null);
+        Object savedEdges = fields.get("adjacencyList", null);
+        Object savedSubnets = fields.get("subnets", null);
+        if (!(savedNodes instanceof Map) || !(savedEdges instanceof Map)
+                || savedSubnets != null && !(savedSubnets instanceof Map)) {
+            throw new InvalidObjectException("Graph stream is missing its node or edge map");
+        }
+        restored = new SerializedForm((Map<String, Node>) savedNodes, (Map<String, List<Edge>>) savedEdges,
+            savedSubnets == null ? Collections.emptyMap() : (Map<String, List<String>>) savedSubnets);
+    }
+    
+    private Object readResolve() throws ObjectStreamException {
+        try {
+            return restored.toGraph();
+        } catch (RuntimeException e) {
+            InvalidObjectException invalid = new InvalidObjectException("Graph stream is inconsistent: " + e.getMessage());
+            invalid.initCause(e);
+            throw invalid;
+        }
+    }
+    
+    private static final class SerializedForm {
+        private final Map<String, Node> nodes;
+        private final Map<String, List<Edge>> adjacencyList;
+        private final Map<String, List<String>> subnets;
+        
+        SerializedForm(Map<String, Node> nodes, Map<String, List<Edge>> adjacencyList, Map<String, List<String>> subnets) {
+            this.nodes = nodes;
+            this.adjacencyList = adjacencyList;
+            this.subnets = subnets;
+        }
+        
+        NetworkGraph toGraph() {
+            NetworkGraph graph = new NetworkGraph();
+            GraphBatch batch = graph.newBatch();
+            nodes.values().forEach(batch::addNode);
+            adjacencyList.values().forEach(edges -> edges.forEach(batch::addEdge));
+            batch.commit();
+            subnets.forEach((cidr, nodeIds) -> nodeIds.forEach(nodeId -> graph.assignSubnet(cidr, nodeId)));
+            return graph;
+        }
+    }
+    
+    private static final class PendingEndpoint {
+        private final List<Edge> edges = new ArrayList<>();
+        private int component;
     }
 }
\ No newline at end of file
@@ -0,0 +1,249 @@
+package com.netmap.graph;
+
+import com.netmap.core.domain.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+public class NetworkGraphConcurrencyTest {
+    
+    private static final int WRITERS = 4;
+    private static final int READERS = 8;
+    private static final int BATCHES_PER_WRITER = 300;
+    
+    public static void main(String[] args) {
+        NetworkGraphConcurrencyTest test = new NetworkGraphConcurrencyTest();
+        test.runAllTests();
+    }
+    
+    public void runAllTests() {
+        System.out.println("Running NetworkGraph Concurrency Tests...\n");
+        
+        testBatchCommit();
+        testConcurrentReadersAndWriters();
+        testReadersUnderSteadyWrites();
+        
+        System.out.println("\n✓ All NetworkGraph concurrency tests passed!");
+    }
+    
+    private void testBatchCommit() {
+        System.out.println("Test: Batch Commit");
+        
+        NetworkGraph graph = new NetworkGraph();
+        long before = graph.getVersion();
+        
+        graph.newBatch()
+            .addNode(createTestNode("a"))
+            .addNode(createTestNode("b"))
+            .addEdge(createTestEdge("a", "b"))
+            .commit();
+        
+        assertEqual(2, graph.getNodeCount(), "Batch should add 2 nodes");
+        assertEqual(1, graph.getEdgeCount(), "Batch should add 1 edge");
+        assertTrue(graph.getVersion() == before + 1, "Batch should publish a single version");
+        
+        GraphBatch invalid = graph.newBatch()
+            .addNode(createTestNode("c"))
+            .addEdge(createTestEdge("c", "missing"));
+        
+        try {
+            invalid.commit();
+            throw new AssertionError("Assertion failed: Batch with dangling edge should be rejected");
+        } catch (IllegalArgumentException expected) {
+            assertEqual(2, graph.getNodeCount(), "Rejected batch should not add any node");
+        }
+        
+        System.out.println("  ✓ Passed\n");
+    }
+    
+    private void testConcurrentReadersAndWriters() {
+        System.out.println("Test: Concurrent Readers and Writers");
+        
+        NetworkGraph graph = new NetworkGraph();
+        graph.addNode(createTestNode("hub"));
+        
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS + READERS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writersDone = new AtomicBoolean();
+        AtomicLong queries = new AtomicLong();
+        List<Future<?>> writers = new ArrayList<>();
+        List<Future<?>> readers = new ArrayList<>();
+        
+        for (int w = 0; w < WRITERS; w++) {
+            int writer = w;
+            writers.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < BATCHES_PER_WRITER; i++) {
+                    String a = "w" + writer + "-" + i + "-a";
+                    String b = "w" + writer + "-" + i + "-b";
+                    if (i % 2 == 0) {
+                        graph.newBatch()
+                            .addNode(createTestNode(a))
+                            .addNode(createTestNode(b))
+                            .addEdge(createTestEdge("hub", a))
+                            .addEdge(createTestEdge(a, b))
+                            .commit();
+                    } else {
+                        graph.addNode(createTestNode(a));
+                        graph.addNode(createTestNode(b));
+                        graph.addEdge(createTestEdge("hub", a));
+                        graph.addEdge(createTestEdge(a, b));
+                    }
+                }
+                return null;
+            }));
+        }
+        
+        for (int r = 0; r < READERS; r++) {
+            readers.add(executor.submit(() -> {
+                start.await();
+                while (!writersDone.get()) {
+                    GraphSnapshot snapshot = graph.snapshot();
+                    verifyBatchesAreAtomic(snapshot);
+                    
+                    int hub = snapshot.indexOf("hub");
+                    for (int e = snapshot.edgeStart(hub); e < snapshot.edgeEnd(hub); e += 7) {
+                        int target = snapshot.getTarget(e);
+                        int[] path = snapshot.shortestPath(hub, target);
+                        if (path.length != 2) {
+                            throw new AssertionError("Assertion failed: hub should reach its neighbor in one hop");
+                        }
+                    }
+                    
+                    graph.getEdges("hub");
+                    graph.getAllNodes();
+                    graph.findShortestPath("hub", "w0-0-b");
+                    if (graph.getComponentId("w0-0-b") >= 0 && !graph.inSameComponent("hub", "w0-0-b")) {
+                        throw new AssertionError("Assertion failed: batch nodes should join the hub component atomically");
+                    }
+                    graph.getComponentSize("hub");
+                    queries.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        
+        start.countDown();
+        try {
+            for (Future<?> writer : writers) {
+                writer.get(60, TimeUnit.SECONDS);
+            }
+            writersDone.set(true);
+            for (Future<?> reader : readers) {
+                reader.get(60, TimeUnit.SECONDS);
+            }
+        } catch (ExecutionException e) {
+            throw new AssertionError("Concurrent access failed: " + e.getCause(), e.getCause());
+        } catch (InterruptedException | TimeoutException e) {
+            throw new AssertionError("Concurrent access did not finish: " + e);
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        int pairs = WRITERS * BATCHES_PER_WRITER;
+        assertEqual(1 + 2 * pairs, graph.getNodeCount(), "All nodes should be present");
+        assertEqual(2 * pairs, graph.getEdgeCount(), "All edges should be present");
+        assertEqual(2 * pairs, graph.snapshot().getEdgeCount(), "Final snapshot should see every edge");
+        assertEqual(1, graph.getComponentCount(), "Every node should be connected to the hub");
+        assertEqual(1 + 2 * pairs, graph.getComponentSize("hub"), "Hub component should hold every node");
+        assertTrue(queries.get() > 0, "Readers should have run queries");
+        
+        System.out.println("  ✓ Passed (" + queries.get() + " snapshot reads)\n");
+    }
+    
+    private void testReadersUnderSteadyWrites() {
+        System.out.println("Test: Readers Under Steady Writes");
+        
+        NetworkGraph graph = new NetworkGraph();
+        GraphBatch batch = graph.newBatch();
+        int nodes = 50_000;
+        for (int i = 0; i < nodes; i++) {
+            batch.addNode(createTestNode("s" + i));
+            if (i > 0) {
+                batch.addEdge(createTestEdge("s" + (i - 1), "s" + i));
+            }
+        }
+        batch.commit();
+        
+        // Every write lands well inside one snapshot build, so an optimistic-only reader would never publish
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        AtomicBoolean readerDone = new AtomicBoolean();
+        Future<?> writer = executor.submit(() -> {
+            for (int i = 0; !readerDone.get(); i++) {
+                graph.addEdge(createTestEdge("s" + (i % nodes), "s" + ((i * 31 + 7) % nodes)));
+                LockSupport.parkNanos(100_000);
+            }
+            return null;
+        });
+        Future<Integer> reader = executor.submit(() -> {
+            int answered = 0;
+            for (int i = 0; i < 20; i++) {
+                if (graph.hasPath("s0", "s" + (nodes - 1))) answered++;
+                if (graph.inSameComponent("s0", "s" + (nodes - 1))) answered++;
+            }
+            return answered;
+        });
+        
+        try {
+            assertEqual(40, reader.get(60, TimeUnit.SECONDS), "Every read should answer while writes continue");
+            readerDone.set(true);
+            writer.get(60, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            throw new AssertionError("Steady writes failed: " + e.getCause(), e.getCause());
+        } catch (InterruptedException | TimeoutException e) {
+            throw new AssertionError("Readers starved under steady writes: " + e);
+        } finally {
+            readerDone.set(true);
+            executor.shutdownNow();
+        }
+        
+        System.out.println("  ✓ Passed\n");
+    }
+    
+    private void verifyBatchesAreAtomic(GraphSnapshot snapshot) {
+        for (int node = 0; node < snapshot.getNodeCount(); node++) {
+            String id = snapshot.getNodeId(node);
+            if (!id.endsWith("-a") || !id.startsWith("w")) continue;
+            
+            int index = Integer.parseInt(id.substring(id.indexOf('-') + 1, id.lastIndexOf('-')));
+            if (index % 2 == 0 && snapshot.getOutDegree(node) != 1) {
+                throw new AssertionError("Assertion failed: batch for " + id + " is only partially visible");
+            }
+        }
+    }
+    
+    private Node createTestNode(String id) {
+        return Node.builder()
+            .id(id)
+            .name("Test-" + id)
+            .ipAddress("10.0.0.1")
+            .type(NodeType.SWITCH)
+            .build();
+    }
+    
+    private Edge createTestEdge(String from, String to) {
+        return Edge.builder()
+            .sourceId(from)
+            .targetId(to)
+            .bandwidth(1000)
+            .latency(1)
+            .connectionType(ConnectionType.FIBER)
+            .build();
+    }
+    
+    private void assertTrue(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError("Assertion failed: " + message);
+        }
+    }
+    
+    private void assertEqual(int expected, int actual, String message) {
+        if (expected != actual) {
+            throw new AssertionError(message + " - Expected: " + expected + ", Got: " + actual);
+        }
+    }
+}
\ No newline at end of file
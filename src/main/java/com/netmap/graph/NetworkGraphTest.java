@@ -2,7 +2,14 @@ package com.netmap.graph;
 
 import com.netmap.core.domain.*;
 
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
 
 public class NetworkGraphTest {
     
@@ -18,6 +25,23 @@ public class NetworkGraphTest {
         testAddEdge();
         testShortestPath();
         testConnectivity();
+        testSnapshot();
+        testLowestLatencyPath();
+        testBidirectionalSearch();
+        testReachabilityIndex();
+        testParallelHopDistances();
+        testBandwidthAnalysis();
+        testKShortestPaths();
+        testComponents();
+        testTypeIndexes();
+        testAddressIndex();
+        testConstrainedPath();
+        testLandmarkRouting();
+        testContractionHierarchy();
+        testFailureImpact();
+        testSpanningForest();
+        testSubgraphExtraction();
+        testRetiredSnapshotsReleased();
         
         System.out.println("\n✓ All NetworkGraph tests passed!");
     }
@@ -64,6 +88,14 @@ public class NetworkGraphTest {
         graph.addEdge(edge);
         
         assertEqual(1, graph.getEdgeCount(), "Should have 1 edge");
+        assertEqual(1, graph.getNodeDegree("n1"), "n1 should have out-degree 1");
+        assertEqual(1, graph.getInDegree("n2"), "n2 should have in-degree 1");
+        assertEqual(0, graph.getInDegree("n1"), "n1 should have in-degree 0");
+        assertEqual("n1", graph.getIncomingEdges("n2").get(0).getSourceId(), "Incoming edge should come from n1");
+        
+        graph.clear();
+        assertEqual(0, graph.getEdgeCount(), "Clear should reset the edge count");
+        assertEqual(0, graph.getInDegree("n2"), "Clear should drop incoming edges");
         
         System.out.println("  ✓ Passed\n");
     }
@@ -114,6 +146,691 @@ public class NetworkGraphTest {
         System.out.println("  ✓ Passed\n");
     }
     
+    private void testSnapshot() {
+        System.out.println("Test: CSR Snapshot");
+        
+        NetworkGraph graph = new NetworkGraph();
+        
+        graph.addNode(createTestNode("n1", "192.168.1.1"));
+        graph.addNode(createTestNode("n2", "192.168.1.2"));
+        graph.addNode(createTestNode("n3", "192.168.1.3"));
+        
+        graph.addEdge(createTestEdge("n1", "n2"));
+        graph.addEdge(createTestEdge("n1", "n3"));
+        
+        GraphSnapshot snapshot = graph.snapshot();
+        int n1 = snapshot.indexOf("n1");
+        
+        assertEqual(3, snapshot.getNodeCount(), "Snapshot should have 3 nodes");
+        assertEqual(2, snapshot.getEdgeCount(), "Snapshot should have 2 edges");
+        assertEqual(2, snapshot.getOutDegree(n1), "n1 should have 2 outgoing edges");
+        assertEqual("n2", snapshot.getNodeId(snapshot.getTarget(snapshot.edgeStart(n1))), "First edge should target n2");
+        assertEqual(10, snapshot.getLatency(snapshot.edgeStart(n1)), "Latency should be copied");
+        assertTrue(snapshot == graph.snapshot(), "Unchanged graph should reuse its snapshot");
+        
+        graph.addEdge(createTestEdge("n2", "n3"));
+        assertTrue(snapshot != graph.snapshot(), "Modified graph should rebuild its snapshot");
+        assertEqual(3, graph.snapshot().getEdgeCount(), "Rebuilt snapshot should have 3 edges");
+        
+        NetworkGraph chain = new NetworkGraph();
+        int length = 100_000;
+        for (int i = 0; i < length; i++) {
+            chain.addNode(createTestNode("c" + i, "10.0.0.1"));
+            if (i > 0) {
+                chain.addEdge(createTestEdge("c" + (i - 1), "c" + i));
+            }
+        }
+        
+        assertTrue(chain.hasPath("c0", "c" + (length - 1)), "Long chain should be traversable");
+        assertEqual(length, chain.findShortestPath("c0", "c" + (length - 1)).size(), "Chain path should visit every node");
+        
+        System.out.println("  ✓ Passed\n");
+    }
+    
+    private void testLowestLatencyPath() {
+        System.out.println("Test: Lowest Latency Path (Dijkstra)");
+        
+        NetworkGraph graph = new NetworkGraph();
+        
+        for (int i = 1; i <= 4; i++) {
+            graph.addNode(createTestNode("n" + i, "192.168.1." + i));
+        }
+        
+        graph.addEdge(createTestEdge("n1", "n4", 100));
+        graph.addEdge(createTestEdge("n1", "n2", 10));
+        graph.addEdge(createTestEdge("n2", "n3", 10));
+        graph.addEdge(createTestEdge("n3", "n4", 10));
+        
+        WeightedPath path = graph.findLowestLatencyPath("n1", "n4").orElseThrow();
+        
+        assertEqual(30, (int) path.getCost(), "Lowest latency should be 30ms");
+        assertEqual(4, path.getNodeIds().size(), "Path should avoid the slow direct link");
+        assertEqual(3, path.getHopCount(), "Path should use 3 edges");
+        assertEqual("n4", path.getNodeIds().get(3), "Last should be n4");
+        assertFalse(graph.findLowestLatencyPath("n4", "n1").isPresent(), "Reverse direction has no path");
+        assertEqual(0, (int) graph.findLowestLatencyPath("n2", "n2").orElseThrow().getCost(), "Self path costs nothing");
+        
+        System.out.println("  ✓ Passed\n");
+    }
+    
+    private void testBidirectionalSearch() {
+        System.out.println("Test: Bidirectional Shortest Path");
+        
+        NetworkGraph graph = new NetworkGraph();
+        
+        for (int i = 0; i < 8; i++) {
+            graph.addNode(createTestNode("n" + i, "192.168.1." + (i + 1)));
+        }
+        
+        graph.addEdge(createTestEdge("n0", "n1"));
+        graph.addEdge(createTestEdge("n1", "n2"));
+        graph.addEdge(createTestEdge("n2", "n3"));
+        graph.addEdge(createTestEdge("n3", "n4"));
+        graph.addEdge(createTestEdge("n0", "n5"));
+        graph.addEdge(createTestEdge("n5", "n6"));
+        graph.addEdge(createTestEdge("n6", "n4"));
+        graph.addEdge(createTestEdge("n4", "n7"));
+        
+        List<String> path = graph.findShortestPath("n0", "n7", PathSearchMode.BIDIRECTIONAL);
+        
+        assertEqual(5, path.size(), "Path should take the 4-hop branch");
+        assertEqual("n0", path.get(0), "First should be n0");
+        assertEqual("n5", path.get(1), "Path should go through n5");
+        assertEqual("n7", path.get(4), "Last should be n7");
+        assertEqual(1, graph.findShortestPath("n3", "n3", PathSearchMode.BIDIRECTIONAL).size(), "Self path is a single node");
+        assertTrue(graph.findShortestPath("n7", "n0", PathSearchMode.BIDIRECTIONAL).isEmpty(), "Reverse direction has no path");
+        
+        for (int i = 0; i < 8; i++) {
+            for (int j = 0; j < 8; j++) {
+                int expected = graph.findShortestPath("n" + i, "n" + j).size();
+                int actual = graph.findShortestPath("n" + i, "n" + j, PathSearchMode.BIDIRECTIONAL).size();
+                assertEqual(expected, actual, "Bidirectional should match BFS for n" + i + " -> n" + j);
+            }
+        }
+        
+        System.out.println("  ✓ Passed\n");
+    }
+    
+    private void testReachabilityIndex() {
+        System.out.println("Test: Reachability Index");
+        
+        NetworkGraph graph = new NetworkGraph();
+        
+        for (int i = 0; i < 6; i++) {
+            graph.addNode(createTestNode("n" + i, "192.168.1." + (i + 1)));
+        }
+        
+        graph.addEdge(createTestEdge("n0", "n1"));
+        graph.addEdge(createTestEdge("n1", "n2"));
+        graph.addEdge(createTestEdge("n2", "n0"));
+        graph.addEdge(createTestEdge("n2", "n3"));
+        graph.addEdge(createTestEdge("n4", "n3"));
+        
+        StronglyConnectedComponents components = graph.snapshot().getStronglyConnectedComponents();
+        assertEqual(4, components.getComponentCount(), "Cycle should collapse into one component");
+        
+        for (int i = 0; i < 6; i++) {
+            for (int j = 0; j < 6; j++) {
+                boolean expected = graph.hasPath("n" + i, "n" + j);
+                assertTrue(expected == graph.isReachable("n" + i, "n" + j),
+                    "Index should match DFS for n" + i + " -> n" + j);
+            }
+        }
+        
+        graph.addEdge(createTestEdge("n3", "n5"));
+        assertTrue(graph.isReachable("n4", "n5"), "Index should be rebuilt after modification");
+        assertFalse(graph.isReachable("n5", "n4"), "Edges are directed");
+        assertFalse(graph.isReachable("n0", "missing"), "Unknown node is unreachable");
+        
+        System.out.println("  ✓ Passed\n");
+    }
+    
+    private void testParallelHopDistances() {
+        System.out.println("Test: Parallel Hop Distances");
+        
+        NetworkGraph graph = new NetworkGraph();
+        int size = 5000;
+        
+        for (int i = 0; i < size; i++) {
+            graph.addNode(createTestNode("n" + i, "10.0.0.1"));
+        }
+        for (int i = 1; i < size; i++) {
+            graph.addEdge(createTestEdge("n" + ((i - 1) / 3), "n" + i));
+            graph.addEdge(createTestEdge("n" + i, "n" + (i * 7 % size)));
+        }
+        graph.addNode(createTestNode("isolated", "10.0.0.2"));
+        
+        HopDistances distances = graph.computeHopDistances("n0").orElseThrow();
+        
+        assertEqual(size, distances.getReachableCount(), "Every tree node should be reached");
+        assertEqual(HopDistances.UNREACHABLE, distances.getDistance("isolated"), "Isolated node is unreachable");
+        assertEqual(0, distances.getDistance("n0"), "Source is at distance 0");
+        
+        for (int i = 0; i < size; i += 97) {
+            int expected = graph.findShortestPath("n0", "n" + i).size() - 1;
+            assertEqual(expected, distances.getDistance("n" + i), "Distance to n" + i + " should match BFS");
+        }
+        assertFalse(graph.computeHopDistances("missing").isPresent(), "Unknown source has no distances");
+        
+        System.out.println("  ✓ Passed\n");
+    }
+    
+    private void testBandwidthAnalysis() {
+        System.out.println("Test: Widest Path and Max Flow");
+        
+        NetworkGraph graph = new NetworkGraph();
+        
+        for (String id : new String[] {"s", "a", "b", "t"}) {
+            graph.addNode(createTestNode(id, "192.168.1.1"));
+        }
+        
+        graph.addEdge(createBandwidthEdge("s", "a", 1000));
+        graph.addEdge(createBandwidthEdge("a", "t", 400));
+        graph.addEdge(createBandwidthEdge("s", "b", 300));
+        graph.addEdge(createBandwidthEdge("b", "t", 900));
+        graph.addEdge(createBandwidthEdge("a", "b", 500));
+        
+        BottleneckPath widest = graph.findWidestPath("s", "t").orElseThrow();
+        assertEqual(500, (int) widest.getBandwidth(), "Widest path should carry 500Mbps");
+        assertEqual(4, widest.getNodeIds().size(), "Widest path should detour through a and b");
+        assertEqual(500, widest.getBottleneckEdge().getBandwidth(), "Bottleneck link should be a -> b");
+        
+        MaxFlowResult flow = graph.computeMaxFlow("s", "t").orElseThrow();
+        assertEqual(1200, (int) flow.getMaxFlow(), "Max flow should be 1200Mbps");
+        long cutCapacity = flow.getMinCut().stream().mapToLong(Edge::getBandwidth).sum();
+        assertEqual(1200, (int) cutCapacity, "Min cut capacity should equal max flow");
+        
+        assertEqual(0, (int) graph.computeMaxFlow("t", "s").orElseThrow().getMaxFlow(), "No reverse flow");
+        assertFalse(graph.findWidestPath("t", "s").isPresent(), "No reverse widest path");
+        assertFalse(graph.findWidestPath("s", "s").isPresent(), "No widest path from a node to itself");
+        assertFalse(graph.computeMaxFlow("s", "s").isPresent(), "No max flow from a node to itself");
+        
+        System.out.println("  ✓ Passed\n");
+    }
+    
+    private void testKShortestPaths() {
+        System.out.println("Test: K-Shortest Latency Paths");
+        
+        NetworkGraph graph = new NetworkGraph();
+        
+        for (String id : new String[] {"c", "d", "e", "f", "g", "h"}) {
+            graph.addNode(createTestNode(id, "192.168.1.1"));
+        }
+        
+        graph.addEdge(createTestEdge("c", "d", 3));
+        graph.addEdge(createTestEdge("c", "e", 2));
+        graph.addEdge(createTestEdge("d", "f", 4));
+        graph.addEdge(createTestEdge("e", "d", 1));
+        graph.addEdge(createTestEdge("e", "f", 2));
+        graph.addEdge(createTestEdge("e", "g", 3));
+        graph.addEdge(createTestEdge("f", "g", 2));
+        graph.addEdge(createTestEdge("f", "h", 1));
+        graph.addEdge(createTestEdge("g", "h", 2));
+        
+        List<WeightedPath> paths = graph.findKShortestPaths("c", "h", 3);
+        
+        assertEqual(3, paths.size(), "Should find 3 paths");
+        assertEqual(5, (int) paths.get(0).getCost(), "Shortest path costs 5");
+        assertEqual(7, (int) paths.get(1).getCost(), "Second path costs 7");
+        assertEqual(8, (int) paths.get(2).getCost(), "Third path costs 8");
+        assertEqual("c", paths.get(0).getNodeIds().get(0), "Paths start at c");
+        
+        for (WeightedPath path : paths) {
+            assertEqual(path.getNodeIds().size(), (int) path.getNodeIds().stream().distinct().count(),
+                "Paths should be loopless");
+        }
+        
+        assertEqual(7, graph.findKShortestPaths("c", "h", 10).size(), "All 7 loopless paths should be found");
+        assertTrue(graph.findKShortestPaths("h", "c", 3).isEmpty(), "No reverse path");
+        
+        System.out.println("  ✓ Passed\n");
+    }
+    
+    private void testComponents() {
+        System.out.println("Test: Connected Components");
+        
+        NetworkGraph graph = new NetworkGraph();
+        
+        for (int i = 0; i < 6; i++) {
+            graph.addNode(createTestNode("n" + i, "192.168.1." + (i + 1)));
+        }
+        
+        assertEqual(6, graph.getComponentCount(), "Isolated nodes are separate segments");
+        
+        graph.addEdge(createTestEdge("n0", "n1"));
+        graph.addEdge(createTestEdge("n1", "n0"));
+        graph.addEdge(createTestEdge("n2", "n1"));
+        graph.addEdge(createTestEdge("n3", "n4"));
+        
+        assertEqual(3, graph.getComponentCount(), "Should have 3 undirected segments");
+        assertTrue(graph.inSameComponent("n0", "n2"), "n2 links into n0's segment");
+        assertFalse(graph.inSameComponent("n0", "n3"), "n3 is in another segment");
+        assertEqual(3, graph.getComponentSize("n1"), "n1's segment has 3 nodes");
+        assertEqual(1, graph.getComponentSize("n5"), "n5 is isolated");
+        assertTrue(graph.getComponentId("n3") == graph.getComponentId("n4"), "n3 and n4 share an id");
+        
+        assertTrue(graph.inSameStrongComponent("n0", "n1"), "n0 and n1 form a cycle");
+        assertFalse(graph.inSameStrongComponent("n1", "n2"), "n2 only reaches n1 one way");
+        assertEqual(2, graph.getStrongComponentSize("n0"), "Cycle component has 2 nodes");
+        assertEqual(5, graph.getStrongComponentCount(), "Should have 5 strong components");
+        
+        graph.clear();
+        assertEqual(0, graph.getComponentCount(), "Clear should reset segments");
+        assertEqual(-1, graph.getComponentId("n0"), "Cleared node has no segment");
+        
+        System.out.println("  ✓ Passed\n");
+    }
+    
+    private void testTypeIndexes() {
+        System.out.println("Test: Type Indexes");
+        
+        NetworkGraph graph = new NetworkGraph();
+        
+        for (int i = 0; i < 4; i++) {
+            graph.addNode(createTestNode("n" + i, "192.168.1." + (i + 1)));
+        }
+        graph.addNode(Node.builder()
+            .id("fw")
+            .name("Edge Firewall")
+            .ipAddress("192.168.1.254")
+            .type(NodeType.FIREWALL)
+            .build());
+        
+        graph.addEdge(createTestEdge("n0", "n1"));
+        graph.addEdge(createTestEdge("n1", "n3"));
+        graph.addEdge(createBandwidthEdge("n0", "n2", 1000));
+        graph.addEdge(createBandwidthEdge("n2", "fw", 1000));
+        graph.addEdge(createBandwidthEdge("fw", "n3", 1000));
+        
+        List<String> firewalls = new ArrayList<>();
+        graph.nodesOfType(NodeType.FIREWALL).forEach(node -> firewalls.add(node.getId()));
+        assertEqual(1, firewalls.size(), "Should find 1 firewall");
+        assertTrue(firewalls.contains("fw"), "Firewall should be indexed");
+        assertEqual(4, graph.countNodesOfType(NodeType.SERVER), "Should have 4 servers");
+        assertEqual(0, graph.countNodesOfType(NodeType.SWITCH), "Should have no switches");
+        assertEqual(3, graph.countEdgesOfType(ConnectionType.FIBER), "Should have 3 fiber links");
+        for (Edge edge : graph.edgesOfType(ConnectionType.ETHERNET)) {
+            assertTrue(edge.getConnectionType() == ConnectionType.ETHERNET, "Only Ethernet links expected");
+        }
+        
+        Set<ConnectionType> fiberOnly = EnumSet.of(ConnectionType.FIBER);
+        assertEqual(3, graph.findShortestPath("n0", "n3").size(), "Unfiltered path uses Ethernet");
+        assertEqual(4, graph.findShortestPath("n0", "n3", fiberOnly).size(), "Fiber path goes through the firewall");
+        assertFalse(graph.hasPath("n0", "n1", fiberOnly), "n1 is only reachable over Ethernet");
+        assertFalse(graph.hasPath("n0", "n3", EnumSet.noneOf(ConnectionType.class)), "No allowed types means no path");
+        
+        graph.addNode(createTestNode("fw", "192.168.1.254"));
+        assertEqual(0, graph.countNodesOfType(NodeType.FIREWALL), "Replaced node should leave the firewall index");
+        
+        System.out.println("  ✓ Passed\n");
+    }
+    
+    private void testAddressIndex() {
+        System.out.println("Test: Address Index");
+        
+        NetworkGraph graph = new NetworkGraph();
+        graph.addNode(createTestNode("web", "10.1.2.3"));
+        graph.addNode(createTestNode("db", "10.1.2.4"));
+        graph.addNode(createTestNode("replica", "10.1.2.4"));
+        graph.addNode(createTestNode("office", "192.168.1.10"));
+        graph.addNode(createTestNode("gateway", "10.0.0.1"));
+        
+        assertEqual(1, graph.findNodesByAddress("10.1.2.3").size(), "Exact lookup should find web");
+        assertEqual(2, graph.findNodesByAddress("10.1.2.4").size(), "Shared address should list both nodes");
+        assertEqual(0, graph.findNodesByAddress("10.1.2.5").size(), "Unknown address should be empty");
+        assertEqual(0, graph.findNodesByAddress("not-an-ip").size(), "Malformed address should be empty");
+        
+        assertEqual(4, graph.findNodesInSubnet("10.0.0.0/8").size(), "10/8 should hold 4 nodes");
+        assertEqual(3, graph.findNodesInSubnet("10.1.2.0/24").size(), "10.1.2/24 should hold 3 nodes");
+        assertEqual(5, graph.findNodesInSubnet("0.0.0.0/0").size(), "Default route should hold every node");
+        assertEqual(0, graph.findNodesInSubnet("172.16.0.0/12").size(), "Empty subnet should be empty");
+        
+        assertEqual(0, graph.resolveAddress("10.9.9.9").size(), "No covering prefix yet");
+        graph.assignSubnet("10.0.0.0/8", "gateway");
+        assertEqual("gateway", graph.resolveAddress("10.9.9.9").get(0).getId(), "Subnet owner should resolve");
+        assertEqual("web", graph.resolveAddress("10.1.2.3").get(0).getId(), "Host entry should win");
+        
+        graph.addNode(createTestNode("web", "192.168.1.11"));
+        assertEqual("gateway", graph.resolveAddress("10.1.2.3").get(0).getId(), "Moved node should leave its old address");
+        assertEqual(2, graph.findNodesInSubnet("192.168.1.0/24").size(), "Moved node should join its new subnet");
+        
+        GraphBatch shared = graph.newBatch();
+        for (int i = 0; i < 200_000; i++) {
+            shared.addNode(createTestNode("host-" + i, "10.7.7.7"));
+        }
+        shared.commit();
+        assertEqual(200_000, graph.findNodesByAddress("10.7.7.7").size(), "Many nodes should share one address");
+        graph.addNode(createTestNode("host-7", "10.7.7.8"));
+        assertEqual(199_999, graph.findNodesByAddress("10.7.7.7").size(), "Moving one node should drop only that node");
+        
+        graph.clear();
+        assertEqual(0, graph.resolveAddress("10.1.2.4").size(), "Clear should reset the index");
+        
+        System.out.println("  ✓ Passed\n");
+    }
+    
+    private void testConstrainedPath() {
+        System.out.println("Test: Constrained Path");
+        
+        NetworkGraph graph = new NetworkGraph();
+        for (String id : List.of("a", "b", "c", "d", "e")) {
+            graph.addNode(createTestNode(id, "192.168.1.1"));
+        }
+        
+        graph.addEdge(createTestEdge("a", "b", 5));
+        graph.addEdge(createTestEdge("b", "e", 5));
+        graph.addEdge(createBandwidthEdge("a", "c", 1000));
+        graph.addEdge(createBandwidthEdge("c", "e", 1000));
+        graph.addEdge(createBandwidthEdge("a", "d", 10000));
+        graph.addEdge(Edge.builder()
+            .sourceId("d")
+            .targetId("e")
+            .bandwidth(10000)
+            .latency(1)
+            .connectionType(ConnectionType.WIRELESS)
+            .build());
+        
+        PathConstraints gigabit = PathConstraints.builder()
+            .minBandwidth(1000)
+            .excludeTypes(ConnectionType.WIRELESS, ConnectionType.VPN)
+            .build();
+        WeightedPath path = graph.findConstrainedPath("a", "e", gigabit).orElseThrow();
+        assertEqual(List.of("a", "c", "e").toString(), path.getNodeIds().toString(), "Should take the fiber route");
+        assertEqual(20, (int) path.getCost(), "Fiber route costs 20ms");
+        assertTrue(graph.hasPath("a", "e", gigabit), "Gigabit route exists");
+        
+        PathConstraints tight = PathConstraints.builder()
+            .minBandwidth(1000)
+            .excludeTypes(ConnectionType.WIRELESS)
+            .maxLatency(15)
+            .build();
+        assertFalse(graph.findConstrainedPath("a", "e", tight).isPresent(), "Fiber route exceeds 15ms budget");
+        assertFalse(graph.hasPath("a", "e", tight), "No route fits the budget");
+        
+        PathConstraints avoidC = PathConstraints.builder()
+            .edgeFilter(edge -> !edge.getTargetId().equals("c") && !edge.getTargetId().equals("d"))
+            .maxLatency(10)
+            .build();
+        assertEqual(10, (int) graph.findConstrainedPath("a", "e", avoidC).orElseThrow().getCost(),
+                    "Filter should leave the Ethernet route");
+        
+        graph.addEdge(createBandwidthEdge("a", "e", 5000));
+        assertEqual(2, graph.findConstrainedPath("a", "e", gigabit).orElseThrow().getNodeIds().size(),
+                    "Compiled mask should be rebuilt for the new snapshot");
+        
+        System.out.println("  ✓ Passed\n");
+    }
+    
+    private void testLandmarkRouting() {
+        System.out.println("Test: Landmark Routing");
+        
+        NetworkGraph graph = new NetworkGraph();
+        Random random = new Random(11);
+        for (int i = 0; i < 60; i++) {
+            graph.addNode(createTestNode("n" + i, "10.0.0." + (i + 1)));
+        }
+        for (int i = 0; i < 180; i++) {
+            int from = random.nextInt(50);
+            int to = random.nextInt(50);
+            graph.addEdge(createTestEdge("n" + from, "n" + to, 1 + random.nextInt(30)));
+        }
+        
+        for (int i = 0; i < 60; i++) {
+            String source = "n" + random.nextInt(60);
+            String target = "n" + random.nextInt(60);
+            Optional<WeightedPath> dijkstra = graph.findLowestLatencyPath(source, target, RoutingMode.DIJKSTRA);
+            Optional<WeightedPath> alt = graph.findLowestLatencyPath(source, target, RoutingMode.ALT);
+            
+            assertEqual(dijkstra.isPresent() ? 1 : 0, alt.isPresent() ? 1 : 0, "ALT should agree on reachability");
+            if (dijkstra.isPresent()) {
+                assertEqual((int) dijkstra.get().getCost(), (int) alt.get().getCost(), "ALT should find optimal latency");
+            }
+        }
+        
+        GraphSnapshot snapshot = graph.snapshot();
+        LandmarkIndex landmarks = snapshot.getLandmarkIndex();
+        assertTrue(landmarks.getLandmarkCount() > 0, "Should select landmarks");
+        int source = snapshot.indexOf("n1");
+        int target = snapshot.indexOf("n2");
+        long exact = snapshot.lowestLatencyPath(source, target).map(WeightedPath::getCost).orElse(Long.MAX_VALUE);
+        assertTrue(landmarks.lowerBound(source, target) <= exact, "Landmark bound must be admissible");
+        
+        System.out.println("  ✓ Passed\n");
+    }
+    
+    private void testContractionHierarchy() {
+        System.out.println("Test: Contraction Hierarchy");
+        
+        NetworkGraph graph = new NetworkGraph();
+        Random random = new Random(23);
+        for (int i = 0; i < 80; i++) {
+            graph.addNode(createTestNode("n" + i, "10.0.1." + (i + 1)));
+        }
+        for (int i = 0; i < 260; i++) {
+            int from = random.nextInt(70);
+            int to = random.nextInt(70);
+            graph.addEdge(createTestEdge("n" + from, "n" + to, random.nextInt(25)));
+        }
+        
+        for (int i = 0; i < 120; i++) {
+            String source = "n" + random.nextInt(80);
+            String target = "n" + random.nextInt(80);
+            Optional<WeightedPath> dijkstra = graph.findLowestLatencyPath(source, target);
+            Optional<WeightedPath> hierarchy = graph.findLowestLatencyPath(source, target, RoutingMode.CONTRACTION_HIERARCHY);
+            
+            assertEqual(dijkstra.isPresent() ? 1 : 0, hierarchy.isPresent() ? 1 : 0, "CH should agree on reachability");
+            if (hierarchy.isPresent()) {
+                WeightedPath path = hierarchy.get();
+                assertEqual((int) dijkstra.get().getCost(), (int) path.getCost(), "CH should find optimal latency");
+                
+                int total = 0;
+                String at = source;
+                for (Edge edge : path.getEdges()) {
+                    assertEqual(at, edge.getSourceId(), "Unpacked edges should chain");
+                    at = edge.getTargetId();
+                    total += edge.getLatency();
+                }
+                assertEqual(target, at, "Unpacked path should end at the target");
+                assertEqual((int) path.getCost(), total, "Unpacked edges should add up to the cost");
+            }
+        }
+        
+        System.out.println("  ✓ Passed\n");
+    }
+    
+    private void testFailureImpact() {
+        System.out.println("Test: Failure Impact Analysis");
+        
+        NetworkGraph graph = new NetworkGraph();
+        for (int i = 0; i < 7; i++) {
+            graph.addNode(createTestNode("n" + i, "10.0.2." + (i + 1)));
+        }
+        graph.addEdge(createTestEdge("n0", "n1"));
+        graph.addEdge(createTestEdge("n1", "n2"));
+        graph.addEdge(createTestEdge("n2", "n0"));
+        graph.addEdge(createTestEdge("n2", "n3"));
+        graph.addEdge(createTestEdge("n3", "n4"));
+        graph.addEdge(createTestEdge("n4", "n3"));
+        graph.addEdge(createTestEdge("n5", "n4"));
+        
+        Set<String> points = new HashSet<>();
+        graph.findArticulationPoints().forEach(node -> points.add(node.getId()));
+        assertTrue(points.equals(Set.of("n2", "n3", "n4")), "n2, n3 and n4 should be cut nodes");
+        assertEqual(3, graph.findBridges().size(), "Should find 3 bridges despite the n3-n4 edge pair");
+        assertEqual(11, (int) graph.getFailureImpact("n2"), "Losing n2 splits 6 nodes into 2 and 3");
+        assertEqual(5, (int) graph.getFailureImpact("n0"), "Losing n0 only loses its own pairs");
+        assertEqual(0, (int) graph.getFailureImpact("n6"), "Isolated node has no impact");
+        assertEqual(-1, (int) graph.getFailureImpact("missing"), "Unknown node has no impact");
+        
+        List<ScenarioImpact> impacts = graph.simulateFailures(List.of(
+            FailureScenario.linkFailure("n4", "n3"),
+            FailureScenario.linkFailure("n0", "n1"),
+            FailureScenario.builder("maintenance").failNode("n0").failLink("n3", "n4").build()));
+        assertEqual(15, (int) impacts.get(0).getBaselinePairs(), "Baseline should count 15 connected pairs");
+        assertEqual(8, (int) impacts.get(0).getLostPairs(), "Cutting n3-n4 should lose 8 pairs");
+        assertEqual(3, impacts.get(0).getComponentCount(), "Cutting n3-n4 should leave 3 segments");
+        assertEqual(0, (int) impacts.get(1).getLostPairs(), "Triangle link is redundant");
+        assertEqual(11, (int) impacts.get(2).getLostPairs(), "Combined failure should leave pairs in {n1,n2,n3} and {n4,n5}");
+        
+        try {
+            graph.simulateFailures(List.of(FailureScenario.linkFailure("n0", "n5")));
+            throw new AssertionError("Unknown link should be rejected");
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+        
+        NetworkGraph random = new NetworkGraph();
+        Random generator = new Random(31);
+        for (int i = 0; i < 60; i++) {
+            random.addNode(createTestNode("r" + i, "10.0.3." + (i + 1)));
+        }
+        for (int i = 0; i < 75; i++) {
+            random.addEdge(createTestEdge("r" + generator.nextInt(60), "r" + generator.nextInt(60)));
+        }
+        
+        List<FailureScenario> scenarios = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            scenarios.add(FailureScenario.nodeFailure("r" + i));
+        }
+        List<ScenarioImpact> simulated = random.simulateFailures(scenarios);
+        for (int i = 0; i < 60; i++) {
+            assertEqual((int) simulated.get(i).getLostPairs(), (int) random.getFailureImpact("r" + i),
+                "Linear-time impact should match simulation");
+        }
+        
+        List<Edge> bridges = random.findBridges();
+        List<FailureScenario> linkScenarios = new ArrayList<>();
+        for (Edge edge : bridges) {
+            linkScenarios.add(FailureScenario.linkFailure(edge.getSourceId(), edge.getTargetId()));
+        }
+        for (ScenarioImpact impact : random.simulateFailures(linkScenarios)) {
+            assertTrue(impact.getLostPairs() > 0, "Every bridge should disconnect pairs");
+        }
+        
+        System.out.println("  ✓ Passed\n");
+    }
+    
+    private void testSpanningForest() {
+        System.out.println("Test: Spanning Forest");
+        
+        NetworkGraph graph = new NetworkGraph();
+        for (int i = 0; i < 5; i++) {
+            graph.addNode(createTestNode("n" + i, "10.0.4." + (i + 1)));
+        }
+        graph.addEdge(createTestEdge("n0", "n1", 4));
+        graph.addEdge(createTestEdge("n1", "n2", 1));
+        graph.addEdge(createTestEdge("n2", "n0", 2));
+        graph.addEdge(createTestEdge("n1", "n0", 9));
+        graph.addEdge(createBandwidthEdge("n3", "n0", 500));
+        graph.addEdge(createBandwidthEdge("n0", "n3", 50));
+        
+        SpanningForest latency = graph.computeSpanningForest(SpanningCriterion.MIN_LATENCY);
+        assertEqual(3, latency.getEdges().size(), "Forest over 4 linked nodes has 3 edges");
+        assertEqual(13, (int) latency.getTotalCost(), "Should pick latencies 1, 2 and 10");
+        assertEqual(2, latency.getTreeCount(), "n4 stays a separate tree");
+        assertFalse(latency.isSpanningTree(), "Disconnected topology has no spanning tree");
+        
+        SpanningForest bandwidth = graph.computeSpanningForest(SpanningCriterion.MAX_BANDWIDTH);
+        assertEqual(700, (int) bandwidth.getTotalCost(), "Should keep the 500 link to n3");
+        
+        NetworkGraph random = new NetworkGraph();
+        Random generator = new Random(41);
+        for (int i = 0; i < 200; i++) {
+            random.addNode(createTestNode("r" + i, "10.0.5." + (i + 1)));
+        }
+        for (int i = 0; i < 900; i++) {
+            random.addEdge(createTestEdge("r" + generator.nextInt(200), "r" + generator.nextInt(200), generator.nextInt(8)));
+        }
+        
+        MinimumSpanningForest engine = new MinimumSpanningForest(random.snapshot());
+        for (SpanningCriterion criterion : SpanningCriterion.values()) {
+            SpanningForest kruskal = engine.computeKruskal(criterion);
+            SpanningForest boruvka = engine.computeBoruvka(criterion);
+            assertEqual((int) kruskal.getTotalCost(), (int) boruvka.getTotalCost(), "Boruvka should match Kruskal");
+            assertEqual(kruskal.getTreeCount(), boruvka.getTreeCount(), "Both should span the same trees");
+            assertTrue(new HashSet<>(kruskal.getEdges()).equals(new HashSet<>(boruvka.getEdges())),
+                "Unique edge keys should make both forests identical");
+        }
+        
+        System.out.println("  ✓ Passed\n");
+    }
+    
+    private void testSubgraphExtraction() {
+        System.out.println("Test: Subgraph Extraction");
+        
+        NetworkGraph graph = new NetworkGraph();
+        String[] chain = {"hub", "a", "b", "c", "d", "x"};
+        for (int i = 0; i < chain.length; i++) {
+            graph.addNode(createTestNode(chain[i], "10.0.6." + (i + 1)));
+        }
+        for (int i = 0; i < 50; i++) {
+            graph.addNode(createTestNode("leaf" + i, "10.0.7." + (i + 1)));
+            graph.addEdge(createTestEdge("hub", "leaf" + i));
+        }
+        graph.addEdge(createTestEdge("hub", "a"));
+        graph.addEdge(createTestEdge("a", "b"));
+        graph.addEdge(createTestEdge("b", "c"));
+        graph.addEdge(createTestEdge("c", "d"));
+        graph.addEdge(createTestEdge("x", "hub"));
+        
+        assertEqual(1, (int) graph.streamNeighborhood("hub", 0).count(), "Zero hops is just the center");
+        assertEqual(53, (int) graph.streamNeighborhood("hub", 1).count(), "One hop covers both directions");
+        assertEqual(55, (int) graph.streamNeighborhood("hub", 3).count(), "Three hops reach c but not d");
+        assertEqual("hub", graph.streamNeighborhood("hub", 5).findFirst().get().getId(), "Center comes first");
+        assertEqual(0, (int) graph.streamNeighborhood("missing", 2).count(), "Unknown center streams nothing");
+        
+        Subgraph full = graph.extractSubgraph("hub", 2).get();
+        assertEqual(54, full.getGraph().getNodeCount(), "Two hops add b");
+        assertEqual(53, full.getGraph().getEdgeCount(), "Induced edges exclude b-c");
+        assertFalse(full.isTruncated(), "Within default caps");
+        assertTrue(full.getGraph().hasPath("x", "b"), "Copy should be a working graph");
+        
+        Subgraph capped = graph.extractSubgraph("hub", 3, 10, 100).get();
+        assertEqual(10, capped.getGraph().getNodeCount(), "Node cap should hold");
+        assertTrue(capped.getGraph().getNode("hub").isPresent(), "Center is always kept");
+        assertTrue(capped.isTruncated(), "Node cap should flag truncation");
+        
+        Subgraph thin = graph.extractSubgraph("hub", 1, 100, 5).get();
+        assertEqual(5, thin.getGraph().getEdgeCount(), "Edge cap should hold");
+        assertTrue(thin.isTruncated(), "Edge cap should flag truncation");
+        assertFalse(graph.extractSubgraph("missing", 1).isPresent(), "Unknown center has no subgraph");
+        
+        System.out.println("  ✓ Passed\n");
+    }
+    
+    private void testRetiredSnapshotsReleased() {
+        System.out.println("Test: Retired Snapshots Released");
+        
+        NetworkGraph graph = new NetworkGraph();
+        for (int i = 0; i < 200; i++) {
+            graph.addNode(createTestNode("r" + i, "10.3.0.1"));
+            if (i > 0) {
+                graph.addEdge(createTestEdge("r" + (i - 1), "r" + i));
+            }
+        }
+        
+        List<WeakReference<GraphSnapshot>> retired = new ArrayList<>();
+        for (int round = 0; round < 20; round++) {
+            retired.add(new WeakReference<>(graph.snapshot()));
+            assertTrue(graph.hasPath("r0", "r199"), "Chain should be connected");
+            graph.findShortestPath("r0", "r199", PathSearchMode.BIDIRECTIONAL);
+            graph.findLowestLatencyPath("r0", "r199");
+            graph.findLowestLatencyPath("r0", "r199", RoutingMode.CONTRACTION_HIERARCHY);
+            graph.findKShortestPaths("r0", "r199", 2);
+            graph.findWidestPath("r0", "r199");
+            graph.addEdge(createTestEdge("r" + round, "r" + (round + 2)));
+        }
+        assertTrue(graph.hasPath("r0", "r199"), "Latest version should still answer");
+        
+        for (int attempt = 0; attempt < 20 && retired.stream().anyMatch(ref -> ref.get() != null); attempt++) {
+            System.gc();
+        }
+        assertTrue(retired.stream().allMatch(ref -> ref.get() == null),
+                   "Per-thread query state should not keep replaced snapshots reachable");
+        
+        System.out.println("  ✓ Passed\n");
+    }
+    
     private Node createTestNode(String id, String ip) {
         return Node.builder()
             .id(id)
@@ -124,15 +841,29 @@ public class NetworkGraphTest {
     }
     
     private Edge createTestEdge(String from, String to) {
+        return createTestEdge(from, to, 10);
+    }
+    
+    private Edge createTestEdge(String from, String to, int latency) {
         return Edge.builder()
             .sourceId(from)
             .targetId(to)
             .bandwidth(100)
-            .latency(10)
+            .latency(latency)
             .connectionType(ConnectionType.ETHERNET)
             .build();
     }
     
+    private Edge createBandwidthEdge(String from, String to, int bandwidth) {
+        return Edge.builder()
+            .sourceId(from)
+            .targetId(to)
+            .bandwidth(bandwidth)
+            .latency(10)
+            .connectionType(ConnectionType.FIBER)
+            .build();
+    }
+    
     private void assertTrue(boolean condition, String message) {
         if (!condition) {
             throw new AssertionError("Assertion failed: " + message);
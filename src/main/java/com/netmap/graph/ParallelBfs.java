@@ -0,0 +1,261 @@
+package com.netmap.graph;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public final class ParallelBfs {
+    
+    private static final int ALPHA = 14;
+    private static final int BETA = 24;
+    private static final int TOP_DOWN_GRAIN = 1024;
+    private static final int BOTTOM_UP_GRAIN_WORDS = 64;
+    
+    private final GraphSnapshot graph;
+    private final ForkJoinPool pool;
+    
+    public ParallelBfs(GraphSnapshot graph) {
+        this(graph, ForkJoinPool.commonPool());
+    }
+    
+    public ParallelBfs(GraphSnapshot graph, ForkJoinPool pool) {
+        this.graph = Objects.requireNonNull(graph, "Graph cannot be null");
+        this.pool = Objects.requireNonNull(pool, "Pool cannot be null");
+    }
+    
+    public HopDistances run(int source) {
+        int nodeCount = graph.getNodeCount();
+        int words = (nodeCount + 63) >>> 6;
+        
+        int[] distances = new int[nodeCount];
+        Arrays.fill(distances, -1);
+        AtomicLongArray visited = new AtomicLongArray(words);
+        
+        distances[source] = 0;
+        visited.set(source >>> 6, 1L << source);
+        
+        int[] frontier = new int[nodeCount];
+        int[] next = new int[nodeCount];
+        long[] frontierBits = null;
+        frontier[0] = source;
+        
+        int frontierSize = 1;
+        long frontierEdges = graph.getOutDegree(source);
+        long unexploredEdges = graph.getEdgeCount() - frontierEdges;
+        boolean bottomUp = false;
+        boolean frontierAsList = true;
+        int depth = 0;
+        int reached = 1;
+        
+        while (frontierSize > 0) {
+            // Direction-optimizing switch: pull from unvisited nodes once the frontier
+            // touches a large share of the remaining edges, push again once it shrinks
+            if (!bottomUp && frontierEdges > unexploredEdges / ALPHA) {
+                bottomUp = true;
+            } else if (bottomUp && frontierSize < nodeCount / BETA) {
+                bottomUp = false;
+            }
+            
+            Step step;
+            if (bottomUp) {
+                if (frontierAsList) {
+                    frontierBits = toBits(frontier, frontierSize, words);
+                }
+                long[] nextBits = new long[words];
+                step = new BottomUpStep(visited, distances, frontierBits, nextBits, depth + 1, 0, words);
+                pool.invoke(step);
+                frontierBits = nextBits;
+                frontierAsList = false;
+            } else {
+                if (!frontierAsList) {
+                    frontierSize = toList(frontierBits, frontier);
+                }
+                AtomicInteger tail = new AtomicInteger();
+                step = new TopDownStep(visited, distances, frontier, next, tail, depth + 1, 0, frontierSize);
+                pool.invoke(step);
+                int[] swap = frontier;
+                frontier = next;
+                next = swap;
+                frontierAsList = true;
+            }
+            
+            frontierSize = step.found;
+            frontierEdges = step.edges;
+            unexploredEdges -= frontierEdges;
+            reached += frontierSize;
+            if (frontierSize > 0) {
+                depth++;
+            }
+        }
+        
+        return new HopDistances(graph, source, distances, reached, depth);
+    }
+    
+    private static long[] toBits(int[] list, int size, int words) {
+        long[] bits = new long[words];
+        for (int i = 0; i < size; i++) {
+            bits[list[i] >>> 6] |= 1L << list[i];
+        }
+        return bits;
+    }
+    
+    private static int toList(long[] bits, int[] list) {
+        int size = 0;
+        for (int w = 0; w < bits.length; w++) {
+            long word = bits[w];
+            while (word != 0) {
+                list[size++] = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return size;
+    }
+    
+    private abstract static class Step extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        
+        int found;
+        long edges;
+    }
+    
+    private final class TopDownStep extends Step {
+        
+        private static final long serialVersionUID = 1L;
+        
+        private final AtomicLongArray visited;
+        private final int[] distances;
+        private final int[] frontier;
+        private final int[] next;
+        private final AtomicInteger tail;
+        private final int depth;
+        private final int from;
+        private final int to;
+        
+        TopDownStep(AtomicLongArray visited, int[] distances, int[] frontier, int[] next,
+                    AtomicInteger tail, int depth, int from, int to) {
+            this.visited = visited;
+            this.distances = distances;
+            this.frontier = frontier;
+            this.next = next;
+            this.tail = tail;
+            this.depth = depth;
+            this.from = from;
+            this.to = to;
+        }
+        
+        @Override
+        protected void compute() {
+            if (to - from > TOP_DOWN_GRAIN) {
+                int middle = (from + to) >>> 1;
+                TopDownStep left = new TopDownStep(visited, distances, frontier, next, tail, depth, from, middle);
+                TopDownStep right = new TopDownStep(visited, distances, frontier, next, tail, depth, middle, to);
+                invokeAll(left, right);
+                found = left.found + right.found;
+                edges = left.edges + right.edges;
+                return;
+            }
+            
+            int[] local = new int[Math.min(64, graph.getNodeCount())];
+            int size = 0;
+            for (int i = from; i < to; i++) {
+                int current = frontier[i];
+                for (int e = graph.edgeStart(current), end = graph.edgeEnd(current); e < end; e++) {
+                    int neighbor = graph.getTarget(e);
+                    if (claim(visited, neighbor)) {
+                        distances[neighbor] = depth;
+                        edges += graph.getOutDegree(neighbor);
+                        if (size == local.length) {
+                            local = Arrays.copyOf(local, size * 2);
+                        }
+                        local[size++] = neighbor;
+                    }
+                }
+            }
+            
+            int start = tail.getAndAdd(size);
+            System.arraycopy(local, 0, next, start, size);
+            found = size;
+        }
+    }
+    
+    private final class BottomUpStep extends Step {
+        
+        private static final long serialVersionUID = 1L;
+        
+        private final AtomicLongArray visited;
+        private final int[] distances;
+        private final long[] frontierBits;
+        private final long[] nextBits;
+        private final int depth;
+        private final int fromWord;
+        private final int toWord;
+        
+        BottomUpStep(AtomicLongArray visited, int[] distances, long[] frontierBits, long[] nextBits,
+                     int depth, int fromWord, int toWord) {
+            this.visited = visited;
+            this.distances = distances;
+            this.frontierBits = frontierBits;
+            this.nextBits = nextBits;
+            this.depth = depth;
+            this.fromWord = fromWord;
+            this.toWord = toWord;
+        }
+        
+        @Override
+        protected void compute() {
+            if (toWord - fromWord > BOTTOM_UP_GRAIN_WORDS) {
+                int middle = (fromWord + toWord) >>> 1;
+                BottomUpStep left = new BottomUpStep(visited, distances, frontierBits, nextBits, depth, fromWord, middle);
+                BottomUpStep right = new BottomUpStep(visited, distances, frontierBits, nextBits, depth, middle, toWord);
+                invokeAll(left, right);
+                found = left.found + right.found;
+                edges = left.edges + right.edges;
+                return;
+            }
+            
+            // Each task owns whole bitset words, so the words it updates are never shared
+            int nodeCount = graph.getNodeCount();
+            for (int w = fromWord; w < toWord; w++) {
+                long seen = visited.get(w);
+                long discovered = 0;
+                long candidates = ~seen;
+                while (candidates != 0) {
+                    int node = (w << 6) + Long.numberOfTrailingZeros(candidates);
+                    candidates &= candidates - 1;
+                    if (node >= nodeCount) break;
+                    
+                    for (int i = graph.inEdgeStart(node), end = graph.inEdgeEnd(node); i < end; i++) {
+                        int parent = graph.getInSource(i);
+                        if ((frontierBits[parent >>> 6] & (1L << parent)) != 0) {
+                            discovered |= 1L << node;
+                            distances[node] = depth;
+                            edges += graph.getOutDegree(node);
+                            found++;
+                            break;
+                        }
+                    }
+                }
+                if (discovered != 0) {
+                    visited.set(w, seen | discovered);
+                    nextBits[w] = discovered;
+                }
+            }
+        }
+    }
+    
+    private static boolean claim(AtomicLongArray visited, int node) {
+        int word = node >>> 6;
+        long bit = 1L << node;
+        long current = visited.get(word);
+        while ((current & bit) == 0) {
+            if (visited.compareAndSet(word, current, current | bit)) {
+                return true;
+            }
+            current = visited.get(word);
+        }
+        return false;
+    }
+}
\ No newline at end of file
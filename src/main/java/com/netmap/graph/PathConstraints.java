@@ -0,0 +1,134 @@
+package com.netmap.graph;
+
+import com.netmap.core.domain.ConnectionType;
+import com.netmap.core.domain.Edge;
+
+import java.util.BitSet;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+
+public final class PathConstraints {
+    
+    private final int minBandwidth;
+    private final long maxLatency;
+    private final Set<ConnectionType> allowedTypes;
+    private final Predicate<Edge> edgeFilter;
+    private volatile CompiledMask compiled;
+    
+    private PathConstraints(Builder builder) {
+        this.minBandwidth = builder.minBandwidth;
+        this.maxLatency = builder.maxLatency;
+        this.allowedTypes = EnumSet.copyOf(builder.allowedTypes);
+        this.edgeFilter = builder.edgeFilter;
+    }
+    
+    public static Builder builder() {
+        return new Builder();
+    }
+    
+    public int getMinBandwidth() {
+        return minBandwidth;
+    }
+    
+    public long getMaxLatency() {
+        return maxLatency;
+    }
+    
+    public Set<ConnectionType> getAllowedTypes() {
+        return EnumSet.copyOf(allowedTypes);
+    }
+    
+    public boolean hasLatencyBudget() {
+        return maxLatency != LatencyRouter.INFINITE;
+    }
+    
+    long[] edgeMask(GraphSnapshot snapshot) {
+        CompiledMask current = compiled;
+        if (current != null && current.snapshot == snapshot) {
+            return current.words;
+        }
+        
+        long[] words = compile(snapshot);
+        compiled = new CompiledMask(snapshot, words);
+        return words;
+    }
+    
+    private long[] compile(GraphSnapshot snapshot) {
+        int edgeCount = snapshot.getEdgeCount();
+        TypeIndex typeIndex = snapshot.getTypeIndex();
+        
+        BitSet allowed = new BitSet(edgeCount);
+        for (ConnectionType type : allowedTypes) {
+            allowed.or(typeIndex.edgeBits(type));
+        }
+        
+        // Only edges that survive the type filter pay for the bandwidth and predicate checks
+        if (minBandwidth > 0 || edgeFilter != null) {
+            for (int e = allowed.nextSetBit(0); e >= 0; e = allowed.nextSetBit(e + 1)) {
+                if (snapshot.getBandwidth(e) < minBandwidth
+                        || (edgeFilter != null && !edgeFilter.test(snapshot.getEdge(e)))) {
+                    allowed.clear(e);
+                }
+            }
+        }
+        
+        long[] words = new long[(edgeCount + 63) >>> 6];
+        long[] set = allowed.toLongArray();
+        System.arraycopy(set, 0, words, 0, set.length);
+        return words;
+    }
+    
+    private static final class CompiledMask {
+        
+        private final GraphSnapshot snapshot;
+        private final long[] words;
+        
+        CompiledMask(GraphSnapshot snapshot, long[] words) {
+            this.snapshot = snapshot;
+            this.words = words;
+        }
+    }
+    
+    public static class Builder {
+        private int minBandwidth;
+        private long maxLatency = LatencyRouter.INFINITE;
+        private Set<ConnectionType> allowedTypes = EnumSet.allOf(ConnectionType.class);
+        private Predicate<Edge> edgeFilter;
+        
+        public Builder minBandwidth(int minBandwidth) {
+            if (minBandwidth < 0) throw new IllegalArgumentException("Minimum bandwidth cannot be negative");
+            this.minBandwidth = minBandwidth;
+            return this;
+        }
+        
+        public Builder maxLatency(long maxLatency) {
+            if (maxLatency < 0) throw new IllegalArgumentException("Latency budget cannot be negative");
+            this.maxLatency = maxLatency;
+            return this;
+        }
+        
+        public Builder allowedTypes(Set<ConnectionType> allowedTypes) {
+            this.allowedTypes = EnumSet.noneOf(ConnectionType.class);
+            this.allowedTypes.addAll(Objects.requireNonNull(allowedTypes));
+            return this;
+        }
+        
+        public Builder excludeTypes(ConnectionType... types) {
+            for (ConnectionType type : types) {
+                allowedTypes.remove(type);
+            }
+            return this;
+        }
+        
+        public Builder edgeFilter(Predicate<Edge> edgeFilter) {
+            this.edgeFilter = Objects.requireNonNull(edgeFilter);
+            return this;
+        }
+        
+        public PathConstraints build() {
+            return new PathConstraints(this);
+        }
+    }
+}
\ No newline at end of file
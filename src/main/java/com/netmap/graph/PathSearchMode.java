@@ -0,0 +1,16 @@
+package com.netmap.graph;
+
+public enum PathSearchMode {
+    BREADTH_FIRST("Breadth-First"),
+    BIDIRECTIONAL("Bidirectional");
+    
+    private final String displayName;
+    
+    PathSearchMode(String displayName) {
+        this.displayName = displayName;
+    }
+    
+    public String getDisplayName() {
+        return displayName;
+    }
+}
\ No newline at end of file
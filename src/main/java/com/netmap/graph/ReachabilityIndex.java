@@ -0,0 +1,224 @@
+package com.netmap.graph;
+
+import java.util.Arrays;
+
+public final class ReachabilityIndex {
+    
+    private final StronglyConnectedComponents components;
+    private final int[] outLabelOffsets;
+    private final int[] outLabels;
+    private final int[] inLabelOffsets;
+    private final int[] inLabels;
+    
+    ReachabilityIndex(GraphSnapshot graph, StronglyConnectedComponents components) {
+        this.components = components;
+        
+        int count = components.getComponentCount();
+        int[] successorOffsets = new int[count + 1];
+        int[] predecessorOffsets = new int[count + 1];
+        int[][] dag = condense(graph, components, successorOffsets, predecessorOffsets);
+        int[] successors = dag[0];
+        int[] predecessors = dag[1];
+        
+        LabelBuilder outBuilder = new LabelBuilder(count);
+        LabelBuilder inBuilder = new LabelBuilder(count);
+        int[] queue = new int[count];
+        int[] marks = new int[count];
+        
+        // Pruned landmark labeling: hubs are processed from the best-connected component down,
+        // and a search stops wherever the labels collected so far already answer the query
+        int[] ranking = rankByDegree(successorOffsets, predecessorOffsets);
+        for (int rank = 0; rank < count; rank++) {
+            int hub = ranking[rank];
+            int epoch = 2 * rank + 1;
+            
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = hub;
+            marks[hub] = epoch;
+            while (head < tail) {
+                int current = queue[head++];
+                if (current != hub && intersects(outBuilder, hub, inBuilder, current)) continue;
+                inBuilder.add(current, rank);
+                for (int i = successorOffsets[current]; i < successorOffsets[current + 1]; i++) {
+                    int next = successors[i];
+                    if (marks[next] != epoch) {
+                        marks[next] = epoch;
+                        queue[tail++] = next;
+                    }
+                }
+            }
+            
+            epoch++;
+            head = 0;
+            tail = 0;
+            queue[tail++] = hub;
+            marks[hub] = epoch;
+            while (head < tail) {
+                int current = queue[head++];
+                if (current != hub && intersects(outBuilder, current, inBuilder, hub)) continue;
+                outBuilder.add(current, rank);
+                for (int i = predecessorOffsets[current]; i < predecessorOffsets[current + 1]; i++) {
+                    int next = predecessors[i];
+                    if (marks[next] != epoch) {
+                        marks[next] = epoch;
+                        queue[tail++] = next;
+                    }
+                }
+            }
+        }
+        
+        this.outLabelOffsets = new int[count + 1];
+        this.outLabels = outBuilder.flatten(outLabelOffsets);
+        this.inLabelOffsets = new int[count + 1];
+        this.inLabels = inBuilder.flatten(inLabelOffsets);
+    }
+    
+    public boolean isReachable(int source, int target) {
+        int from = components.getComponent(source);
+        int to = components.getComponent(target);
+        if (from == to) return true;
+        
+        int i = outLabelOffsets[from];
+        int iEnd = outLabelOffsets[from + 1];
+        int j = inLabelOffsets[to];
+        int jEnd = inLabelOffsets[to + 1];
+        while (i < iEnd && j < jEnd) {
+            int a = outLabels[i];
+            int b = inLabels[j];
+            if (a == b) return true;
+            if (a < b) i++;
+            else j++;
+        }
+        return false;
+    }
+    
+    public StronglyConnectedComponents getComponents() {
+        return components;
+    }
+    
+    private static int[][] condense(GraphSnapshot graph, StronglyConnectedComponents components,
+                                    int[] successorOffsets, int[] predecessorOffsets) {
+        int count = components.getComponentCount();
+        int nodeCount = graph.getNodeCount();
+        
+        int[] memberOffsets = new int[count + 1];
+        for (int node = 0; node < nodeCount; node++) {
+            memberOffsets[components.getComponent(node) + 1]++;
+        }
+        for (int c = 0; c < count; c++) {
+            memberOffsets[c + 1] += memberOffsets[c];
+        }
+        int[] members = new int[nodeCount];
+        int[] cursor = Arrays.copyOf(memberOffsets, count);
+        for (int node = 0; node < nodeCount; node++) {
+            members[cursor[components.getComponent(node)]++] = node;
+        }
+        
+        int[] seen = new int[count];
+        Arrays.fill(seen, -1);
+        int[] successors = new int[Math.max(16, count)];
+        int size = 0;
+        for (int c = 0; c < count; c++) {
+            successorOffsets[c] = size;
+            for (int m = memberOffsets[c]; m < memberOffsets[c + 1]; m++) {
+                int node = members[m];
+                for (int e = graph.edgeStart(node), end = graph.edgeEnd(node); e < end; e++) {
+                    int next = components.getComponent(graph.getTarget(e));
+                    if (next == c || seen[next] == c) continue;
+                    seen[next] = c;
+                    if (size == successors.length) {
+                        successors = Arrays.copyOf(successors, size * 2);
+                    }
+                    successors[size++] = next;
+                    predecessorOffsets[next + 1]++;
+                }
+            }
+        }
+        successorOffsets[count] = size;
+        
+        for (int c = 0; c < count; c++) {
+            predecessorOffsets[c + 1] += predecessorOffsets[c];
+        }
+        int[] predecessors = new int[size];
+        int[] fill = Arrays.copyOf(predecessorOffsets, count);
+        for (int c = 0; c < count; c++) {
+            for (int i = successorOffsets[c]; i < successorOffsets[c + 1]; i++) {
+                predecessors[fill[successors[i]]++] = c;
+            }
+        }
+        
+        return new int[][] { Arrays.copyOf(successors, size), predecessors };
+    }
+    
+    private static int[] rankByDegree(int[] successorOffsets, int[] predecessorOffsets) {
+        int count = successorOffsets.length - 1;
+        long[] keys = new long[count];
+        for (int c = 0; c < count; c++) {
+            long out = successorOffsets[c + 1] - successorOffsets[c];
+            long in = predecessorOffsets[c + 1] - predecessorOffsets[c];
+            long weight = Math.min((out + 1) * (in + 1), Integer.MAX_VALUE);
+            keys[c] = (-weight << 32) | c;
+        }
+        Arrays.sort(keys);
+        
+        int[] ranking = new int[count];
+        for (int i = 0; i < count; i++) {
+            ranking[i] = (int) keys[i];
+        }
+        return ranking;
+    }
+    
+    private static boolean intersects(LabelBuilder outBuilder, int from, LabelBuilder inBuilder, int to) {
+        int[] out = outBuilder.labels[from];
+        int[] in = inBuilder.labels[to];
+        int outSize = outBuilder.sizes[from];
+        int inSize = inBuilder.sizes[to];
+        int i = 0;
+        int j = 0;
+        while (i < outSize && j < inSize) {
+            if (out[i] == in[j]) return true;
+            if (out[i] < in[j]) i++;
+            else j++;
+        }
+        return false;
+    }
+    
+    private static final class LabelBuilder {
+        
+        private static final int[] EMPTY = new int[0];
+        
+        private final int[][] labels;
+        private final int[] sizes;
+        
+        LabelBuilder(int count) {
+            this.labels = new int[count][];
+            this.sizes = new int[count];
+            Arrays.fill(labels, EMPTY);
+        }
+        
+        void add(int component, int rank) {
+            int[] current = labels[component];
+            if (sizes[component] == current.length) {
+                current = Arrays.copyOf(current, Math.max(4, current.length * 2));
+                labels[component] = current;
+            }
+            current[sizes[component]++] = rank;
+        }
+        
+        int[] flatten(int[] offsets) {
+            int total = 0;
+            for (int c = 0; c < sizes.length; c++) {
+                offsets[c] = total;
+                total += sizes[c];
+            }
+            offsets[sizes.length] = total;
+            
+            int[] flat = new int[total];
+            for (int c = 0; c < sizes.length; c++) {
+                System.arraycopy(labels[c], 0, flat, offsets[c], sizes[c]);
+            }
+            return flat;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,132 @@
+package com.netmap.graph;
+
+import com.netmap.core.domain.ConnectionType;
+import com.netmap.core.domain.Edge;
+import com.netmap.core.domain.Node;
+import com.netmap.core.domain.NodeType;
+
+import java.util.Random;
+
+public class RoutingBenchmark {
+    
+    private static final int GRID_SIDE = 300;
+    private static final int QUERIES = 500;
+    
+    public static void main(String[] args) {
+        int side = args.length > 0 ? Integer.parseInt(args[0]) : GRID_SIDE;
+        int queries = args.length > 1 ? Integer.parseInt(args[1]) : QUERIES;
+        
+        System.out.println("================================================================================");
+        System.out.println("                         NETMAP ROUTING BENCHMARK");
+        System.out.println("================================================================================\n");
+        
+        long start = System.nanoTime();
+        GraphSnapshot snapshot = buildWan(side, new Random(42)).snapshot();
+        System.out.printf("Topology: %d nodes, %d links (built in %d ms)%n",
+            snapshot.getNodeCount(), snapshot.getEdgeCount(), millisSince(start));
+        
+        start = System.nanoTime();
+        LandmarkIndex landmarks = snapshot.getLandmarkIndex();
+        System.out.printf("Landmarks: %d selected in %d ms%n", landmarks.getLandmarkCount(), millisSince(start));
+        
+        start = System.nanoTime();
+        ContractionHierarchy hierarchy = snapshot.getContractionHierarchy();
+        System.out.printf("Hierarchy: %d shortcuts contracted in %d ms%n%n", hierarchy.getShortcutCount(), millisSince(start));
+        
+        Random random = new Random(7);
+        int[] sources = new int[queries];
+        int[] targets = new int[queries];
+        for (int i = 0; i < queries; i++) {
+            sources[i] = random.nextInt(snapshot.getNodeCount());
+            targets[i] = random.nextInt(snapshot.getNodeCount());
+        }
+        
+        LatencyRouter router = snapshot.latencyRouter();
+        long[] dijkstraCosts = new long[queries];
+        long dijkstraSettled = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < queries; i++) {
+            dijkstraCosts[i] = router.search(snapshot, sources[i], targets[i]);
+            dijkstraSettled += router.getSettledCount();
+        }
+        long dijkstraMillis = millisSince(start);
+        
+        long altSettled = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < queries; i++) {
+            long cost = router.search(snapshot, sources[i], targets[i], landmarks.heuristicTo(targets[i]));
+            if (cost != dijkstraCosts[i]) {
+                throw new IllegalStateException("ALT cost mismatch for query " + i);
+            }
+            altSettled += router.getSettledCount();
+        }
+        long altMillis = millisSince(start);
+        
+        long hierarchySettled = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < queries; i++) {
+            long cost = hierarchy.shortestPath(sources[i], targets[i]).map(WeightedPath::getCost).orElse(LatencyRouter.UNREACHABLE);
+            if (cost != dijkstraCosts[i]) {
+                throw new IllegalStateException("Hierarchy cost mismatch for query " + i);
+            }
+            hierarchySettled += hierarchy.getSettledCount();
+        }
+        long hierarchyMillis = millisSince(start);
+        
+        report(RoutingMode.DIJKSTRA, queries, dijkstraSettled, dijkstraMillis);
+        report(RoutingMode.ALT, queries, altSettled, altMillis);
+        report(RoutingMode.CONTRACTION_HIERARCHY, queries, hierarchySettled, hierarchyMillis);
+        System.out.printf("%nSettled-node reduction: ALT %.1fx, CH %.1fx%n",
+            (double) dijkstraSettled / Math.max(1, altSettled),
+            (double) dijkstraSettled / Math.max(1, hierarchySettled));
+    }
+    
+    private static NetworkGraph buildWan(int side, Random random) {
+        NetworkGraph graph = new NetworkGraph();
+        GraphBatch batch = graph.newBatch();
+        
+        for (int i = 0; i < side * side; i++) {
+            batch.addNode(Node.builder()
+                .id("r" + i)
+                .name("Router-" + i)
+                .ipAddress("10." + (i >>> 16) + "." + ((i >>> 8) & 0xFF) + "." + (i & 0xFF))
+                .type(NodeType.ROUTER)
+                .build());
+        }
+        
+        for (int row = 0; row < side; row++) {
+            for (int col = 0; col < side; col++) {
+                int node = row * side + col;
+                if (col + 1 < side) link(batch, node, node + 1, 1 + random.nextInt(20));
+                if (row + 1 < side) link(batch, node, node + side, 1 + random.nextInt(20));
+            }
+        }
+        
+        batch.commit();
+        return graph;
+    }
+    
+    private static void link(GraphBatch batch, int a, int b, int latency) {
+        batch.addEdge(edge(a, b, latency));
+        batch.addEdge(edge(b, a, latency));
+    }
+    
+    private static Edge edge(int from, int to, int latency) {
+        return Edge.builder()
+            .sourceId("r" + from)
+            .targetId("r" + to)
+            .bandwidth(1000)
+            .latency(latency)
+            .connectionType(ConnectionType.FIBER)
+            .build();
+    }
+    
+    private static void report(RoutingMode mode, int queries, long settled, long millis) {
+        System.out.printf("%-24s avg settled: %10.1f | total: %6d ms%n",
+            mode.getDisplayName(), (double) settled / queries, millis);
+    }
+    
+    private static long millisSince(long start) {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.netmap.graph;
+
+public enum RoutingMode {
+    DIJKSTRA("Dijkstra"),
+    ALT("A* with Landmarks"),
+    CONTRACTION_HIERARCHY("Contraction Hierarchy");
+    
+    private final String displayName;
+    
+    RoutingMode(String displayName) {
+        this.displayName = displayName;
+    }
+    
+    public String getDisplayName() {
+        return displayName;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,44 @@
+package com.netmap.graph;
+
+import java.util.Objects;
+
+public final class ScenarioImpact {
+    
+    private final FailureScenario scenario;
+    private final long baselinePairs;
+    private final long connectedPairs;
+    private final int componentCount;
+    
+    public ScenarioImpact(FailureScenario scenario, long baselinePairs, long connectedPairs, int componentCount) {
+        this.scenario = Objects.requireNonNull(scenario);
+        this.baselinePairs = baselinePairs;
+        this.connectedPairs = connectedPairs;
+        this.componentCount = componentCount;
+    }
+    
+    public FailureScenario getScenario() {
+        return scenario;
+    }
+    
+    public long getBaselinePairs() {
+        return baselinePairs;
+    }
+    
+    public long getConnectedPairs() {
+        return connectedPairs;
+    }
+    
+    public long getLostPairs() {
+        return baselinePairs - connectedPairs;
+    }
+    
+    public int getComponentCount() {
+        return componentCount;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("ScenarioImpact{scenario='%s', lostPairs=%d, components=%d}",
+            scenario.getName(), getLostPairs(), componentCount);
+    }
+}
\ No newline at end of file
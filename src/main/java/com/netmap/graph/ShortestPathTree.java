@@ -0,0 +1,30 @@
+package com.netmap.graph;
+
+final class ShortestPathTree {
+    
+    private final int root;
+    private final long[] distances;
+    private final int[] nextEdges;
+    
+    ShortestPathTree(int root, long[] distances, int[] nextEdges) {
+        this.root = root;
+        this.distances = distances;
+        this.nextEdges = nextEdges;
+    }
+    
+    int getRoot() {
+        return root;
+    }
+    
+    long distanceFrom(int node) {
+        return distances[node];
+    }
+    
+    int nextEdge(int node) {
+        return nextEdges[node];
+    }
+    
+    long[] distances() {
+        return distances;
+    }
+}
\ No newline at end of file
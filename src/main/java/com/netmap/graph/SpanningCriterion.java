@@ -0,0 +1,16 @@
+package com.netmap.graph;
+
+public enum SpanningCriterion {
+    MIN_LATENCY("Minimum latency"),
+    MAX_BANDWIDTH("Maximum bandwidth");
+    
+    private final String displayName;
+    
+    SpanningCriterion(String displayName) {
+        this.displayName = displayName;
+    }
+    
+    public String getDisplayName() {
+        return displayName;
+    }
+}
\ No newline at end of file
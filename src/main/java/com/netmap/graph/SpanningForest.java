@@ -0,0 +1,47 @@
+package com.netmap.graph;
+
+import com.netmap.core.domain.Edge;
+
+import java.util.List;
+import java.util.Objects;
+
+public final class SpanningForest {
+    
+    private final SpanningCriterion criterion;
+    private final List<Edge> edges;
+    private final long totalCost;
+    private final int treeCount;
+    
+    public SpanningForest(SpanningCriterion criterion, List<Edge> edges, long totalCost, int treeCount) {
+        this.criterion = Objects.requireNonNull(criterion);
+        this.edges = List.copyOf(Objects.requireNonNull(edges));
+        this.totalCost = totalCost;
+        this.treeCount = treeCount;
+    }
+    
+    public SpanningCriterion getCriterion() {
+        return criterion;
+    }
+    
+    public List<Edge> getEdges() {
+        return edges;
+    }
+    
+    public long getTotalCost() {
+        return totalCost;
+    }
+    
+    public int getTreeCount() {
+        return treeCount;
+    }
+    
+    public boolean isSpanningTree() {
+        return treeCount <= 1;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("SpanningForest{criterion=%s, edges=%d, cost=%d, trees=%d}",
+            criterion, edges.size(), totalCost, treeCount);
+    }
+}
\ No newline at end of file
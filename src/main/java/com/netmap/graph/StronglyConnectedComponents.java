@@ -0,0 +1,86 @@
+package com.netmap.graph;
+
+import java.util.Arrays;
+
+public final class StronglyConnectedComponents {
+    
+    private final int[] componentOf;
+    private final int[] componentSizes;
+    
+    StronglyConnectedComponents(GraphSnapshot graph) {
+        int nodeCount = graph.getNodeCount();
+        int[] order = new int[nodeCount];
+        int[] low = new int[nodeCount];
+        int[] cursor = new int[nodeCount];
+        int[] stack = new int[nodeCount];
+        int[] callStack = new int[nodeCount];
+        boolean[] onStack = new boolean[nodeCount];
+        
+        this.componentOf = new int[nodeCount];
+        Arrays.fill(order, -1);
+        
+        int counter = 0;
+        int stackTop = 0;
+        int componentCount = 0;
+        int[] sizes = new int[Math.max(1, nodeCount)];
+        
+        for (int root = 0; root < nodeCount; root++) {
+            if (order[root] != -1) continue;
+            
+            int callTop = 0;
+            order[root] = low[root] = counter++;
+            cursor[root] = graph.edgeStart(root);
+            stack[stackTop++] = root;
+            onStack[root] = true;
+            callStack[callTop++] = root;
+            
+            while (callTop > 0) {
+                int current = callStack[callTop - 1];
+                
+                if (cursor[current] < graph.edgeEnd(current)) {
+                    int next = graph.getTarget(cursor[current]++);
+                    if (order[next] == -1) {
+                        order[next] = low[next] = counter++;
+                        cursor[next] = graph.edgeStart(next);
+                        stack[stackTop++] = next;
+                        onStack[next] = true;
+                        callStack[callTop++] = next;
+                    } else if (onStack[next]) {
+                        low[current] = Math.min(low[current], order[next]);
+                    }
+                    continue;
+                }
+                
+                callTop--;
+                if (low[current] == order[current]) {
+                    int member;
+                    do {
+                        member = stack[--stackTop];
+                        onStack[member] = false;
+                        componentOf[member] = componentCount;
+                        sizes[componentCount]++;
+                    } while (member != current);
+                    componentCount++;
+                }
+                if (callTop > 0) {
+                    int parent = callStack[callTop - 1];
+                    low[parent] = Math.min(low[parent], low[current]);
+                }
+            }
+        }
+        
+        this.componentSizes = Arrays.copyOf(sizes, componentCount);
+    }
+    
+    public int getComponentCount() {
+        return componentSizes.length;
+    }
+    
+    public int getComponent(int node) {
+        return componentOf[node];
+    }
+    
+    public int getComponentSize(int component) {
+        return componentSizes[component];
+    }
+}
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.netmap.graph;
+
+import java.util.Objects;
+
+public final class Subgraph {
+    
+    public static final int DEFAULT_MAX_NODES = 10_000;
+    public static final int DEFAULT_MAX_EDGES = 50_000;
+    
+    private final String centerId;
+    private final int hops;
+    private final NetworkGraph graph;
+    private final boolean truncated;
+    
+    public Subgraph(String centerId, int hops, NetworkGraph graph, boolean truncated) {
+        this.centerId = Objects.requireNonNull(centerId);
+        this.hops = hops;
+        this.graph = Objects.requireNonNull(graph);
+        this.truncated = truncated;
+    }
+    
+    public String getCenterId() {
+        return centerId;
+    }
+    
+    public int getHops() {
+        return hops;
+    }
+    
+    public NetworkGraph getGraph() {
+        return graph;
+    }
+    
+    public boolean isTruncated() {
+        return truncated;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("Subgraph{center='%s', hops=%d, nodes=%d, edges=%d, truncated=%s}",
+            centerId, hops, graph.getNodeCount(), graph.getEdgeCount(), truncated);
+    }
+}
\ No newline at end of file
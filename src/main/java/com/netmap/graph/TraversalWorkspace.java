@@ -0,0 +1,56 @@
+package com.netmap.graph;
+
+import java.util.Arrays;
+
+final class TraversalWorkspace {
+    
+    private static final ThreadLocal<TraversalWorkspace> WORKSPACES = ThreadLocal.withInitial(TraversalWorkspace::new);
+    
+    private int[] marks;
+    private int[] parent;
+    private int[] queue;
+    private int epoch;
+    
+    private TraversalWorkspace() {
+        resize(0);
+    }
+    
+    static TraversalWorkspace forThread(int nodeCount) {
+        TraversalWorkspace workspace = WORKSPACES.get();
+        if (nodeCount > workspace.marks.length) {
+            workspace.resize(Math.max(nodeCount, workspace.marks.length + (workspace.marks.length >> 1)));
+        }
+        return workspace;
+    }
+    
+    private void resize(int capacity) {
+        marks = new int[capacity];
+        parent = new int[capacity];
+        queue = new int[capacity];
+    }
+    
+    void reset() {
+        epoch++;
+        if (epoch == 0) {
+            Arrays.fill(marks, 0);
+            epoch = 1;
+        }
+    }
+    
+    boolean isVisited(int node) {
+        return marks[node] == epoch;
+    }
+    
+    void visit(int node, int from) {
+        marks[node] = epoch;
+        parent[node] = from;
+    }
+    
+    int parentOf(int node) {
+        return parent[node];
+    }
+    
+    int[] queue() {
+        return queue;
+    }
+}
\ No newline at end of file
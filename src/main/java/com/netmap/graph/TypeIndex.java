@@ -0,0 +1,99 @@
+package com.netmap.graph;
+
+import com.netmap.core.domain.ConnectionType;
+import com.netmap.core.domain.Edge;
+import com.netmap.core.domain.Node;
+import com.netmap.core.domain.NodeType;
+
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.IntFunction;
+
+public final class TypeIndex {
+    
+    private final GraphSnapshot snapshot;
+    private final Map<NodeType, BitSet> nodesByType;
+    private final Map<ConnectionType, BitSet> edgesByType;
+    
+    TypeIndex(GraphSnapshot snapshot) {
+        this.snapshot = snapshot;
+        this.nodesByType = new EnumMap<>(NodeType.class);
+        this.edgesByType = new EnumMap<>(ConnectionType.class);
+        
+        for (NodeType type : NodeType.values()) {
+            nodesByType.put(type, new BitSet(snapshot.getNodeCount()));
+        }
+        for (ConnectionType type : ConnectionType.values()) {
+            edgesByType.put(type, new BitSet(snapshot.getEdgeCount()));
+        }
+        
+        for (int node = 0; node < snapshot.getNodeCount(); node++) {
+            nodesByType.get(snapshot.getNode(node).getType()).set(node);
+        }
+        for (int edge = 0; edge < snapshot.getEdgeCount(); edge++) {
+            edgesByType.get(snapshot.getConnectionType(edge)).set(edge);
+        }
+    }
+    
+    public Iterable<Node> nodesOfType(NodeType type) {
+        BitSet bits = nodesByType.get(Objects.requireNonNull(type, "Node type cannot be null"));
+        return () -> new BitIterator<>(bits, snapshot::getNode);
+    }
+    
+    public Iterable<Edge> edgesOfType(ConnectionType type) {
+        BitSet bits = edgesByType.get(Objects.requireNonNull(type, "Connection type cannot be null"));
+        return () -> new BitIterator<>(bits, snapshot::getEdge);
+    }
+    
+    public int countNodes(NodeType type) {
+        return nodesByType.get(Objects.requireNonNull(type, "Node type cannot be null")).cardinality();
+    }
+    
+    public int countEdges(ConnectionType type) {
+        return edgesByType.get(Objects.requireNonNull(type, "Connection type cannot be null")).cardinality();
+    }
+    
+    public boolean isNodeOfType(int node, NodeType type) {
+        return nodesByType.get(type).get(node);
+    }
+    
+    public boolean isEdgeOfType(int edge, ConnectionType type) {
+        return edgesByType.get(type).get(edge);
+    }
+    
+    BitSet edgeBits(ConnectionType type) {
+        return edgesByType.get(type);
+    }
+    
+    private static final class BitIterator<T> implements Iterator<T> {
+        
+        private final BitSet bits;
+        private final IntFunction<T> mapper;
+        private int next;
+        
+        BitIterator(BitSet bits, IntFunction<T> mapper) {
+            this.bits = bits;
+            this.mapper = mapper;
+            this.next = bits.nextSetBit(0);
+        }
+        
+        @Override
+        public boolean hasNext() {
+            return next >= 0;
+        }
+        
+        @Override
+        public T next() {
+            if (next < 0) {
+                throw new NoSuchElementException();
+            }
+            T value = mapper.apply(next);
+            next = bits.nextSetBit(next + 1);
+            return value;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,91 @@
+package com.netmap.graph;
+
+import java.util.Arrays;
+
+final class UndirectedView {
+    
+    private final int[] offsets;
+    private final int[] neighbors;
+    private final int[] edges;
+    
+    UndirectedView(GraphSnapshot graph) {
+        int nodeCount = graph.getNodeCount();
+        int[] marks = new int[nodeCount];
+        Arrays.fill(marks, -1);
+        
+        // Links are unordered node pairs: parallel edges and both directions collapse into one arc each way
+        this.offsets = new int[nodeCount + 1];
+        for (int node = 0; node < nodeCount; node++) {
+            int degree = 0;
+            for (int e = graph.edgeStart(node), end = graph.edgeEnd(node); e < end; e++) {
+                int neighbor = graph.getTarget(e);
+                if (neighbor != node && marks[neighbor] != node) {
+                    marks[neighbor] = node;
+                    degree++;
+                }
+            }
+            for (int i = graph.inEdgeStart(node), end = graph.inEdgeEnd(node); i < end; i++) {
+                int neighbor = graph.getInSource(i);
+                if (neighbor != node && marks[neighbor] != node) {
+                    marks[neighbor] = node;
+                    degree++;
+                }
+            }
+            offsets[node + 1] = offsets[node] + degree;
+        }
+        
+        this.neighbors = new int[offsets[nodeCount]];
+        this.edges = new int[offsets[nodeCount]];
+        for (int node = 0; node < nodeCount; node++) {
+            int slot = offsets[node];
+            int stamp = node + nodeCount;
+            for (int e = graph.edgeStart(node), end = graph.edgeEnd(node); e < end; e++) {
+                int neighbor = graph.getTarget(e);
+                if (neighbor != node && marks[neighbor] != stamp) {
+                    marks[neighbor] = stamp;
+                    neighbors[slot] = neighbor;
+                    edges[slot++] = e;
+                }
+            }
+            for (int i = graph.inEdgeStart(node), end = graph.inEdgeEnd(node); i < end; i++) {
+                int neighbor = graph.getInSource(i);
+                if (neighbor != node && marks[neighbor] != stamp) {
+                    marks[neighbor] = stamp;
+                    neighbors[slot] = neighbor;
+                    edges[slot++] = graph.getInEdge(i);
+                }
+            }
+        }
+    }
+    
+    int getNodeCount() {
+        return offsets.length - 1;
+    }
+    
+    int getArcCount() {
+        return neighbors.length;
+    }
+    
+    int arcStart(int node) {
+        return offsets[node];
+    }
+    
+    int arcEnd(int node) {
+        return offsets[node + 1];
+    }
+    
+    int getNeighbor(int arc) {
+        return neighbors[arc];
+    }
+    
+    int getEdge(int arc) {
+        return edges[arc];
+    }
+    
+    int findArc(int node, int neighbor) {
+        for (int arc = offsets[node]; arc < offsets[node + 1]; arc++) {
+            if (neighbors[arc] == neighbor) return arc;
+        }
+        return -1;
+    }
+}
\ No newline at end of file
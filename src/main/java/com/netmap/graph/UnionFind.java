@@ -0,0 +1,96 @@
+package com.netmap.graph;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+public final class UnionFind implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private int[] parent;
+    private int[] size;
+    private int count;
+    private int setCount;
+    
+    public UnionFind() {
+        this(16);
+    }
+    
+    public UnionFind(int capacity) {
+        this.parent = new int[Math.max(1, capacity)];
+        this.size = new int[Math.max(1, capacity)];
+    }
+    
+    public int add() {
+        if (count == parent.length) {
+            parent = Arrays.copyOf(parent, count * 2);
+            size = Arrays.copyOf(size, count * 2);
+        }
+        parent[count] = count;
+        size[count] = 1;
+        setCount++;
+        return count++;
+    }
+    
+    public int find(int element) {
+        while (parent[element] != element) {
+            parent[element] = parent[parent[element]];
+            element = parent[element];
+        }
+        return element;
+    }
+    
+    public int findRoot(int element) {
+        // Read-only walk for lock-free readers: no path compression, and bounded in case a writer
+        // reshapes the forest mid-walk (callers validate and retry)
+        for (int steps = 0; steps <= count; steps++) {
+            int next = parent[element];
+            if (next == element) {
+                return element;
+            }
+            element = next;
+        }
+        throw new IllegalStateException("Union-find changed during lookup");
+    }
+    
+    public int rootSize(int element) {
+        return size[findRoot(element)];
+    }
+    
+    public boolean union(int a, int b) {
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA == rootB) return false;
+        
+        if (size[rootA] < size[rootB]) {
+            int swap = rootA;
+            rootA = rootB;
+            rootB = swap;
+        }
+        parent[rootB] = rootA;
+        size[rootA] += size[rootB];
+        setCount--;
+        return true;
+    }
+    
+    public boolean connected(int a, int b) {
+        return find(a) == find(b);
+    }
+    
+    public int setSize(int element) {
+        return size[find(element)];
+    }
+    
+    public int size() {
+        return count;
+    }
+    
+    public int getSetCount() {
+        return setCount;
+    }
+    
+    public void clear() {
+        count = 0;
+        setCount = 0;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,53 @@
+package com.netmap.graph;
+
+import com.netmap.core.domain.Edge;
+
+import java.util.List;
+import java.util.Objects;
+
+public final class WeightedPath {
+    
+    private final List<String> nodeIds;
+    private final List<Edge> edges;
+    private final long cost;
+    
+    public WeightedPath(List<String> nodeIds, List<Edge> edges, long cost) {
+        this.nodeIds = List.copyOf(Objects.requireNonNull(nodeIds));
+        this.edges = List.copyOf(Objects.requireNonNull(edges));
+        this.cost = cost;
+    }
+    
+    public List<String> getNodeIds() {
+        return nodeIds;
+    }
+    
+    public List<Edge> getEdges() {
+        return edges;
+    }
+    
+    public long getCost() {
+        return cost;
+    }
+    
+    public int getHopCount() {
+        return edges.size();
+    }
+    
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        WeightedPath path = (WeightedPath) obj;
+        return cost == path.cost && nodeIds.equals(path.nodeIds);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(nodeIds, cost);
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("Path[%s, cost=%d]", String.join(" -> ", nodeIds), cost);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,98 @@
+package com.netmap.graph;
+
+import java.util.Arrays;
+
+final class WidestPathFinder {
+    
+    static final long UNREACHABLE = -1;
+    
+    private static final ThreadLocal<WidestPathFinder> FINDERS = ThreadLocal.withInitial(WidestPathFinder::new);
+    
+    private IndexedMinHeap heap;
+    private long[] widths;
+    private int[] parents;
+    private int[] parentEdges;
+    private int[] reached;
+    private int[] settled;
+    private int epoch;
+    
+    private WidestPathFinder() {
+        resize(0);
+    }
+    
+    static WidestPathFinder forThread(GraphSnapshot graph) {
+        WidestPathFinder finder = FINDERS.get();
+        if (graph.getNodeCount() > finder.widths.length) {
+            finder.resize(Math.max(graph.getNodeCount(), finder.widths.length + (finder.widths.length >> 1)));
+        }
+        return finder;
+    }
+    
+    long search(GraphSnapshot graph, int source, int target) {
+        begin();
+        offer(source, -1, -1, Long.MAX_VALUE);
+        
+        while (!heap.isEmpty()) {
+            int current = heap.poll();
+            settled[current] = epoch;
+            
+            if (current == target) {
+                heap.clear();
+                return widths[current];
+            }
+            
+            long width = widths[current];
+            for (int e = graph.edgeStart(current), end = graph.edgeEnd(current); e < end; e++) {
+                int neighbor = graph.getTarget(e);
+                if (settled[neighbor] != epoch) {
+                    offer(neighbor, current, e, Math.min(width, graph.getBandwidth(e)));
+                }
+            }
+        }
+        
+        return UNREACHABLE;
+    }
+    
+    int[] edgesTo(int target) {
+        int length = 0;
+        for (int current = target; parents[current] != -1; current = parents[current]) {
+            length++;
+        }
+        
+        int[] edges = new int[length];
+        for (int current = target, i = length - 1; parents[current] != -1; current = parents[current]) {
+            edges[i--] = parentEdges[current];
+        }
+        return edges;
+    }
+    
+    private void resize(int capacity) {
+        heap = new IndexedMinHeap(capacity);
+        widths = new long[capacity];
+        parents = new int[capacity];
+        parentEdges = new int[capacity];
+        reached = new int[capacity];
+        settled = new int[capacity];
+    }
+    
+    private void begin() {
+        epoch++;
+        if (epoch == 0) {
+            Arrays.fill(reached, 0);
+            Arrays.fill(settled, 0);
+            epoch = 1;
+        }
+        heap.clear();
+    }
+    
+    private void offer(int node, int parent, int edge, long width) {
+        if (reached[node] == epoch && widths[node] >= width) {
+            return;
+        }
+        reached[node] = epoch;
+        widths[node] = width;
+        parents[node] = parent;
+        parentEdges[node] = edge;
+        heap.insertOrDecrease(node, -width);
+    }
+}
\ No newline at end of file
@@ -12,6 +12,11 @@ public final class NetworkValidator {
         "(25[0-5]|2[0-4][0-9]|[01]?[0-9][0-9]?)$"
     );
     
+    private static final Pattern CIDR_PATTERN = Pattern.compile(
+        "^((25[0-5]|2[0-4][0-9]|[01]?[0-9][0-9]?)\\.){3}" +
+        "(25[0-5]|2[0-4][0-9]|[01]?[0-9][0-9]?)/(3[0-2]|[12]?[0-9])$"
+    );
+    
     private static final Pattern MAC_ADDRESS_PATTERN = Pattern.compile(
         "^([0-9A-Fa-f]{2}[:-]){5}([0-9A-Fa-f]{2})$"
     );
@@ -42,6 +47,42 @@ public final class NetworkValidator {
         return IPV4_PATTERN.matcher(ip).matches();
     }
     
+    public static boolean isValidCIDR(String cidr) {
+        if (cidr == null || cidr.isEmpty()) return false;
+        return CIDR_PATTERN.matcher(cidr).matches();
+    }
+    
+    public static long packIPv4(String ip) {
+        if (ip == null || ip.isEmpty()) return -1;
+        
+        // Hand-rolled so log correlation can resolve addresses without running the regex
+        long address = 0;
+        int octet = 0;
+        int digits = 0;
+        int dots = 0;
+        for (int i = 0; i < ip.length(); i++) {
+            char c = ip.charAt(i);
+            if (c >= '0' && c <= '9') {
+                octet = octet * 10 + (c - '0');
+                if (++digits > 3 || octet > 255) return -1;
+            } else if (c == '.' && digits > 0 && dots < 3) {
+                address = (address << 8) | octet;
+                octet = 0;
+                digits = 0;
+                dots++;
+            } else {
+                return -1;
+            }
+        }
+        if (digits == 0 || dots != 3) return -1;
+        return (address << 8) | octet;
+    }
+    
+    public static String unpackIPv4(int address) {
+        return (address >>> 24) + "." + ((address >>> 16) & 0xFF) + "." +
+               ((address >>> 8) & 0xFF) + "." + (address & 0xFF);
+    }
+    
     public static boolean isValidMacAddress(String mac) {
         if (mac == null || mac.isEmpty()) return false;
         return MAC_ADDRESS_PATTERN.matcher(mac).matches();
@@ -14,6 +14,7 @@ public class NetworkValidatorTest {
         testEmailValidation();
         testMacAddressValidation();
         testIPExtraction();
+        testIPv4Packing();
         
         System.out.println("\n✓ All NetworkValidator tests passed!");
     }
@@ -69,6 +70,25 @@ public class NetworkValidatorTest {
         System.out.println("  ✓ Passed\n");
     }
     
+    private void testIPv4Packing() {
+        System.out.println("Test: IPv4 Packing");
+        
+        assertTrue(NetworkValidator.packIPv4("10.0.0.1") == 0x0A000001L, "Should pack octets big-endian");
+        assertTrue(NetworkValidator.packIPv4("255.255.255.255") == 0xFFFFFFFFL, "Max IP should pack unsigned");
+        assertEqual(-1, (int) NetworkValidator.packIPv4("256.1.1.1"), "256 should fail");
+        assertEqual(-1, (int) NetworkValidator.packIPv4("192.168.1"), "Incomplete IP should fail");
+        assertEqual(-1, (int) NetworkValidator.packIPv4("1..2.3"), "Empty octet should fail");
+        assertEqual(-1, (int) NetworkValidator.packIPv4("1.2.3.4."), "Trailing dot should fail");
+        assertTrue("172.16.254.3".equals(NetworkValidator.unpackIPv4((int) NetworkValidator.packIPv4("172.16.254.3"))),
+                   "Unpack should round-trip");
+        
+        assertTrue(NetworkValidator.isValidCIDR("10.0.0.0/8"), "Valid CIDR should pass");
+        assertFalse(NetworkValidator.isValidCIDR("10.0.0.0/33"), "Prefix over 32 should fail");
+        assertFalse(NetworkValidator.isValidCIDR("10.0.0.0"), "Missing prefix should fail");
+        
+        System.out.println("  ✓ Passed\n");
+    }
+    
     private void assertTrue(boolean condition, String message) {
         if (!condition) {
             throw new AssertionError("Assertion failed: " + message);
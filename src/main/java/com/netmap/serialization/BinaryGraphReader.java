@@ -0,0 +1,225 @@
+package com.netmap.serialization;
+
+import com.netmap.core.domain.ConnectionType;
+import com.netmap.core.domain.Edge;
+import com.netmap.core.domain.Node;
+import com.netmap.core.domain.NodeType;
+import com.netmap.graph.GraphBatch;
+import com.netmap.graph.NetworkGraph;
+import com.netmap.regex.NetworkValidator;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.zip.CRC32;
+
+public final class BinaryGraphReader {
+    
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int INITIAL_CAPACITY = 1 << 10;
+    private static final NodeType[] NODE_TYPES = NodeType.values();
+    private static final ConnectionType[] CONNECTION_TYPES = ConnectionType.values();
+    
+    private final InputStream in;
+    private final byte[] buffer;
+    private final CRC32 checksum;
+    private int position;
+    private int limit;
+    private int checked;
+    
+    private BinaryGraphReader(InputStream in) {
+        this.in = in;
+        this.buffer = new byte[BUFFER_SIZE];
+        this.checksum = new CRC32();
+    }
+    
+    public static NetworkGraph read(InputStream inputStream) throws IOException {
+        Objects.requireNonNull(inputStream, "InputStream cannot be null");
+        try {
+            return new BinaryGraphReader(inputStream).readGraph();
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Graph file is corrupt: " + e.getMessage(), e);
+        }
+    }
+    
+    private NetworkGraph readGraph() throws IOException {
+        if (readInt() != BinaryGraphWriter.MAGIC) {
+            throw new IOException("Not a NetMap graph file");
+        }
+        int version = readByte();
+        if (version != BinaryGraphWriter.FORMAT_VERSION) {
+            throw new IOException("Unsupported graph format version: " + version);
+        }
+        
+        // Counts come from the file itself, so arrays grow with the data actually read instead of trusting them
+        int stringCount = readCount();
+        String[] strings = new String[initialCapacity(stringCount)];
+        for (int i = 0; i < stringCount; i++) {
+            if (i == strings.length) {
+                strings = Arrays.copyOf(strings, grownCapacity(i, stringCount));
+            }
+            strings[i] = readString(readCount());
+        }
+        
+        NetworkGraph graph = new NetworkGraph();
+        GraphBatch batch = graph.newBatch();
+        int nodeCount = readCount();
+        Node[] nodes = new Node[initialCapacity(nodeCount)];
+        for (int node = 0; node < nodeCount; node++) {
+            if (node == nodes.length) {
+                nodes = Arrays.copyOf(nodes, grownCapacity(node, nodeCount));
+            }
+            String id = strings[readIndex(strings.length)];
+            String name = strings[readIndex(strings.length)];
+            int packed = readByte();
+            String ipAddress = (packed & BinaryGraphWriter.PACKED_IP) != 0
+                ? NetworkValidator.unpackIPv4(readInt())
+                : strings[readIndex(strings.length)];
+            nodes[node] = Node.builder()
+                .id(id)
+                .name(name)
+                .ipAddress(ipAddress)
+                .type(NODE_TYPES[checkIndex(packed >>> 1, NODE_TYPES.length)])
+                .build();
+            batch.addNode(nodes[node]);
+        }
+        
+        int edgeCount = readCount();
+        int edgesRead = 0;
+        for (int node = 0; node < nodes.length; node++) {
+            int degree = readCount();
+            int previous = node;
+            for (int i = 0; i < degree; i++) {
+                long delta = readVarint();
+                int target = checkIndex(previous + (int) ((delta >>> 1) ^ -(delta & 1)), nodes.length);
+                int bandwidth = (int) readVarint();
+                long attributes = readVarint();
+                batch.addEdge(Edge.builder()
+                    .sourceId(nodes[node].getId())
+                    .targetId(nodes[target].getId())
+                    .bandwidth(bandwidth)
+                    .latency((int) (attributes >>> BinaryGraphWriter.TYPE_BITS))
+                    .connectionType(CONNECTION_TYPES[checkIndex(
+                        (int) (attributes & ((1 << BinaryGraphWriter.TYPE_BITS) - 1)), CONNECTION_TYPES.length)])
+                    .build());
+                previous = target;
+            }
+            edgesRead += degree;
+        }
+        if (edgesRead != edgeCount) {
+            throw new IOException("Graph file is corrupt: edge count mismatch");
+        }
+        
+        int subnetCount = readCount();
+        String[] subnets = new String[initialCapacity(subnetCount)];
+        int[] owners = new int[subnets.length];
+        for (int i = 0; i < subnetCount; i++) {
+            if (i == subnets.length) {
+                subnets = Arrays.copyOf(subnets, grownCapacity(i, subnetCount));
+                owners = Arrays.copyOf(owners, subnets.length);
+            }
+            int prefix = readInt();
+            int length = readByte();
+            subnets[i] = NetworkValidator.unpackIPv4(prefix) + "/" + length;
+            owners[i] = readIndex(nodes.length);
+        }
+        
+        // The trailer is checked before the graph is touched so a damaged file never half-loads
+        int expected = (int) consumedChecksum();
+        if (readInt() != expected) {
+            throw new IOException("Graph file is corrupt: checksum mismatch");
+        }
+        
+        batch.commit();
+        for (int i = 0; i < subnetCount; i++) {
+            graph.assignSubnet(subnets[i], nodes[owners[i]].getId());
+        }
+        return graph;
+    }
+    
+    private long consumedChecksum() {
+        checksum.update(buffer, checked, position - checked);
+        checked = position;
+        return checksum.getValue();
+    }
+    
+    private static int initialCapacity(int count) {
+        return Math.min(count, INITIAL_CAPACITY);
+    }
+    
+    private static int grownCapacity(int length, int count) {
+        return (int) Math.min(2L * length, count);
+    }
+    
+    private int readCount() throws IOException {
+        long value = readVarint();
+        if (value > Integer.MAX_VALUE) {
+            throw new IOException("Graph file is corrupt: count out of range");
+        }
+        return (int) value;
+    }
+    
+    private int readIndex(int bound) throws IOException {
+        return checkIndex(readCount(), bound);
+    }
+    
+    private static int checkIndex(int index, int bound) throws IOException {
+        if (index < 0 || index >= bound) {
+            throw new IOException("Graph file is corrupt: index out of range");
+        }
+        return index;
+    }
+    
+    private String readString(int length) throws IOException {
+        if (limit - position >= length) {
+            String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+        byte[] bytes = new byte[initialCapacity(length)];
+        for (int i = 0; i < length; i++) {
+            if (i == bytes.length) {
+                bytes = Arrays.copyOf(bytes, grownCapacity(i, length));
+            }
+            bytes[i] = (byte) readByte();
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    private long readVarint() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Graph file is corrupt: malformed varint");
+    }
+    
+    private int readInt() throws IOException {
+        return readByte() << 24 | readByte() << 16 | readByte() << 8 | readByte();
+    }
+    
+    private int readByte() throws IOException {
+        if (position == limit) {
+            fill();
+        }
+        return buffer[position++] & 0xFF;
+    }
+    
+    private void fill() throws IOException {
+        checksum.update(buffer, checked, limit - checked);
+        limit = in.read(buffer, 0, buffer.length);
+        position = 0;
+        checked = 0;
+        if (limit <= 0) {
+            limit = 0;
+            throw new EOFException("Unexpected end of graph file");
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,176 @@
+package com.netmap.serialization;
+
+import com.netmap.core.domain.Node;
+import com.netmap.graph.GraphSnapshot;
+import com.netmap.graph.NetworkGraph;
+import com.netmap.regex.NetworkValidator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.CRC32;
+
+public final class BinaryGraphWriter {
+    
+    static final int MAGIC = 0x4E4D4742;
+    static final int FORMAT_VERSION = 1;
+    static final int PACKED_IP = 1;
+    static final int TYPE_BITS = 3;
+    
+    private static final int BUFFER_SIZE = 1 << 16;
+    
+    private final OutputStream out;
+    private final byte[] buffer;
+    private final CRC32 checksum;
+    private int position;
+    
+    private BinaryGraphWriter(OutputStream out) {
+        this.out = out;
+        this.buffer = new byte[BUFFER_SIZE];
+        this.checksum = new CRC32();
+    }
+    
+    public static void write(NetworkGraph graph, OutputStream outputStream) throws IOException {
+        Objects.requireNonNull(graph, "Graph cannot be null");
+        Objects.requireNonNull(outputStream, "OutputStream cannot be null");
+        new BinaryGraphWriter(outputStream).writeGraph(graph.snapshot(), graph.getSubnetAssignments());
+    }
+    
+    static void write(GraphSnapshot graph, Map<String, List<String>> subnets, OutputStream outputStream) throws IOException {
+        new BinaryGraphWriter(outputStream).writeGraph(graph, subnets);
+    }
+    
+    private void writeGraph(GraphSnapshot graph, Map<String, List<String>> subnets) throws IOException {
+        int nodeCount = graph.getNodeCount();
+        Map<String, Integer> stringIndex = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+        long[] packedAddresses = new long[nodeCount];
+        for (int node = 0; node < nodeCount; node++) {
+            Node current = graph.getNode(node);
+            intern(current.getId(), stringIndex, strings);
+            intern(current.getName(), stringIndex, strings);
+            packedAddresses[node] = NetworkValidator.packIPv4(current.getIpAddress());
+            if (packedAddresses[node] < 0) {
+                intern(current.getIpAddress(), stringIndex, strings);
+            }
+        }
+        
+        writeInt(MAGIC);
+        writeByte(FORMAT_VERSION);
+        writeVarint(strings.size());
+        for (String value : strings) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(bytes.length);
+            writeBytes(bytes);
+        }
+        
+        writeVarint(nodeCount);
+        for (int node = 0; node < nodeCount; node++) {
+            Node current = graph.getNode(node);
+            writeVarint(stringIndex.get(current.getId()));
+            writeVarint(stringIndex.get(current.getName()));
+            boolean packed = packedAddresses[node] >= 0;
+            writeByte(current.getType().ordinal() << 1 | (packed ? PACKED_IP : 0));
+            if (packed) {
+                writeInt((int) packedAddresses[node]);
+            } else {
+                writeVarint(stringIndex.get(current.getIpAddress()));
+            }
+        }
+        
+        // Targets are delta-coded against the previous edge of the same source, starting from the source itself
+        writeVarint(graph.getEdgeCount());
+        for (int node = 0; node < nodeCount; node++) {
+            writeVarint(graph.getOutDegree(node));
+            int previous = node;
+            for (int e = graph.edgeStart(node), end = graph.edgeEnd(node); e < end; e++) {
+                int target = graph.getTarget(e);
+                writeVarint(zigzag(target - previous));
+                writeVarint(graph.getBandwidth(e));
+                writeVarint((long) graph.getLatency(e) << TYPE_BITS | graph.getConnectionType(e).ordinal());
+                previous = target;
+            }
+        }
+        
+        List<int[]> assignments = new ArrayList<>();
+        for (Map.Entry<String, List<String>> subnet : subnets.entrySet()) {
+            String cidr = subnet.getKey();
+            int slash = cidr.indexOf('/');
+            int prefix = (int) NetworkValidator.packIPv4(cidr.substring(0, slash));
+            int length = Integer.parseInt(cidr.substring(slash + 1));
+            for (String nodeId : subnet.getValue()) {
+                int node = graph.indexOf(nodeId);
+                if (node >= 0) {
+                    assignments.add(new int[] {prefix, length, node});
+                }
+            }
+        }
+        writeVarint(assignments.size());
+        for (int[] assignment : assignments) {
+            writeInt(assignment[0]);
+            writeByte(assignment[1]);
+            writeVarint(assignment[2]);
+        }
+        
+        flushBuffer();
+        int crc = (int) checksum.getValue();
+        writeInt(crc);
+        out.write(buffer, 0, position);
+        out.flush();
+    }
+    
+    private static void intern(String value, Map<String, Integer> index, List<String> strings) {
+        if (index.putIfAbsent(value, strings.size()) == null) {
+            strings.add(value);
+        }
+    }
+    
+    private static long zigzag(int value) {
+        return ((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL;
+    }
+    
+    private void writeByte(int value) throws IOException {
+        if (position == buffer.length) {
+            flushBuffer();
+        }
+        buffer[position++] = (byte) value;
+    }
+    
+    private void writeInt(int value) throws IOException {
+        writeByte(value >>> 24);
+        writeByte(value >>> 16);
+        writeByte(value >>> 8);
+        writeByte(value);
+    }
+    
+    private void writeVarint(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        writeByte((int) value);
+    }
+    
+    private void writeBytes(byte[] bytes) throws IOException {
+        for (int offset = 0; offset < bytes.length; ) {
+            if (position == buffer.length) {
+                flushBuffer();
+            }
+            int chunk = Math.min(bytes.length - offset, buffer.length - position);
+            System.arraycopy(bytes, offset, buffer, position, chunk);
+            position += chunk;
+            offset += chunk;
+        }
+    }
+    
+    private void flushBuffer() throws IOException {
+        checksum.update(buffer, 0, position);
+        out.write(buffer, 0, position);
+        position = 0;
+    }
+}
\ No newline at end of file
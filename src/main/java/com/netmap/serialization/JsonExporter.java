@@ -1,63 +1,191 @@
 package com.netmap.serialization;
 
-import com.netmap.core.domain.Edge;
 import com.netmap.core.domain.Node;
+import com.netmap.graph.GraphSnapshot;
 import com.netmap.graph.NetworkGraph;
 
-import java.io.FileWriter;
 import java.io.IOException;
-import java.util.List;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
 
 public class JsonExporter {
     
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final byte[] HEX = "0123456789abcdef".getBytes();
+    
+    private final WritableByteChannel channel;
+    private final byte[] buffer;
+    private final ByteBuffer view;
+    private final byte[] digits;
+    private int position;
+    
+    private JsonExporter(WritableByteChannel channel) {
+        this.channel = channel;
+        this.buffer = new byte[BUFFER_SIZE];
+        this.view = ByteBuffer.wrap(buffer);
+        this.digits = new byte[11];
+    }
+    
     public static void exportToJson(NetworkGraph graph, String filename) throws IOException {
-        StringBuilder json = new StringBuilder();
-        json.append("{\n");
-        json.append("  \"nodes\": [\n");
+        Objects.requireNonNull(graph, "Graph cannot be null");
+        Objects.requireNonNull(filename, "Filename cannot be null");
         
-        List<Node> nodes = graph.getAllNodes();
-        for (int i = 0; i < nodes.size(); i++) {
-            Node node = nodes.get(i);
-            json.append("    {\n");
-            json.append(String.format("      \"id\": \"%s\",\n", node.getId()));
-            json.append(String.format("      \"name\": \"%s\",\n", node.getName()));
-            json.append(String.format("      \"ip\": \"%s\",\n", node.getIpAddress()));
-            json.append(String.format("      \"type\": \"%s\"\n", node.getType()));
-            json.append("    }");
-            if (i < nodes.size() - 1) json.append(",");
-            json.append("\n");
+        String filepath = "data/" + filename;
+        if (!filepath.endsWith(".json")) {
+            filepath += ".json";
         }
         
-        json.append("  ],\n");
-        json.append("  \"edges\": [\n");
-        
-        List<Edge> allEdges = nodes.stream()
-            .flatMap(n -> graph.getEdges(n.getId()).stream())
-            .toList();
-        
-        for (int i = 0; i < allEdges.size(); i++) {
-            Edge edge = allEdges.get(i);
-            json.append("    {\n");
-            json.append(String.format("      \"source\": \"%s\",\n", edge.getSourceId()));
-            json.append(String.format("      \"target\": \"%s\",\n", edge.getTargetId()));
-            json.append(String.format("      \"bandwidth\": %d,\n", edge.getBandwidth()));
-            json.append(String.format("      \"latency\": %d,\n", edge.getLatency()));
-            json.append(String.format("      \"type\": \"%s\"\n", edge.getConnectionType()));
-            json.append("    }");
-            if (i < allEdges.size() - 1) json.append(",");
-            json.append("\n");
+        Path path = Paths.get(filepath);
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
         }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING)) {
+            new JsonExporter(channel).writeGraph(graph.snapshot());
+        }
+    }
+    
+    public static void exportToJson(NetworkGraph graph, OutputStream outputStream) throws IOException {
+        Objects.requireNonNull(graph, "Graph cannot be null");
+        Objects.requireNonNull(outputStream, "OutputStream cannot be null");
         
-        json.append("  ]\n");
-        json.append("}\n");
-        
-        String filepath = "data/" + filename;
-        if (!filepath.endsWith(".json")) {
-            filepath += ".json";
+        new JsonExporter(Channels.newChannel(outputStream)).writeGraph(graph.snapshot());
+        outputStream.flush();
+    }
+    
+    private void writeGraph(GraphSnapshot graph) throws IOException {
+        int nodeCount = graph.getNodeCount();
+        writeAscii("{\n  \"nodes\": [\n");
+        for (int node = 0; node < nodeCount; node++) {
+            Node current = graph.getNode(node);
+            writeAscii("    {\n      \"id\": \"");
+            writeEscaped(current.getId());
+            writeAscii("\",\n      \"name\": \"");
+            writeEscaped(current.getName());
+            writeAscii("\",\n      \"ip\": \"");
+            writeEscaped(current.getIpAddress());
+            writeAscii("\",\n      \"type\": \"");
+            writeAscii(current.getType().name());
+            writeAscii(node < nodeCount - 1 ? "\"\n    },\n" : "\"\n    }\n");
         }
         
-        try (FileWriter writer = new FileWriter(filepath)) {
-            writer.write(json.toString());
+        // Edges stream straight off the snapshot's CSR arrays in node order, never collected into a list
+        writeAscii("  ],\n  \"edges\": [\n");
+        int edgeCount = graph.getEdgeCount();
+        for (int node = 0; node < nodeCount; node++) {
+            String sourceId = graph.getNodeId(node);
+            for (int e = graph.edgeStart(node), end = graph.edgeEnd(node); e < end; e++) {
+                writeAscii("    {\n      \"source\": \"");
+                writeEscaped(sourceId);
+                writeAscii("\",\n      \"target\": \"");
+                writeEscaped(graph.getNodeId(graph.getTarget(e)));
+                writeAscii("\",\n      \"bandwidth\": ");
+                writeInt(graph.getBandwidth(e));
+                writeAscii(",\n      \"latency\": ");
+                writeInt(graph.getLatency(e));
+                writeAscii(",\n      \"type\": \"");
+                writeAscii(graph.getConnectionType(e).name());
+                writeAscii(e < edgeCount - 1 ? "\"\n    },\n" : "\"\n    }\n");
+            }
+        }
+        writeAscii("  ]\n}\n");
+        flush();
+    }
+    
+    private void writeAscii(String value) throws IOException {
+        for (int i = 0, length = value.length(); i < length; i++) {
+            if (position == buffer.length) {
+                flush();
+            }
+            buffer[position++] = (byte) value.charAt(i);
+        }
+    }
+    
+    private void writeEscaped(String value) throws IOException {
+        for (int i = 0, length = value.length(); i < length; i++) {
+            if (buffer.length - position < 6) {
+                flush();
+            }
+            char c = value.charAt(i);
+            if (c >= 0x20 && c < 0x80 && c != '"' && c != '\\') {
+                buffer[position++] = (byte) c;
+            } else if (c == '"' || c == '\\') {
+                buffer[position++] = '\\';
+                buffer[position++] = (byte) c;
+            } else if (c < 0x20) {
+                writeControl(c);
+            } else if (c < 0x800) {
+                buffer[position++] = (byte) (0xC0 | c >> 6);
+                buffer[position++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer[position++] = (byte) (0xF0 | codePoint >> 18);
+                buffer[position++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                buffer[position++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                buffer[position++] = (byte) (0x80 | codePoint & 0x3F);
+            } else if (Character.isSurrogate(c)) {
+                buffer[position++] = '?';
+            } else {
+                buffer[position++] = (byte) (0xE0 | c >> 12);
+                buffer[position++] = (byte) (0x80 | c >> 6 & 0x3F);
+                buffer[position++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+    }
+    
+    private void writeControl(char c) {
+        buffer[position++] = '\\';
+        switch (c) {
+            case '\n' -> buffer[position++] = 'n';
+            case '\r' -> buffer[position++] = 'r';
+            case '\t' -> buffer[position++] = 't';
+            case '\b' -> buffer[position++] = 'b';
+            case '\f' -> buffer[position++] = 'f';
+            default -> {
+                buffer[position++] = 'u';
+                buffer[position++] = '0';
+                buffer[position++] = '0';
+                buffer[position++] = HEX[c >> 4];
+                buffer[position++] = HEX[c & 0xF];
+            }
+        }
+    }
+    
+    private void writeInt(int value) throws IOException {
+        if (buffer.length - position < digits.length) {
+            flush();
+        }
+        if (value == Integer.MIN_VALUE) {
+            writeAscii(Integer.toString(value));
+            return;
+        }
+        if (value < 0) {
+            buffer[position++] = '-';
+            value = -value;
+        }
+        int count = 0;
+        do {
+            digits[count++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        while (count > 0) {
+            buffer[position++] = digits[--count];
+        }
+    }
+    
+    private void flush() throws IOException {
+        view.clear().limit(position);
+        while (view.hasRemaining()) {
+            channel.write(view);
         }
+        position = 0;
     }
 }
\ No newline at end of file
@@ -0,0 +1,516 @@
+package com.netmap.serialization;
+
+import com.netmap.core.domain.ConnectionType;
+import com.netmap.core.domain.Edge;
+import com.netmap.core.domain.Node;
+import com.netmap.core.domain.NodeType;
+import com.netmap.graph.GraphBatch;
+import com.netmap.graph.NetworkGraph;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+public class JsonImporter {
+    
+    static final int CHUNK_SIZE = 1 << 16;
+    
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final NodeType[] NODE_TYPES = NodeType.values();
+    private static final ConnectionType[] CONNECTION_TYPES = ConnectionType.values();
+    private static final byte[][] NODE_TYPE_NAMES = names(NODE_TYPES);
+    private static final byte[][] CONNECTION_TYPE_NAMES = names(CONNECTION_TYPES);
+    
+    private static final byte[] NODES = ascii("nodes");
+    private static final byte[] EDGES = ascii("edges");
+    private static final byte[] ID = ascii("id");
+    private static final byte[] NAME = ascii("name");
+    private static final byte[] IP = ascii("ip");
+    private static final byte[] TYPE = ascii("type");
+    private static final byte[] SOURCE = ascii("source");
+    private static final byte[] TARGET = ascii("target");
+    private static final byte[] BANDWIDTH = ascii("bandwidth");
+    private static final byte[] LATENCY = ascii("latency");
+    
+    private final InputStream in;
+    private final byte[] buffer;
+    private final NetworkGraph graph;
+    private final IdPool ids;
+    private byte[] scratch;
+    private int scratchLength;
+    private int position;
+    private int limit;
+    private long consumed;
+    private GraphBatch batch;
+    private boolean nodesLoaded;
+    private List<Edge> earlyEdges;
+    
+    private JsonImporter(InputStream in) {
+        this.in = in;
+        this.buffer = new byte[BUFFER_SIZE];
+        this.graph = new NetworkGraph();
+        this.ids = new IdPool();
+        this.scratch = new byte[256];
+        this.batch = graph.newBatch();
+    }
+    
+    public static NetworkGraph importFromJson(String filename) throws IOException {
+        Objects.requireNonNull(filename, "Filename cannot be null");
+        
+        String filepath = "data/" + filename;
+        if (!filepath.endsWith(".json")) {
+            filepath += ".json";
+        }
+        
+        try (InputStream in = new FileInputStream(filepath)) {
+            return importFromJson(in);
+        }
+    }
+    
+    public static NetworkGraph importFromJson(InputStream inputStream) throws IOException {
+        Objects.requireNonNull(inputStream, "InputStream cannot be null");
+        return new JsonImporter(inputStream).readDocument();
+    }
+    
+    private NetworkGraph readDocument() throws IOException {
+        expect('{');
+        if (!tryConsume('}')) {
+            do {
+                readString();
+                expect(':');
+                if (scratchEquals(NODES)) {
+                    readNodes();
+                } else if (scratchEquals(EDGES)) {
+                    readEdges();
+                } else {
+                    skipValue();
+                }
+            } while (tryConsume(','));
+            expect('}');
+        }
+        if (skipWhitespace() >= 0) {
+            throw error("Unexpected content after document");
+        }
+        
+        nodesLoaded = true;
+        if (earlyEdges != null) {
+            for (Edge edge : earlyEdges) {
+                add(edge);
+            }
+        }
+        commit();
+        return graph;
+    }
+    
+    private void readNodes() throws IOException {
+        expect('[');
+        if (!tryConsume(']')) {
+            do {
+                readNode();
+            } while (tryConsume(','));
+            expect(']');
+        }
+        // Edges are only validated against committed nodes, so close out the node section first
+        commit();
+        nodesLoaded = true;
+    }
+    
+    private void readEdges() throws IOException {
+        expect('[');
+        if (!tryConsume(']')) {
+            do {
+                readEdge();
+            } while (tryConsume(','));
+            expect(']');
+        }
+    }
+    
+    private void readNode() throws IOException {
+        String id = null;
+        String name = null;
+        String ip = null;
+        NodeType type = null;
+        
+        expect('{');
+        if (!tryConsume('}')) {
+            do {
+                readString();
+                expect(':');
+                if (scratchEquals(ID)) {
+                    readString();
+                    id = ids.intern(scratch, scratchLength);
+                } else if (scratchEquals(NAME)) {
+                    name = readText();
+                } else if (scratchEquals(IP)) {
+                    ip = readText();
+                } else if (scratchEquals(TYPE)) {
+                    readString();
+                    type = NODE_TYPES[lookup(NODE_TYPE_NAMES, "node type")];
+                } else {
+                    skipValue();
+                }
+            } while (tryConsume(','));
+            expect('}');
+        }
+        
+        if (id == null || name == null || ip == null || type == null) {
+            throw error("Node is missing id, name, ip or type");
+        }
+        batch.addNode(Node.builder().id(id).name(name).ipAddress(ip).type(type).build());
+        if (batch.size() >= CHUNK_SIZE) {
+            commit();
+        }
+    }
+    
+    private void readEdge() throws IOException {
+        String source = null;
+        String target = null;
+        long bandwidth = -1;
+        long latency = -1;
+        ConnectionType type = null;
+        
+        expect('{');
+        if (!tryConsume('}')) {
+            do {
+                readString();
+                expect(':');
+                if (scratchEquals(SOURCE)) {
+                    readString();
+                    source = ids.intern(scratch, scratchLength);
+                } else if (scratchEquals(TARGET)) {
+                    readString();
+                    target = ids.intern(scratch, scratchLength);
+                } else if (scratchEquals(BANDWIDTH)) {
+                    bandwidth = readInt();
+                } else if (scratchEquals(LATENCY)) {
+                    latency = readInt();
+                } else if (scratchEquals(TYPE)) {
+                    readString();
+                    type = CONNECTION_TYPES[lookup(CONNECTION_TYPE_NAMES, "connection type")];
+                } else {
+                    skipValue();
+                }
+            } while (tryConsume(','));
+            expect('}');
+        }
+        
+        if (source == null || target == null || bandwidth < 0 || latency < 0 || type == null) {
+            throw error("Edge is missing source, target, bandwidth, latency or type");
+        }
+        try {
+            add(Edge.builder()
+                .sourceId(source)
+                .targetId(target)
+                .bandwidth((int) bandwidth)
+                .latency((int) latency)
+                .connectionType(type)
+                .build());
+        } catch (IllegalArgumentException e) {
+            throw error(e.getMessage());
+        }
+    }
+    
+    private void add(Edge edge) throws IOException {
+        if (!nodesLoaded) {
+            if (earlyEdges == null) {
+                earlyEdges = new ArrayList<>();
+            }
+            earlyEdges.add(edge);
+            return;
+        }
+        batch.addEdge(edge);
+        if (batch.size() >= CHUNK_SIZE) {
+            commit();
+        }
+    }
+    
+    private void commit() throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            batch.commit();
+        } catch (IllegalArgumentException e) {
+            throw error(e.getMessage());
+        }
+    }
+    
+    private String readText() throws IOException {
+        readString();
+        return new String(scratch, 0, scratchLength, StandardCharsets.UTF_8);
+    }
+    
+    private int lookup(byte[][] names, String kind) throws IOException {
+        for (int i = 0; i < names.length; i++) {
+            if (scratchEquals(names[i])) return i;
+        }
+        throw error("Unknown " + kind + ": " + new String(scratch, 0, scratchLength, StandardCharsets.UTF_8));
+    }
+    
+    private boolean scratchEquals(byte[] expected) {
+        return Arrays.equals(scratch, 0, scratchLength, expected, 0, expected.length);
+    }
+    
+    private void readString() throws IOException {
+        expect('"');
+        scratchLength = 0;
+        while (true) {
+            int b = next();
+            if (b == '"') {
+                return;
+            }
+            if (b == '\\') {
+                readEscape();
+            } else if (b < 0x20) {
+                throw error("Unescaped control character in string");
+            } else {
+                append(b);
+            }
+        }
+    }
+    
+    private void readEscape() throws IOException {
+        int b = next();
+        switch (b) {
+            case '"', '\\', '/' -> append(b);
+            case 'n' -> append('\n');
+            case 'r' -> append('\r');
+            case 't' -> append('\t');
+            case 'b' -> append('\b');
+            case 'f' -> append('\f');
+            case 'u' -> {
+                int c = readHex();
+                if (Character.isHighSurrogate((char) c) && peek() == '\\') {
+                    next();
+                    if (next() != 'u') throw error("Expected low surrogate escape");
+                    int low = readHex();
+                    if (!Character.isLowSurrogate((char) low)) throw error("Invalid surrogate pair");
+                    appendCodePoint(Character.toCodePoint((char) c, (char) low));
+                } else {
+                    appendCodePoint(c);
+                }
+            }
+            default -> throw error("Invalid escape sequence");
+        }
+    }
+    
+    private int readHex() throws IOException {
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            int digit = Character.digit(next(), 16);
+            if (digit < 0) throw error("Invalid unicode escape");
+            value = value << 4 | digit;
+        }
+        return value;
+    }
+    
+    private void appendCodePoint(int codePoint) {
+        if (codePoint < 0x80) {
+            append(codePoint);
+        } else if (codePoint < 0x800) {
+            append(0xC0 | codePoint >> 6);
+            append(0x80 | codePoint & 0x3F);
+        } else if (codePoint < 0x10000) {
+            append(0xE0 | codePoint >> 12);
+            append(0x80 | codePoint >> 6 & 0x3F);
+            append(0x80 | codePoint & 0x3F);
+        } else {
+            append(0xF0 | codePoint >> 18);
+            append(0x80 | codePoint >> 12 & 0x3F);
+            append(0x80 | codePoint >> 6 & 0x3F);
+            append(0x80 | codePoint & 0x3F);
+        }
+    }
+    
+    private void append(int b) {
+        if (scratchLength == scratch.length) {
+            scratch = Arrays.copyOf(scratch, scratchLength * 2);
+        }
+        scratch[scratchLength++] = (byte) b;
+    }
+    
+    private long readInt() throws IOException {
+        skipWhitespace();
+        boolean negative = tryConsumeRaw('-');
+        long value = 0;
+        int digits = 0;
+        while (position < limit || fill()) {
+            int b = buffer[position];
+            if (b < '0' || b > '9') break;
+            value = value * 10 + (b - '0');
+            if (value > Integer.MAX_VALUE) throw error("Number out of range");
+            position++;
+            digits++;
+        }
+        if (digits == 0) {
+            throw error("Expected an integer");
+        }
+        int b = peek();
+        if (b == '.' || b == 'e' || b == 'E') {
+            throw error("Expected an integer");
+        }
+        return negative ? -value : value;
+    }
+    
+    private void skipValue() throws IOException {
+        int b = skipWhitespace();
+        switch (b) {
+            case '"' -> readString();
+            case '{' -> {
+                next();
+                if (!tryConsume('}')) {
+                    do {
+                        readString();
+                        expect(':');
+                        skipValue();
+                    } while (tryConsume(','));
+                    expect('}');
+                }
+            }
+            case '[' -> {
+                next();
+                if (!tryConsume(']')) {
+                    do {
+                        skipValue();
+                    } while (tryConsume(','));
+                    expect(']');
+                }
+            }
+            default -> {
+                if (b != '-' && (b < '0' || b > '9') && b != 't' && b != 'f' && b != 'n') {
+                    throw error("Unexpected value");
+                }
+                while (true) {
+                    int c = peek();
+                    if (c < 0 || c == ',' || c == '}' || c == ']' || c <= ' ') break;
+                    next();
+                }
+            }
+        }
+    }
+    
+    private void expect(int expected) throws IOException {
+        if (skipWhitespace() != expected) {
+            throw error("Expected '" + (char) expected + "'");
+        }
+        position++;
+    }
+    
+    private boolean tryConsume(int expected) throws IOException {
+        if (skipWhitespace() != expected) {
+            return false;
+        }
+        position++;
+        return true;
+    }
+    
+    private boolean tryConsumeRaw(int expected) throws IOException {
+        if (peek() != expected) {
+            return false;
+        }
+        position++;
+        return true;
+    }
+    
+    private int skipWhitespace() throws IOException {
+        while (position < limit || fill()) {
+            int b = buffer[position];
+            if (b != ' ' && b != '\n' && b != '\r' && b != '\t') {
+                return b;
+            }
+            position++;
+        }
+        return -1;
+    }
+    
+    private int peek() throws IOException {
+        return position < limit || fill() ? buffer[position] & 0xFF : -1;
+    }
+    
+    private int next() throws IOException {
+        if (position == limit && !fill()) {
+            throw error("Unexpected end of input");
+        }
+        return buffer[position++] & 0xFF;
+    }
+    
+    private boolean fill() throws IOException {
+        consumed += limit;
+        position = 0;
+        limit = Math.max(0, in.read(buffer, 0, buffer.length));
+        return limit > 0;
+    }
+    
+    private IOException error(String message) {
+        return new IOException("Invalid network JSON at byte " + (consumed + position) + ": " + message);
+    }
+    
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+    
+    private static byte[][] names(Enum<?>[] values) {
+        byte[][] names = new byte[values.length][];
+        for (int i = 0; i < values.length; i++) {
+            names[i] = ascii(values[i].name());
+        }
+        return names;
+    }
+    
+    private static final class IdPool {
+        private byte[][] keys = new byte[1024][];
+        private String[] values = new String[1024];
+        private int size;
+        
+        // Edge endpoints resolve to the node's own id string without allocating a new one per edge
+        String intern(byte[] bytes, int length) {
+            int mask = keys.length - 1;
+            int slot = hash(bytes, length) & mask;
+            while (keys[slot] != null) {
+                if (Arrays.equals(keys[slot], 0, keys[slot].length, bytes, 0, length)) {
+                    return values[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            
+            byte[] key = Arrays.copyOf(bytes, length);
+            String value = new String(key, StandardCharsets.UTF_8);
+            keys[slot] = key;
+            values[slot] = value;
+            if (++size * 2 > keys.length) {
+                grow();
+            }
+            return value;
+        }
+        
+        private void grow() {
+            byte[][] oldKeys = keys;
+            String[] oldValues = values;
+            keys = new byte[oldKeys.length * 2][];
+            values = new String[oldKeys.length * 2];
+            int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] == null) continue;
+                int slot = hash(oldKeys[i], oldKeys[i].length) & mask;
+                while (keys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+        
+        private static int hash(byte[] bytes, int length) {
+            int hash = 0x811C9DC5;
+            for (int i = 0; i < length; i++) {
+                hash = (hash ^ bytes[i]) * 0x01000193;
+            }
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
\ No newline at end of file
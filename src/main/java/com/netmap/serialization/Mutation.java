@@ -0,0 +1,205 @@
+package com.netmap.serialization;
+
+import com.netmap.core.domain.ConnectionType;
+import com.netmap.core.domain.Edge;
+import com.netmap.core.domain.Node;
+import com.netmap.core.domain.NodeType;
+import com.netmap.graph.GraphBatch;
+import com.netmap.graph.NetworkGraph;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+public final class Mutation {
+    
+    private static final int ADD_NODE = 1;
+    private static final int ADD_EDGE = 2;
+    private static final int ADD_ALL = 3;
+    private static final int ASSIGN_SUBNET = 4;
+    private static final int CLEAR = 5;
+    
+    private static final NodeType[] NODE_TYPES = NodeType.values();
+    private static final ConnectionType[] CONNECTION_TYPES = ConnectionType.values();
+    private static final Mutation CLEAR_ALL = new Mutation(CLEAR, Collections.emptyList(), Collections.emptyList(), null, null);
+    
+    private final int kind;
+    private final List<Node> nodes;
+    private final List<Edge> edges;
+    private final String cidr;
+    private final String nodeId;
+    
+    private Mutation(int kind, List<Node> nodes, List<Edge> edges, String cidr, String nodeId) {
+        this.kind = kind;
+        this.nodes = nodes;
+        this.edges = edges;
+        this.cidr = cidr;
+        this.nodeId = nodeId;
+    }
+    
+    public static Mutation addNode(Node node) {
+        Objects.requireNonNull(node, "Node cannot be null");
+        return new Mutation(ADD_NODE, List.of(node), Collections.emptyList(), null, null);
+    }
+    
+    public static Mutation addEdge(Edge edge) {
+        Objects.requireNonNull(edge, "Edge cannot be null");
+        return new Mutation(ADD_EDGE, Collections.emptyList(), List.of(edge), null, null);
+    }
+    
+    public static Mutation addAll(Collection<Node> nodes, Collection<Edge> edges) {
+        Objects.requireNonNull(nodes, "Nodes cannot be null");
+        Objects.requireNonNull(edges, "Edges cannot be null");
+        return new Mutation(ADD_ALL, List.copyOf(nodes), List.copyOf(edges), null, null);
+    }
+    
+    public static Mutation assignSubnet(String cidr, String nodeId) {
+        Objects.requireNonNull(cidr, "CIDR cannot be null");
+        Objects.requireNonNull(nodeId, "Node ID cannot be null");
+        return new Mutation(ASSIGN_SUBNET, Collections.emptyList(), Collections.emptyList(), cidr, nodeId);
+    }
+    
+    public static Mutation clear() {
+        return CLEAR_ALL;
+    }
+    
+    public void applyTo(NetworkGraph graph) {
+        switch (kind) {
+            case ADD_NODE -> graph.addNode(nodes.get(0));
+            case ADD_EDGE -> graph.addEdge(edges.get(0));
+            case ADD_ALL -> {
+                GraphBatch batch = graph.newBatch();
+                nodes.forEach(batch::addNode);
+                edges.forEach(batch::addEdge);
+                batch.commit();
+            }
+            case ASSIGN_SUBNET -> graph.assignSubnet(cidr, nodeId);
+            default -> graph.clear();
+        }
+    }
+    
+    void writeTo(RecordWriter out) {
+        out.writeByte(kind);
+        if (kind == ADD_ALL) {
+            out.writeVarint(nodes.size());
+            nodes.forEach(node -> writeNode(node, out));
+            out.writeVarint(edges.size());
+            edges.forEach(edge -> writeEdge(edge, out));
+        } else if (kind == ADD_NODE) {
+            writeNode(nodes.get(0), out);
+        } else if (kind == ADD_EDGE) {
+            writeEdge(edges.get(0), out);
+        } else if (kind == ASSIGN_SUBNET) {
+            out.writeString(cidr);
+            out.writeString(nodeId);
+        }
+    }
+    
+    static Mutation readFrom(ByteBuffer in) throws IOException {
+        try {
+            int kind = in.get();
+            Mutation mutation = switch (kind) {
+                case ADD_NODE -> new Mutation(kind, List.of(readNode(in)), Collections.emptyList(), null, null);
+                case ADD_EDGE -> new Mutation(kind, Collections.emptyList(), List.of(readEdge(in)), null, null);
+                case ADD_ALL -> {
+                    int nodeCount = readCount(in);
+                    List<Node> nodes = new ArrayList<>(nodeCount);
+                    for (int i = 0; i < nodeCount; i++) {
+                        nodes.add(readNode(in));
+                    }
+                    int edgeCount = readCount(in);
+                    List<Edge> edges = new ArrayList<>(edgeCount);
+                    for (int i = 0; i < edgeCount; i++) {
+                        edges.add(readEdge(in));
+                    }
+                    yield new Mutation(kind, nodes, edges, null, null);
+                }
+                case ASSIGN_SUBNET -> new Mutation(kind, Collections.emptyList(), Collections.emptyList(), readString(in), readString(in));
+                case CLEAR -> CLEAR_ALL;
+                default -> throw new IOException("Unknown mutation type: " + kind);
+            };
+            if (in.hasRemaining()) {
+                throw new IOException("Trailing bytes after mutation");
+            }
+            return mutation;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("Malformed mutation record", e);
+        }
+    }
+    
+    private static void writeNode(Node node, RecordWriter out) {
+        out.writeString(node.getId());
+        out.writeString(node.getName());
+        out.writeString(node.getIpAddress());
+        out.writeByte(node.getType().ordinal());
+    }
+    
+    private static void writeEdge(Edge edge, RecordWriter out) {
+        out.writeString(edge.getSourceId());
+        out.writeString(edge.getTargetId());
+        out.writeVarint(edge.getBandwidth());
+        out.writeVarint(edge.getLatency());
+        out.writeByte(edge.getConnectionType().ordinal());
+    }
+    
+    private static Node readNode(ByteBuffer in) {
+        return Node.builder()
+            .id(readString(in))
+            .name(readString(in))
+            .ipAddress(readString(in))
+            .type(NODE_TYPES[in.get()])
+            .build();
+    }
+    
+    private static Edge readEdge(ByteBuffer in) {
+        return Edge.builder()
+            .sourceId(readString(in))
+            .targetId(readString(in))
+            .bandwidth(readVarint(in))
+            .latency(readVarint(in))
+            .connectionType(CONNECTION_TYPES[in.get()])
+            .build();
+    }
+    
+    private static int readCount(ByteBuffer in) {
+        int count = readVarint(in);
+        // Every node or edge takes more than one byte, so a larger count can only come from a damaged record
+        if (count < 0 || count > in.remaining()) {
+            throw new IllegalArgumentException("Invalid count: " + count);
+        }
+        return count;
+    }
+    
+    private static String readString(ByteBuffer in) {
+        int length = readCount(in);
+        String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+    
+    private static int readVarint(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Varint is too long");
+    }
+    
+    interface RecordWriter {
+        void writeByte(int value);
+        
+        void writeVarint(int value);
+        
+        void writeString(String value);
+    }
+}
\ No newline at end of file
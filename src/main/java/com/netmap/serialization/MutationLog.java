@@ -0,0 +1,541 @@
+package com.netmap.serialization;
+
+import com.netmap.graph.GraphSnapshot;
+import com.netmap.graph.NetworkGraph;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+public final class MutationLog implements Closeable {
+    
+    public static final long DEFAULT_COMPACTION_THRESHOLD = 64L << 20;
+    
+    static final int MAGIC = 0x4E4D574C;
+    static final int FORMAT_VERSION = 1;
+    
+    private static final int HEADER_SIZE = 13;
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final String SEGMENT_PREFIX = "log-";
+    private static final String SEGMENT_SUFFIX = ".wal";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".nmg";
+    private static final String TEMP_SUFFIX = ".tmp";
+    
+    private final Path directory;
+    private final NetworkGraph graph;
+    private final long compactionThreshold;
+    private final ReentrantLock lock;
+    private final Condition synced;
+    private final ReentrantLock compactionLock;
+    private final AtomicBoolean compactionScheduled;
+    private final ExecutorService compactor;
+    private final CRC32 checksum;
+    private FileChannel segment;
+    private long generation;
+    private volatile long segmentBytes;
+    private RecordBuffer pending;
+    private RecordBuffer spare;
+    private long appended;
+    private long durable;
+    private long syncCount;
+    private boolean syncing;
+    private boolean closed;
+    private IOException failure;
+    private volatile IOException compactionFailure;
+    
+    private MutationLog(Path directory, NetworkGraph graph, long compactionThreshold) {
+        this.directory = directory;
+        this.graph = graph;
+        this.compactionThreshold = compactionThreshold;
+        this.lock = new ReentrantLock();
+        this.synced = lock.newCondition();
+        this.compactionLock = new ReentrantLock();
+        this.compactionScheduled = new AtomicBoolean();
+        this.compactor = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "netmap-log-compaction");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.checksum = new CRC32();
+        this.pending = new RecordBuffer();
+        this.spare = new RecordBuffer();
+    }
+    
+    public static MutationLog open(Path directory) throws IOException {
+        return open(directory, DEFAULT_COMPACTION_THRESHOLD);
+    }
+    
+    public static MutationLog open(Path directory, long compactionThreshold) throws IOException {
+        Objects.requireNonNull(directory, "Directory cannot be null");
+        if (compactionThreshold <= 0) {
+            throw new IllegalArgumentException("Compaction threshold must be positive");
+        }
+        Files.createDirectories(directory);
+        
+        List<Long> snapshots = new ArrayList<>();
+        List<Long> segments = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(TEMP_SUFFIX)) {
+                    // Leftover of a compaction that never completed
+                    Files.delete(file);
+                } else if (name.startsWith(SNAPSHOT_PREFIX) && name.endsWith(SNAPSHOT_SUFFIX)) {
+                    snapshots.add(parseGeneration(name, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX));
+                } else if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                    segments.add(parseGeneration(name, SEGMENT_PREFIX, SEGMENT_SUFFIX));
+                }
+            }
+        }
+        
+        // snapshot-N holds every mutation logged before segment N
+        long base = snapshots.stream().mapToLong(Long::longValue).max().orElse(0);
+        NetworkGraph graph;
+        if (base > 0) {
+            try (InputStream in = Files.newInputStream(snapshotPath(directory, base))) {
+                graph = BinaryGraphReader.read(in);
+            }
+        } else {
+            graph = new NetworkGraph();
+        }
+        
+        MutationLog log = new MutationLog(directory, graph, compactionThreshold);
+        long[] replay = segments.stream().mapToLong(Long::longValue).filter(g -> g >= base).sorted().toArray();
+        long validBytes = 0;
+        for (int i = 0; i < replay.length; i++) {
+            validBytes = log.replay(segmentPath(directory, replay[i]), i == replay.length - 1);
+        }
+        
+        long current = replay.length > 0 ? replay[replay.length - 1] : Math.max(base, 1);
+        log.openSegment(current, validBytes);
+        log.deleteBefore(base);
+        return log;
+    }
+    
+    public NetworkGraph getGraph() {
+        return graph;
+    }
+    
+    public void commit(Mutation mutation) throws IOException {
+        Objects.requireNonNull(mutation, "Mutation cannot be null");
+        
+        long sequence;
+        lock.lock();
+        try {
+            ensureWritable();
+            // Applying first keeps invalid mutations out of the log; the lock keeps log order equal to apply order.
+            // The graph is therefore ahead of the disk until the sync below; if that sync fails the log goes
+            // read-only for good (see isFailed) and only reopening it returns to the durable state
+            mutation.applyTo(graph);
+            pending.beginRecord();
+            mutation.writeTo(pending);
+            pending.endRecord(checksum);
+            sequence = ++appended;
+        } finally {
+            lock.unlock();
+        }
+        
+        awaitDurable(sequence);
+        if (segmentBytes >= compactionThreshold && compactionScheduled.compareAndSet(false, true)) {
+            try {
+                compactor.execute(this::compactInBackground);
+            } catch (RejectedExecutionException e) {
+                // The log is closing; the record is already durable and the segment replays on the next open
+                compactionScheduled.set(false);
+            }
+        }
+    }
+    
+    public boolean isFailed() {
+        lock.lock();
+        try {
+            return failure != null;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public void compact() throws IOException {
+        compactionLock.lock();
+        try {
+            GraphSnapshot snapshot;
+            Map<String, List<String>> subnets;
+            long snapshotGeneration;
+            lock.lock();
+            try {
+                ensureWritable();
+                while (syncing) {
+                    synced.awaitUninterruptibly();
+                }
+                flush(pending);
+                durable = appended;
+                synced.signalAll();
+                
+                snapshotGeneration = generation + 1;
+                segment.close();
+                openSegment(snapshotGeneration, 0);
+                snapshot = graph.snapshot();
+                subnets = graph.getSubnetAssignments();
+            } catch (IOException e) {
+                failure = e;
+                throw e;
+            } finally {
+                lock.unlock();
+            }
+            
+            // Writers continue on the new segment while the captured state is written out
+            Path temp = directory.resolve(SNAPSHOT_PREFIX + snapshotGeneration + SNAPSHOT_SUFFIX + TEMP_SUFFIX);
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE)) {
+                OutputStream out = Channels.newOutputStream(channel);
+                BinaryGraphWriter.write(snapshot, subnets, out);
+                out.flush();
+                channel.force(true);
+            }
+            Files.move(temp, snapshotPath(directory, snapshotGeneration), StandardCopyOption.ATOMIC_MOVE);
+            syncDirectory();
+            deleteBefore(snapshotGeneration);
+        } finally {
+            compactionLock.unlock();
+        }
+    }
+    
+    public long getGeneration() {
+        lock.lock();
+        try {
+            return generation;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public long getSyncCount() {
+        lock.lock();
+        try {
+            return syncCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        compactor.shutdown();
+        try {
+            compactor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            while (syncing) {
+                synced.awaitUninterruptibly();
+            }
+            try {
+                if (failure == null) {
+                    flush(pending);
+                    durable = appended;
+                }
+            } finally {
+                segment.close();
+                synced.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+        
+        if (compactionFailure != null) {
+            throw new IOException("Background compaction failed", compactionFailure);
+        }
+    }
+    
+    private void awaitDurable(long sequence) throws IOException {
+        lock.lock();
+        try {
+            while (durable < sequence) {
+                if (failure != null) {
+                    throw new IOException("Mutation log is unavailable", failure);
+                }
+                if (syncing) {
+                    synced.awaitUninterruptibly();
+                    continue;
+                }
+                
+                // Group commit: the first waiter writes and syncs every record buffered so far,
+                // later writers keep appending to the other buffer meanwhile
+                RecordBuffer batch = pending;
+                long target = appended;
+                pending = spare;
+                syncing = true;
+                IOException error = null;
+                lock.unlock();
+                try {
+                    flush(batch);
+                } catch (IOException e) {
+                    error = e;
+                } finally {
+                    lock.lock();
+                }
+                spare = batch;
+                syncing = false;
+                if (error != null) {
+                    // Every record in the batch is already applied to the graph but may not be on disk
+                    failure = error;
+                } else {
+                    durable = target;
+                }
+                synced.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void flush(RecordBuffer batch) throws IOException {
+        if (batch.size() == 0) {
+            return;
+        }
+        ByteBuffer bytes = ByteBuffer.wrap(batch.array(), 0, batch.size());
+        while (bytes.hasRemaining()) {
+            segment.write(bytes);
+        }
+        segment.force(false);
+        segmentBytes += batch.size();
+        syncCount++;
+        batch.reset();
+    }
+    
+    private void compactInBackground() {
+        try {
+            compact();
+            compactionFailure = null;
+        } catch (IOException e) {
+            compactionFailure = e;
+        } finally {
+            compactionScheduled.set(false);
+        }
+    }
+    
+    private void ensureWritable() throws IOException {
+        if (closed) {
+            throw new IOException("Mutation log is closed");
+        }
+        if (failure != null) {
+            throw new IOException("Mutation log is unavailable", failure);
+        }
+    }
+    
+    private long replay(Path path, boolean last) throws IOException {
+        byte[] data = Files.readAllBytes(path);
+        ByteBuffer in = ByteBuffer.wrap(data).order(ByteOrder.BIG_ENDIAN);
+        if (data.length < HEADER_SIZE) {
+            // A crash while a segment was being created can leave its header incomplete
+            if (last) return 0;
+            throw corrupt(path, "truncated header");
+        }
+        if (in.getInt() != MAGIC || in.get() != FORMAT_VERSION) {
+            throw corrupt(path, "bad header");
+        }
+        in.getLong();
+        
+        CRC32 crc = new CRC32();
+        while (in.remaining() > 0) {
+            int start = in.position();
+            boolean torn = in.remaining() < RECORD_HEADER_SIZE;
+            int length = torn ? 0 : in.getInt();
+            int expected = torn ? 0 : in.getInt();
+            if (!torn) {
+                torn = length <= 0 || length > in.remaining();
+            }
+            if (!torn) {
+                crc.reset();
+                crc.update(data, in.position(), length);
+                torn = (int) crc.getValue() != expected;
+            }
+            if (torn) {
+                // Only the tail of the newest segment can hold a partially written group
+                if (last) return start;
+                throw corrupt(path, "damaged record at byte " + start);
+            }
+            
+            ByteBuffer payload = ByteBuffer.wrap(data, in.position(), length).slice();
+            in.position(in.position() + length);
+            Mutation mutation = Mutation.readFrom(payload);
+            try {
+                mutation.applyTo(graph);
+            } catch (IllegalArgumentException e) {
+                throw corrupt(path, "record at byte " + start + " cannot be applied: " + e.getMessage());
+            }
+        }
+        return data.length;
+    }
+    
+    private void openSegment(long segmentGeneration, long validBytes) throws IOException {
+        FileChannel channel = FileChannel.open(segmentPath(directory, segmentGeneration),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (validBytes < HEADER_SIZE) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                header.putInt(MAGIC).put((byte) FORMAT_VERSION).putLong(segmentGeneration).flip();
+                channel.truncate(0);
+                while (header.hasRemaining()) {
+                    channel.write(header);
+                }
+                validBytes = HEADER_SIZE;
+            } else {
+                channel.truncate(validBytes);
+            }
+            channel.position(validBytes);
+            channel.force(true);
+            syncDirectory();
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        segment = channel;
+        generation = segmentGeneration;
+        segmentBytes = validBytes;
+    }
+    
+    private void syncDirectory() {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Some platforms cannot open or sync a directory; file contents are already forced
+        }
+    }
+    
+    private void deleteBefore(long keepGeneration) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                boolean snapshot = name.startsWith(SNAPSHOT_PREFIX) && name.endsWith(SNAPSHOT_SUFFIX);
+                boolean segmentFile = name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                if (snapshot && parseGeneration(name, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX) < keepGeneration
+                        || segmentFile && parseGeneration(name, SEGMENT_PREFIX, SEGMENT_SUFFIX) < keepGeneration) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+    
+    private static long parseGeneration(String name, String prefix, String suffix) throws IOException {
+        try {
+            return Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length()));
+        } catch (NumberFormatException e) {
+            throw new IOException("Unexpected file in mutation log directory: " + name);
+        }
+    }
+    
+    private static Path segmentPath(Path directory, long generation) {
+        return directory.resolve(SEGMENT_PREFIX + generation + SEGMENT_SUFFIX);
+    }
+    
+    private static Path snapshotPath(Path directory, long generation) {
+        return directory.resolve(SNAPSHOT_PREFIX + generation + SNAPSHOT_SUFFIX);
+    }
+    
+    private static IOException corrupt(Path path, String detail) {
+        return new IOException("Mutation log is corrupt: " + path.getFileName() + ": " + detail);
+    }
+    
+    private static final class RecordBuffer implements Mutation.RecordWriter {
+        private byte[] data = new byte[1 << 12];
+        private int size;
+        private int recordStart;
+        
+        void beginRecord() {
+            recordStart = size;
+            ensure(RECORD_HEADER_SIZE);
+            size += RECORD_HEADER_SIZE;
+        }
+        
+        void endRecord(CRC32 checksum) {
+            int payload = recordStart + RECORD_HEADER_SIZE;
+            checksum.reset();
+            checksum.update(data, payload, size - payload);
+            putInt(recordStart, size - payload);
+            putInt(recordStart + 4, (int) checksum.getValue());
+        }
+        
+        @Override
+        public void writeByte(int value) {
+            ensure(1);
+            data[size++] = (byte) value;
+        }
+        
+        @Override
+        public void writeVarint(int value) {
+            ensure(5);
+            while ((value & ~0x7F) != 0) {
+                data[size++] = (byte) (value & 0x7F | 0x80);
+                value >>>= 7;
+            }
+            data[size++] = (byte) value;
+        }
+        
+        @Override
+        public void writeString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(bytes.length);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, data, size, bytes.length);
+            size += bytes.length;
+        }
+        
+        byte[] array() {
+            return data;
+        }
+        
+        int size() {
+            return size;
+        }
+        
+        void reset() {
+            size = 0;
+        }
+        
+        private void putInt(int offset, int value) {
+            data[offset] = (byte) (value >>> 24);
+            data[offset + 1] = (byte) (value >>> 16);
+            data[offset + 2] = (byte) (value >>> 8);
+            data[offset + 3] = (byte) value;
+        }
+        
+        private void ensure(int extra) {
+            if (size + extra > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, size + extra));
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -1,8 +1,10 @@
 package com.netmap.serialization;
 
+import com.netmap.graph.MappedGraph;
 import com.netmap.graph.NetworkGraph;
 
 import java.io.*;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -11,6 +13,8 @@ import java.util.Objects;
 public class NetworkSerializer {
     
     private static final String DEFAULT_DIRECTORY = "data";
+    private static final String MAPPED_EXTENSION = ".nmm";
+    private static final String JOURNAL_EXTENSION = ".journal";
     
     public static void serialize(NetworkGraph graph, String filename) throws IOException {
         Objects.requireNonNull(graph, "Graph cannot be null");
@@ -32,6 +36,38 @@ public class NetworkSerializer {
         }
     }
     
+    public static void serialize(NetworkGraph graph, String filename, SerializationFormat format) throws IOException {
+        Objects.requireNonNull(format, "Format cannot be null");
+        if (format == SerializationFormat.JAVA) {
+            serialize(graph, filename);
+            return;
+        }
+        Objects.requireNonNull(graph, "Graph cannot be null");
+        Objects.requireNonNull(filename, "Filename cannot be null");
+        
+        Path directory = Paths.get(DEFAULT_DIRECTORY);
+        if (!Files.exists(directory)) {
+            Files.createDirectories(directory);
+        }
+        
+        try (OutputStream out = new FileOutputStream(filePath(filename, format))) {
+            BinaryGraphWriter.write(graph, out);
+        }
+    }
+    
+    public static NetworkGraph deserialize(String filename, SerializationFormat format)
+            throws IOException, ClassNotFoundException {
+        Objects.requireNonNull(format, "Format cannot be null");
+        if (format == SerializationFormat.JAVA) {
+            return deserialize(filename);
+        }
+        Objects.requireNonNull(filename, "Filename cannot be null");
+        
+        try (InputStream in = new FileInputStream(filePath(filename, format))) {
+            return BinaryGraphReader.read(in);
+        }
+    }
+    
     public static NetworkGraph deserialize(String filename) throws IOException, ClassNotFoundException {
         Objects.requireNonNull(filename, "Filename cannot be null");
         
@@ -46,6 +82,110 @@ public class NetworkSerializer {
         }
     }
     
+    public static void serializeRoutingIndex(NetworkGraph graph, String filename) throws IOException {
+        Objects.requireNonNull(graph, "Graph cannot be null");
+        Objects.requireNonNull(filename, "Filename cannot be null");
+        
+        Path directory = Paths.get(DEFAULT_DIRECTORY);
+        if (!Files.exists(directory)) {
+            Files.createDirectories(directory);
+        }
+        
+        try (OutputStream out = new FileOutputStream(routingIndexPath(filename))) {
+            graph.snapshot().getContractionHierarchy().writeTo(out);
+        }
+    }
+    
+    public static boolean loadRoutingIndex(NetworkGraph graph, String filename) throws IOException {
+        Objects.requireNonNull(graph, "Graph cannot be null");
+        Objects.requireNonNull(filename, "Filename cannot be null");
+        
+        String filepath = routingIndexPath(filename);
+        if (!Files.exists(Paths.get(filepath))) {
+            return false;
+        }
+        
+        try (InputStream in = new FileInputStream(filepath)) {
+            return graph.snapshot().loadContractionHierarchy(in);
+        } catch (StreamCorruptedException | EOFException e) {
+            // An unreadable or old-format index is treated like a stale one and rebuilt on first use
+            return false;
+        }
+    }
+    
+    private static String routingIndexPath(String filename) {
+        String filepath = DEFAULT_DIRECTORY + File.separator + filename;
+        for (SerializationFormat format : SerializationFormat.values()) {
+            if (filepath.endsWith(format.getExtension())) {
+                filepath = filepath.substring(0, filepath.length() - format.getExtension().length());
+            }
+        }
+        return filepath + ".ch";
+    }
+    
+    private static String filePath(String filename, SerializationFormat format) {
+        String filepath = DEFAULT_DIRECTORY + File.separator + filename;
+        if (!filepath.endsWith(format.getExtension())) {
+            filepath += format.getExtension();
+        }
+        return filepath;
+    }
+    
+    public static void exportMapped(NetworkGraph graph, String filename) throws IOException {
+        Objects.requireNonNull(graph, "Graph cannot be null");
+        Objects.requireNonNull(filename, "Filename cannot be null");
+        
+        Path directory = Paths.get(DEFAULT_DIRECTORY);
+        if (!Files.exists(directory)) {
+            Files.createDirectories(directory);
+        }
+        MappedGraph.write(graph.snapshot(), Paths.get(mappedPath(filename)));
+    }
+    
+    public static MappedGraph openMapped(String filename) throws IOException {
+        Objects.requireNonNull(filename, "Filename cannot be null");
+        return MappedGraph.open(Paths.get(mappedPath(filename)));
+    }
+    
+    public static MutationLog openMutationLog(String filename) throws IOException {
+        return openMutationLog(filename, MutationLog.DEFAULT_COMPACTION_THRESHOLD);
+    }
+    
+    public static MutationLog openMutationLog(String filename, long compactionThreshold) throws IOException {
+        Objects.requireNonNull(filename, "Filename cannot be null");
+        return MutationLog.open(Paths.get(journalPath(filename)), compactionThreshold);
+    }
+    
+    public static void deleteMutationLog(String filename) throws IOException {
+        Objects.requireNonNull(filename, "Filename cannot be null");
+        Path journal = Paths.get(journalPath(filename));
+        if (!Files.isDirectory(journal)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(journal)) {
+            for (Path file : files) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(journal);
+    }
+    
+    private static String journalPath(String filename) {
+        String filepath = DEFAULT_DIRECTORY + File.separator + filename;
+        if (!filepath.endsWith(JOURNAL_EXTENSION)) {
+            filepath += JOURNAL_EXTENSION;
+        }
+        return filepath;
+    }
+    
+    private static String mappedPath(String filename) {
+        String filepath = DEFAULT_DIRECTORY + File.separator + filename;
+        if (!filepath.endsWith(MAPPED_EXTENSION)) {
+            filepath += MAPPED_EXTENSION;
+        }
+        return filepath;
+    }
+    
     public static void serializeToBytes(NetworkGraph graph, OutputStream outputStream) 
             throws IOException {
         Objects.requireNonNull(graph, "Graph cannot be null");
@@ -73,11 +213,18 @@ public class NetworkSerializer {
         return Files.exists(Paths.get(filepath));
     }
     
+    public static boolean fileExists(String filename, SerializationFormat format) {
+        return Files.exists(Paths.get(filePath(filename, format)));
+    }
+    
     public static void deleteSerializedFile(String filename) throws IOException {
         String filepath = DEFAULT_DIRECTORY + File.separator + filename;
         if (!filepath.endsWith(".ser")) {
             filepath += ".ser";
         }
         Files.deleteIfExists(Paths.get(filepath));
+        Files.deleteIfExists(Paths.get(filePath(filename, SerializationFormat.BINARY)));
+        Files.deleteIfExists(Paths.get(mappedPath(filename)));
+        Files.deleteIfExists(Paths.get(routingIndexPath(filename)));
     }
 }
\ No newline at end of file
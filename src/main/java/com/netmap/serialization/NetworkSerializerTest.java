@@ -1,10 +1,45 @@
 package com.netmap.serialization;
 
 import com.netmap.core.domain.*;
+import com.netmap.graph.GraphBatch;
+import com.netmap.graph.MappedGraph;
 import com.netmap.graph.NetworkGraph;
+import com.netmap.graph.RoutingMode;
+import com.netmap.graph.WeightedPath;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
 
 public class NetworkSerializerTest {
     
+    // A two-node graph written by the original HashMap-based NetworkGraph
+    private static final String LEGACY_GRAPH =
+        "rO0ABXNyAB1jb20ubmV0bWFwLmdyYXBoLk5ldHdvcmtHcmFwaAAAAAAAAAABAgACTAANYWRqYWNlbmN5TGlzdHQAD0xqYXZh" +
+        "L3V0aWwvTWFwO0wABW5vZGVzcQB+AAF4cHNyABFqYXZhLnV0aWwuSGFzaE1hcAUH2sHDFmDRAwACRgAKbG9hZEZhY3RvckkA" +
+        "CXRocmVzaG9sZHhwP0AAAAAAAAx3CAAAABAAAAACdAABYXNyABNqYXZhLnV0aWwuQXJyYXlMaXN0eIHSHZnHYZ0DAAFJAARz" +
+        "aXpleHAAAAABdwQAAAABc3IAG2NvbS5uZXRtYXAuY29yZS5kb21haW4uRWRnZQAAAAAAAAABAgAFSQAJYmFuZHdpZHRoSQAH" +
+        "bGF0ZW5jeUwADmNvbm5lY3Rpb25UeXBldAAnTGNvbS9uZXRtYXAvY29yZS9kb21haW4vQ29ubmVjdGlvblR5cGU7TAAIc291" +
+        "cmNlSWR0ABJMamF2YS9sYW5nL1N0cmluZztMAAh0YXJnZXRJZHEAfgAKeHAAAAPoAAAABX5yACVjb20ubmV0bWFwLmNvcmUu" +
+        "ZG9tYWluLkNvbm5lY3Rpb25UeXBlAAAAAAAAAAASAAB4cgAOamF2YS5sYW5nLkVudW0AAAAAAAAAABIAAHhwdAAFRklCRVJx" +
+        "AH4ABXQAAWJ4cQB+ABBzcQB+AAYAAAAAdwQAAAAAeHhzcQB+AAM/QAAAAAAADHcIAAAAEAAAAAJxAH4ABXNyABtjb20ubmV0" +
+        "bWFwLmNvcmUuZG9tYWluLk5vZGUAAAAAAAAAAQIABEwAAmlkcQB+AApMAAlpcEFkZHJlc3NxAH4ACkwABG5hbWVxAH4ACkwA" +
+        "BHR5cGV0ACFMY29tL25ldG1hcC9jb3JlL2RvbWFpbi9Ob2RlVHlwZTt4cHEAfgAFdAAIMTAuMC4wLjF0AAVBbHBoYX5yAB9j" +
+        "b20ubmV0bWFwLmNvcmUuZG9tYWluLk5vZGVUeXBlAAAAAAAAAAASAAB4cQB+AA10AAZST1VURVJxAH4AEHNxAH4AE3EAfgAQ" +
+        "dAAIMTAuMC4wLjJ0AARCZXRhfnEAfgAYdAAGU0VSVkVSeA==";
+    
     public static void main(String[] args) {
         NetworkSerializerTest test = new NetworkSerializerTest();
         test.runAllTests();
@@ -15,6 +50,13 @@ public class NetworkSerializerTest {
         
         testSerialization();
         testDeserialization();
+        testLegacyFormat();
+        testRoutingIndexPersistence();
+        testBinaryFormat();
+        testMappedGraph();
+        testJsonExport();
+        testJsonImport();
+        testEdgeLimitsRoundTrip();
         
         System.out.println("\n✓ All Serialization tests passed!");
     }
@@ -57,6 +99,501 @@ public class NetworkSerializerTest {
         }
     }
     
+    private void testLegacyFormat() {
+        System.out.println("Test: Load Legacy Serialized Graph");
+        
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(LEGACY_GRAPH)))) {
+            NetworkGraph legacy = (NetworkGraph) in.readObject();
+            assertEqual(2, legacy.getNodeCount(), "Legacy nodes should load");
+            assertEqual(1, legacy.getEdgeCount(), "Legacy edges should load");
+            assertEqual(1, legacy.getIncomingEdges("b").size(), "Reverse index should be rebuilt");
+            assertTrue(legacy.inSameComponent("a", "b"), "Components should be rebuilt");
+            assertEqual(1, legacy.findNodesByAddress("10.0.0.2").size(), "Address index should be rebuilt");
+            
+            legacy.assignSubnet("192.168.0.0/16", "a");
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+                out.writeObject(legacy);
+            }
+            try (ObjectInputStream reread = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+                NetworkGraph copy = (NetworkGraph) reread.readObject();
+                assertEqual(1, copy.getEdgeCount(), "Edges should survive a second round trip");
+                assertEqual(1, copy.resolveAddress("192.168.7.7").size(), "Subnet assignments should be serialized");
+            }
+            
+            System.out.println("  ✓ Passed\n");
+        } catch (IOException | ClassNotFoundException e) {
+            throw new AssertionError("Legacy graph failed to load: " + e.getMessage());
+        }
+    }
+    
+    private void testRoutingIndexPersistence() {
+        System.out.println("Test: Routing Index Persistence");
+        
+        NetworkGraph graph = new NetworkGraph();
+        for (int i = 0; i < 30; i++) {
+            graph.addNode(Node.builder()
+                .id("r" + i)
+                .name("Router " + i)
+                .ipAddress("10.0.0." + (i + 1))
+                .type(NodeType.ROUTER)
+                .build());
+        }
+        for (int i = 0; i < 30; i++) {
+            graph.addEdge(createEdge("r" + i, "r" + ((i + 1) % 30), 1 + i % 7));
+            graph.addEdge(createEdge("r" + i, "r" + ((i * 7 + 3) % 30), 5 + i % 11));
+        }
+        
+        try {
+            NetworkSerializer.serialize(graph, "test_routing");
+            NetworkSerializer.serializeRoutingIndex(graph, "test_routing");
+            
+            NetworkGraph loaded = NetworkSerializer.deserialize("test_routing");
+            assertTrue(NetworkSerializer.loadRoutingIndex(loaded, "test_routing"), "Index should match the reloaded graph");
+            for (int i = 0; i < 30; i += 4) {
+                long expected = graph.findLowestLatencyPath("r" + i, "r" + (29 - i)).orElseThrow().getCost();
+                long actual = loaded.findLowestLatencyPath("r" + i, "r" + (29 - i), RoutingMode.CONTRACTION_HIERARCHY)
+                    .orElseThrow().getCost();
+                assertEqual((int) expected, (int) actual, "Reloaded hierarchy should route optimally");
+            }
+            
+            loaded.addEdge(createEdge("r0", "r15", 1));
+            assertTrue(!NetworkSerializer.loadRoutingIndex(loaded, "test_routing"), "Stale index should be rejected");
+            Files.write(Paths.get("data", "test_routing.ch"), new byte[] {'N', 'O', 'P', 'E', 0, 0, 0, 1});
+            assertTrue(!NetworkSerializer.loadRoutingIndex(loaded, "test_routing"), "Corrupt index should be ignored");
+            
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            graph.snapshot().getContractionHierarchy().writeTo(bytes);
+            assertTrue(graph.snapshot().loadContractionHierarchy(new ByteArrayInputStream(bytes.toByteArray())),
+                       "In-memory round trip should load");
+            byte[] index = bytes.toByteArray();
+            for (int i = 0; i < index.length; i++) {
+                byte[] damaged = index.clone();
+                damaged[i] ^= 0x10;
+                Files.write(Paths.get("data", "test_routing.ch"), damaged);
+                assertTrue(!NetworkSerializer.loadRoutingIndex(graph, "test_routing"), "Bit error at " + i + " should be ignored");
+                Files.write(Paths.get("data", "test_routing.ch"), Arrays.copyOf(index, i));
+                assertTrue(!NetworkSerializer.loadRoutingIndex(graph, "test_routing"), "Truncation at " + i + " should be ignored");
+            }
+            
+            NetworkSerializer.deleteSerializedFile("test_routing");
+            assertTrue(!NetworkSerializer.loadRoutingIndex(loaded, "test_routing"), "Deleted index should not load");
+            
+            System.out.println("  ✓ Passed\n");
+        } catch (Exception e) {
+            throw new AssertionError("Routing index persistence failed: " + e.getMessage());
+        }
+    }
+    
+    private void testBinaryFormat() {
+        System.out.println("Test: Binary Graph Format");
+        
+        NetworkGraph graph = new NetworkGraph();
+        NodeType[] types = NodeType.values();
+        ConnectionType[] connections = ConnectionType.values();
+        for (int i = 0; i < 40; i++) {
+            graph.addNode(Node.builder()
+                .id("node-" + i)
+                .name(i % 5 == 0 ? "Zürich core " + i : "Node " + i)
+                .ipAddress(i == 7 ? "fe80::7" : "10.1." + (i / 8) + "." + (i + 1))
+                .type(types[i % types.length])
+                .build());
+        }
+        for (int i = 0; i < 40; i++) {
+            for (int j = 1; j <= 3; j++) {
+                graph.addEdge(Edge.builder()
+                    .sourceId("node-" + i)
+                    .targetId("node-" + ((i * j + 11) % 40))
+                    .bandwidth(100 * j + i)
+                    .latency(i * 1000 + j)
+                    .connectionType(connections[(i + j) % connections.length])
+                    .build());
+            }
+        }
+        graph.assignSubnet("10.1.0.0/24", "node-3");
+        graph.assignSubnet("10.2.0.0/16", "node-3");
+        graph.assignSubnet("10.2.0.0/16", "node-9");
+        
+        try {
+            ByteArrayOutputStream binary = new ByteArrayOutputStream();
+            BinaryGraphWriter.write(graph, binary);
+            ByteArrayOutputStream java = new ByteArrayOutputStream();
+            NetworkSerializer.serializeToBytes(graph, java);
+            assertTrue(binary.size() * 4 < java.size(), "Binary file should be far smaller than Java serialization");
+            
+            NetworkGraph loaded = BinaryGraphReader.read(new ByteArrayInputStream(binary.toByteArray()));
+            assertEqual(40, loaded.getNodeCount(), "All nodes should load");
+            assertEqual(120, loaded.getEdgeCount(), "All edges should load");
+            for (Node node : graph.getAllNodes()) {
+                Node copy = loaded.getNode(node.getId()).orElseThrow();
+                assertTrue(copy.getName().equals(node.getName()), "Names should survive");
+                assertTrue(copy.getIpAddress().equals(node.getIpAddress()), "Addresses should survive");
+                assertTrue(copy.getType() == node.getType(), "Node types should survive");
+                
+                List<Edge> expected = graph.getEdges(node.getId());
+                List<Edge> actual = loaded.getEdges(node.getId());
+                assertEqual(expected.size(), actual.size(), "Out-degree should survive");
+                for (int i = 0; i < expected.size(); i++) {
+                    assertTrue(expected.get(i).equals(actual.get(i)), "Edge order should survive");
+                    assertEqual(expected.get(i).getBandwidth(), actual.get(i).getBandwidth(), "Bandwidth should survive");
+                    assertEqual(expected.get(i).getLatency(), actual.get(i).getLatency(), "Latency should survive");
+                    assertTrue(expected.get(i).getConnectionType() == actual.get(i).getConnectionType(),
+                               "Connection type should survive");
+                }
+            }
+            assertTrue(graph.getSubnetAssignments().equals(loaded.getSubnetAssignments()), "Subnets should survive");
+            assertEqual(2, loaded.resolveAddress("10.2.200.1").size(), "Subnet routes should resolve");
+            
+            byte[] damaged = binary.toByteArray();
+            damaged[damaged.length / 2] ^= 0x40;
+            try {
+                BinaryGraphReader.read(new ByteArrayInputStream(damaged));
+                throw new AssertionError("Damaged file should be rejected");
+            } catch (IOException expected) {
+                // expected
+            }
+            for (int i = 0; i < damaged.length; i++) {
+                byte[] flipped = binary.toByteArray();
+                flipped[i] ^= 0x02;
+                try {
+                    BinaryGraphReader.read(new ByteArrayInputStream(flipped));
+                    throw new AssertionError("Bit error at offset " + i + " should be rejected");
+                } catch (IOException expected) {
+                    // expected
+                }
+            }
+            byte[] oversized = {0x4E, 0x4D, 0x47, 0x42, 1, (byte) 0xFE, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07};
+            try {
+                BinaryGraphReader.read(new ByteArrayInputStream(oversized));
+                throw new AssertionError("Truncated file with a huge count should be rejected");
+            } catch (IOException expected) {
+                // expected
+            }
+            
+            NetworkSerializer.serialize(graph, "test_binary", SerializationFormat.BINARY);
+            assertTrue(NetworkSerializer.fileExists("test_binary", SerializationFormat.BINARY), "Binary file should exist");
+            NetworkGraph fromFile = NetworkSerializer.deserialize("test_binary", SerializationFormat.BINARY);
+            assertEqual(120, fromFile.getEdgeCount(), "File round trip should load all edges");
+            NetworkSerializer.deleteSerializedFile("test_binary");
+            assertTrue(!NetworkSerializer.fileExists("test_binary", SerializationFormat.BINARY), "Binary file should be deleted");
+            
+            System.out.println("  ✓ Passed\n");
+        } catch (Exception e) {
+            throw new AssertionError("Binary format failed: " + e.getMessage());
+        }
+    }
+    
+    private void testMappedGraph() {
+        System.out.println("Test: Memory-Mapped Graph");
+        
+        NetworkGraph graph = new NetworkGraph();
+        Random random = new Random(5);
+        for (int i = 0; i < 60; i++) {
+            graph.addNode(Node.builder()
+                .id("m" + i)
+                .name(i == 0 ? "Núcleo" : "Mapped " + i)
+                .ipAddress("10.3.0." + (i + 1))
+                .type(NodeType.values()[i % NodeType.values().length])
+                .build());
+        }
+        for (int i = 0; i < 150; i++) {
+            graph.addEdge(createEdge("m" + random.nextInt(55), "m" + random.nextInt(55), 1 + random.nextInt(20)));
+        }
+        
+        try {
+            NetworkSerializer.exportMapped(graph, "test_mapped");
+            MappedGraph mapped = NetworkSerializer.openMapped("test_mapped");
+            assertEqual(60, mapped.getNodeCount(), "All nodes should be mapped");
+            assertEqual(150, mapped.getEdgeCount(), "All edges should be mapped");
+            assertEqual(-1, mapped.indexOf("missing"), "Unknown ID should not resolve");
+            
+            for (Node node : graph.getAllNodes()) {
+                Node copy = mapped.getNode(node.getId()).orElseThrow();
+                assertTrue(copy.getName().equals(node.getName()) && copy.getType() == node.getType(),
+                           "Node attributes should read back from the mapping");
+                assertTrue(mapped.getEdges(node.getId()).equals(graph.getEdges(node.getId())), "Out-edges should match");
+                assertEqual(graph.getInDegree(node.getId()), mapped.getIncomingEdges(node.getId()).size(),
+                            "In-edges should match");
+            }
+            
+            for (int i = 0; i < 60; i++) {
+                String source = "m" + random.nextInt(60);
+                String target = "m" + random.nextInt(60);
+                assertTrue(graph.hasPath(source, target) == mapped.hasPath(source, target), "Reachability should match");
+                assertEqual(graph.findShortestPath(source, target).size(), mapped.findShortestPath(source, target).size(),
+                            "Hop paths should match");
+                long expected = graph.findLowestLatencyPath(source, target).map(WeightedPath::getCost).orElse(-1L);
+                long actual = mapped.findLowestLatencyPath(source, target).map(WeightedPath::getCost).orElse(-1L);
+                assertEqual((int) expected, (int) actual, "Latency routing should match");
+            }
+            
+            NetworkGraph replacement = new NetworkGraph();
+            replacement.addNode(graph.getNode("m0").orElseThrow());
+            NetworkSerializer.exportMapped(replacement, "test_mapped");
+            for (Node node : graph.getAllNodes()) {
+                assertTrue(mapped.getEdges(node.getId()).equals(graph.getEdges(node.getId())),
+                           "Open mapping should survive a rewrite of its file");
+            }
+            assertEqual(1, NetworkSerializer.openMapped("test_mapped").getNodeCount(), "Rewrite should be visible to new opens");
+            
+            NetworkSerializer.exportMapped(graph, "test_mapped");
+            Path mappedFile = Paths.get("data", "test_mapped.nmm");
+            byte[] file = Files.readAllBytes(mappedFile);
+            ByteBuffer header = ByteBuffer.wrap(file).order(ByteOrder.LITTLE_ENDIAN);
+            int[][] damage = {
+                {8, 1 << 20},                                 // node count beyond the sections
+                {12, -1},                                     // negative edge count
+                {16, header.getInt(16) - 1},                  // index capacity not a power of two
+                {24 + 8 * 3, header.getInt(24 + 8 * 2)},      // section start out of order
+                {header.getInt(24 + 8 * 1), 60},              // edge target past the node table
+                {header.getInt(24 + 8 * 3), 0}                // zero bandwidth
+            };
+            for (int[] change : damage) {
+                byte[] damaged = file.clone();
+                ByteBuffer.wrap(damaged).order(ByteOrder.LITTLE_ENDIAN).putInt(change[0], change[1]);
+                Files.write(mappedFile, damaged);
+                assertCorruptMapping(mappedFile);
+            }
+            Files.write(mappedFile, Arrays.copyOf(file, file.length - 8));
+            assertCorruptMapping(mappedFile);
+            
+            Path blocked = Paths.get("data", "test_mapped_blocked");
+            Files.createDirectories(blocked.resolve("occupied"));
+            try {
+                MappedGraph.write(graph.snapshot(), blocked);
+                throw new AssertionError("Writing over a non-empty directory should fail");
+            } catch (IOException expected) {
+                assertTrue(!Files.exists(Paths.get("data", "test_mapped_blocked.tmp")), "Failed write should remove its temp file");
+            } finally {
+                Files.delete(blocked.resolve("occupied"));
+                Files.delete(blocked);
+            }
+            
+            NetworkSerializer.serialize(graph, "test_mapped", SerializationFormat.BINARY);
+            try {
+                MappedGraph.open(Paths.get("data", "test_mapped.nmg"));
+                throw new AssertionError("Binary file should not open as a mapped graph");
+            } catch (IOException expected) {
+                // expected
+            }
+            
+            NetworkSerializer.deleteSerializedFile("test_mapped");
+            System.out.println("  ✓ Passed\n");
+        } catch (IOException e) {
+            throw new AssertionError("Mapped graph failed: " + e.getMessage());
+        }
+    }
+    
+    private void assertCorruptMapping(Path file) {
+        try {
+            MappedGraph.open(file);
+            throw new AssertionError("Damaged mapped graph should not open");
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage().equals("Mapped graph file is corrupt"), "Damage should be reported as corruption");
+        }
+    }
+    
+    private void testJsonExport() {
+        System.out.println("Test: Streaming JSON Export");
+        
+        NetworkGraph graph = new NetworkGraph();
+        for (int i = 0; i < 12; i++) {
+            graph.addNode(Node.builder()
+                .id("j" + i)
+                .name("Json " + i)
+                .ipAddress("10.4.0." + (i + 1))
+                .type(NodeType.values()[i % NodeType.values().length])
+                .build());
+        }
+        for (int i = 0; i < 12; i++) {
+            graph.addEdge(createEdge("j" + i, "j" + ((i + 5) % 12), i * 37));
+            graph.addEdge(createEdge("j" + i, "j" + ((i + 7) % 12), Integer.MAX_VALUE - i));
+        }
+        
+        StringBuilder expected = new StringBuilder("{\n  \"nodes\": [\n");
+        List<Node> nodes = graph.getAllNodes();
+        for (int i = 0; i < nodes.size(); i++) {
+            Node node = nodes.get(i);
+            expected.append(String.format("    {\n      \"id\": \"%s\",\n      \"name\": \"%s\",\n", node.getId(), node.getName()));
+            expected.append(String.format("      \"ip\": \"%s\",\n      \"type\": \"%s\"\n    }", node.getIpAddress(), node.getType()));
+            expected.append(i < nodes.size() - 1 ? ",\n" : "\n");
+        }
+        expected.append("  ],\n  \"edges\": [\n");
+        List<Edge> edges = nodes.stream().flatMap(n -> graph.getEdges(n.getId()).stream()).toList();
+        for (int i = 0; i < edges.size(); i++) {
+            Edge edge = edges.get(i);
+            expected.append(String.format("    {\n      \"source\": \"%s\",\n      \"target\": \"%s\",\n",
+                edge.getSourceId(), edge.getTargetId()));
+            expected.append(String.format("      \"bandwidth\": %d,\n      \"latency\": %d,\n      \"type\": \"%s\"\n    }",
+                edge.getBandwidth(), edge.getLatency(), edge.getConnectionType()));
+            expected.append(i < edges.size() - 1 ? ",\n" : "\n");
+        }
+        expected.append("  ]\n}\n");
+        
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            JsonExporter.exportToJson(graph, out);
+            assertTrue(expected.toString().equals(out.toString(StandardCharsets.UTF_8)), "Output should match the existing format");
+            
+            NetworkGraph special = new NetworkGraph();
+            special.addNode(Node.builder().id("q").name("Edge \"A\"\\\n\u0001 Zürich 🚀").ipAddress("::1").type(NodeType.ROUTER).build());
+            ByteArrayOutputStream escaped = new ByteArrayOutputStream();
+            JsonExporter.exportToJson(special, escaped);
+            assertTrue(escaped.toString(StandardCharsets.UTF_8).contains("\"name\": \"Edge \\\"A\\\"\\\\\\n\\u0001 Zürich 🚀\""),
+                       "Strings should be escaped and UTF-8 encoded");
+            assertTrue(escaped.toString(StandardCharsets.UTF_8).endsWith("\"edges\": [\n  ]\n}\n"), "Empty edge list should close");
+            
+            System.out.println("  ✓ Passed\n");
+        } catch (IOException e) {
+            throw new AssertionError("JSON export failed: " + e.getMessage());
+        }
+    }
+    
+    private void testJsonImport() {
+        System.out.println("Test: Streaming JSON Import");
+        
+        NetworkGraph graph = new NetworkGraph();
+        GraphBatch batch = graph.newBatch();
+        for (int i = 0; i < 500; i++) {
+            batch.addNode(Node.builder()
+                .id("i" + i)
+                .name(i == 7 ? "Edge \"A\"\\\n\u0001 Zürich 🚀" : "Import " + i)
+                .ipAddress("10.5." + (i / 250) + "." + (i % 250 + 1))
+                .type(NodeType.values()[i % NodeType.values().length])
+                .build());
+        }
+        Random random = new Random(24);
+        int edgeCount = JsonImporter.CHUNK_SIZE + 1000;
+        for (int i = 0; i < edgeCount; i++) {
+            batch.addEdge(Edge.builder()
+                .sourceId("i" + (i % 500))
+                .targetId("i" + random.nextInt(500))
+                .bandwidth(1 + random.nextInt(100_000))
+                .latency(random.nextInt(1000))
+                .connectionType(ConnectionType.values()[i % ConnectionType.values().length])
+                .build());
+        }
+        batch.commit();
+        
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            JsonExporter.exportToJson(graph, out);
+            NetworkGraph loaded = JsonImporter.importFromJson(new ByteArrayInputStream(out.toByteArray()));
+            
+            assertEqual(500, loaded.getNodeCount(), "Node count should survive the round trip");
+            assertEqual(edgeCount, loaded.getEdgeCount(), "Edge count should survive the round trip");
+            for (Node node : graph.getAllNodes()) {
+                Node copy = loaded.getNode(node.getId()).orElseThrow();
+                assertTrue(node.getName().equals(copy.getName()) && node.getIpAddress().equals(copy.getIpAddress())
+                           && node.getType() == copy.getType(), "Node " + node.getId() + " should match");
+                assertTrue(graph.getEdges(node.getId()).equals(loaded.getEdges(node.getId())), "Edges of " + node.getId() + " should match");
+            }
+            
+            String reordered = "{\"meta\": {\"v\": [1, 2.5, true, null]}, \"edges\": [{\"type\": \"WIRELESS\", \"latency\": 3, "
+                + "\"bandwidth\": 10, \"target\": \"b\", \"source\": \"a\"}], \"nodes\": [{\"ip\": \"10.0.0.1\", "
+                + "\"type\": \"ROUTER\", \"name\": \"\\u0041\\ud83d\\ude80\", \"id\": \"a\"}, "
+                + "{\"id\": \"b\", \"name\": \"B\", \"ip\": \"10.0.0.2\", \"type\": \"SWITCH\", \"extra\": \"x\"}]}";
+            NetworkGraph small = JsonImporter.importFromJson(new ByteArrayInputStream(reordered.getBytes(StandardCharsets.UTF_8)));
+            assertEqual(1, small.getEdgeCount(), "Edges listed before nodes should still load");
+            assertTrue("A🚀".equals(small.getNode("a").orElseThrow().getName()), "Unicode escapes should decode");
+            
+            assertRejected("{\"nodes\": [{\"id\": \"a\", \"name\": \"A\", \"ip\": \"10.0.0.1\"}]}");
+            assertRejected("{\"nodes\": [], \"edges\": [{\"source\": \"a\", \"target\": \"b\", "
+                           + "\"bandwidth\": 1, \"latency\": 1, \"type\": \"FIBER\"}]}");
+            assertRejected("{\"nodes\": [{\"id\": \"a\", \"name\": \"A\", \"ip\": \"10.0.0.1\", \"type\": \"HUB\"}]}");
+            assertRejected("{\"nodes\": [");
+            assertRejected("{\"nodes\": []} trailing");
+            
+            System.out.println("  ✓ Passed\n");
+        } catch (IOException e) {
+            throw new AssertionError("JSON import failed: " + e.getMessage());
+        }
+    }
+    
+    private void testEdgeLimitsRoundTrip() {
+        System.out.println("Test: Edge Limits Round Trip");
+        
+        try {
+            Edge.builder().sourceId("a").targetId("b").latency(1).connectionType(ConnectionType.FIBER).build();
+            throw new AssertionError("Edge without a bandwidth should not build");
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+        
+        NetworkGraph graph = new NetworkGraph();
+        for (int i = 0; i < 3; i++) {
+            graph.addNode(Node.builder()
+                .id("e" + i)
+                .name("Edge " + i)
+                .ipAddress("10.4.0." + (i + 1))
+                .type(NodeType.ROUTER)
+                .build());
+        }
+        graph.addEdge(Edge.builder()
+            .sourceId("e0")
+            .targetId("e1")
+            .bandwidth(1)
+            .latency(0)
+            .connectionType(ConnectionType.ETHERNET)
+            .build());
+        graph.addEdge(Edge.builder()
+            .sourceId("e1")
+            .targetId("e2")
+            .bandwidth(Integer.MAX_VALUE)
+            .latency(Integer.MAX_VALUE)
+            .connectionType(ConnectionType.WIRELESS)
+            .build());
+        
+        try {
+            NetworkSerializer.serialize(graph, "test_limits", SerializationFormat.BINARY);
+            assertSameEdges(graph, NetworkSerializer.deserialize("test_limits", SerializationFormat.BINARY), "Binary");
+            
+            NetworkSerializer.exportMapped(graph, "test_limits");
+            MappedGraph mapped = NetworkSerializer.openMapped("test_limits");
+            for (Node node : graph.getAllNodes()) {
+                assertTrue(mapped.getEdges(node.getId()).toString().equals(graph.getEdges(node.getId()).toString()),
+                           "Mapped edges should keep their limits");
+            }
+            
+            ByteArrayOutputStream json = new ByteArrayOutputStream();
+            JsonExporter.exportToJson(graph, json);
+            assertSameEdges(graph, JsonImporter.importFromJson(new ByteArrayInputStream(json.toByteArray())), "JSON");
+            
+            NetworkSerializer.deleteSerializedFile("test_limits");
+            System.out.println("  ✓ Passed\n");
+        } catch (IOException | ClassNotFoundException e) {
+            throw new AssertionError("Edge limits round trip failed: " + e.getMessage());
+        }
+    }
+    
+    private void assertSameEdges(NetworkGraph expected, NetworkGraph actual, String format) {
+        assertEqual(expected.getEdgeCount(), actual.getEdgeCount(), format + " should keep every edge");
+        for (Node node : expected.getAllNodes()) {
+            // toString carries bandwidth and latency, which Edge.equals ignores
+            assertTrue(actual.getEdges(node.getId()).toString().equals(expected.getEdges(node.getId()).toString()),
+                       format + " edges should keep their limits");
+        }
+    }
+    
+    private void assertRejected(String json) {
+        try {
+            JsonImporter.importFromJson(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+        } catch (IOException e) {
+            return;
+        }
+        throw new AssertionError("Malformed JSON should be rejected: " + json);
+    }
+    
+    private Edge createEdge(String from, String to, int latency) {
+        return Edge.builder()
+            .sourceId(from)
+            .targetId(to)
+            .bandwidth(1000)
+            .latency(latency)
+            .connectionType(ConnectionType.FIBER)
+            .build();
+    }
+    
     private void assertTrue(boolean condition, String message) {
         if (!condition) {
             throw new AssertionError("Assertion failed: " + message);
@@ -0,0 +1,22 @@
+package com.netmap.serialization;
+
+public enum SerializationFormat {
+    JAVA("Java serialization", ".ser"),
+    BINARY("NetMap binary", ".nmg");
+    
+    private final String displayName;
+    private final String extension;
+    
+    SerializationFormat(String displayName, String extension) {
+        this.displayName = displayName;
+        this.extension = extension;
+    }
+    
+    public String getDisplayName() {
+        return displayName;
+    }
+    
+    public String getExtension() {
+        return extension;
+    }
+}
\ No newline at end of file